@@ -0,0 +1,256 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import ij.ImagePlus;
+import ij.measure.ResultsTable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.imagej.Dataset;
+import net.imagej.legacy.convert.TableListWrapper;
+import net.imagej.roi.ROIService;
+import net.imagej.table.TableService;
+
+import org.scijava.convert.ConvertService;
+import org.scijava.table.Table;
+import org.scijava.util.TreeNode;
+
+/**
+ * Caches the ImageJ 1.x counterparts of the ROIs and tables attached to a
+ * {@link Dataset}, so that they need not be reconverted every time the
+ * {@link LegacyImageMap} synchronizes a {@link Dataset} with its
+ * {@link ImagePlus}.
+ * <p>
+ * Entries are keyed per {@link Dataset}, and each one remembers the identity
+ * and a content signature of the {@link ROIService#ROI_PROPERTY} and
+ * {@link TableService#TABLE_PROPERTY} values it was computed from. A cached
+ * conversion is reused only while both still match; otherwise the value is
+ * converted again and the entry is replaced.
+ * </p>
+ */
+public class AttachmentCache {
+
+	private final ConvertService convertService;
+
+	/** Cache entries, discarded when their {@link Dataset} is collected. */
+	private final Map<Dataset, Entry> entries = new WeakHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public AttachmentCache(final ConvertService convertService) {
+		this.convertService = convertService;
+	}
+
+	// -- AttachmentCache methods --
+
+	/**
+	 * Gets the {@link ij.gui.Overlay} equivalent to the given ROIs of a
+	 * {@link Dataset}, converting them only if they changed since last time.
+	 *
+	 * @param dataset The {@link Dataset} to which the ROIs are attached
+	 * @param rois The value of the {@link Dataset}'s
+	 *          {@link ROIService#ROI_PROPERTY}
+	 * @return The equivalent {@link ij.gui.Overlay}, or null if the ROIs could
+	 *         not be converted
+	 */
+	public synchronized ij.gui.Overlay getOverlay(final Dataset dataset,
+		final Object rois)
+	{
+		final Entry entry = entry(dataset);
+		final long signature = signature(rois);
+		if (entry.rois == rois && entry.roiSignature == signature &&
+			entry.overlay != null && entry.overlay.size() == entry.overlaySize)
+		{
+			hits.incrementAndGet();
+			return entry.overlay;
+		}
+		misses.incrementAndGet();
+		final ij.gui.Overlay overlay = convertService.convert(rois,
+			ij.gui.Overlay.class);
+		entry.setROIs(rois, signature, overlay);
+		return overlay;
+	}
+
+	/**
+	 * Gets the ImageJ 1.x {@link ResultsTable}s equivalent to the given tables
+	 * of a {@link Dataset}, wrapping them only if they changed since last time.
+	 *
+	 * @param dataset The {@link Dataset} to which the tables are attached
+	 * @param tables The value of the {@link Dataset}'s
+	 *          {@link TableService#TABLE_PROPERTY}
+	 * @return A {@link TableListWrapper} around the given tables
+	 */
+	public synchronized TableListWrapper getTables(final Dataset dataset,
+		final List<Table<?, ?>> tables)
+	{
+		final Entry entry = entry(dataset);
+		final long signature = signature(tables);
+		if (entry.tables == tables && entry.tableSignature == signature &&
+			entry.tableWrapper != null)
+		{
+			hits.incrementAndGet();
+			return entry.tableWrapper;
+		}
+		misses.incrementAndGet();
+		final TableListWrapper wrapper = //
+			new TableListWrapper(tables, convertService);
+		entry.setTables(tables, signature, wrapper);
+		return wrapper;
+	}
+
+	/**
+	 * Records that the given ROIs of a {@link Dataset} were converted from the
+	 * given {@link ij.gui.Overlay}, so that converting them back is a cache hit.
+	 */
+	public synchronized void putOverlay(final Dataset dataset,
+		final Object rois, final ij.gui.Overlay overlay)
+	{
+		entry(dataset).setROIs(rois, signature(rois), overlay);
+	}
+
+	/**
+	 * Records that the source tables of the given {@link TableListWrapper} are
+	 * now attached to a {@link Dataset}, so that looking them up again is a
+	 * cache hit.
+	 */
+	public synchronized void putTables(final Dataset dataset,
+		final TableListWrapper wrapper)
+	{
+		final List<Table<?, ?>> tables = wrapper.getSource();
+		entry(dataset).setTables(tables, signature(tables), wrapper);
+	}
+
+	/** Discards any cached attachments of the given {@link Dataset}. */
+	public synchronized void invalidate(final Dataset dataset) {
+		entries.remove(dataset);
+	}
+
+	/** Discards all cached attachments. */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/** Gets the number of lookups served from the cache. */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/** Gets the number of lookups which required a new conversion. */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/** Resets the hit and miss counters to zero. */
+	public void resetCounters() {
+		hits.set(0);
+		misses.set(0);
+	}
+
+	// -- Helper methods --
+
+	private Entry entry(final Dataset dataset) {
+		Entry entry = entries.get(dataset);
+		if (entry == null) {
+			entry = new Entry();
+			entries.put(dataset, entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Computes a content signature of a ROI tree. The ROI wrappers and ImgLib2
+	 * ROIs implement {@link Object#hashCode()} over their geometry, so moving or
+	 * reshaping a ROI in place changes the signature.
+	 */
+	private static long signature(final Object rois) {
+		if (rois == null) return 0;
+		if (!(rois instanceof TreeNode)) return rois.hashCode();
+		final TreeNode<?> node = (TreeNode<?>) rois;
+		long signature = node.data() == null ? 1 : node.data().hashCode();
+		final List<TreeNode<?>> children = node.children();
+		if (children == null) return signature;
+		signature = 31 * signature + children.size();
+		for (final TreeNode<?> child : children)
+			signature = 31 * signature + signature(child);
+		return signature;
+	}
+
+	/**
+	 * Computes a content signature of a table list from the identities and
+	 * sizes of its tables.
+	 */
+	private static long signature(final List<Table<?, ?>> tables) {
+		long signature = tables.size();
+		for (final Table<?, ?> table : tables) {
+			signature = 31 * signature + System.identityHashCode(table);
+			if (table == null) continue;
+			signature = 31 * signature + table.getRowCount();
+			signature = 31 * signature + table.getColumnCount();
+		}
+		return signature;
+	}
+
+	// -- Helper classes --
+
+	/** Cached attachments of a single {@link Dataset}. */
+	private static class Entry {
+
+		private Object rois;
+		private long roiSignature;
+		private ij.gui.Overlay overlay;
+		private int overlaySize;
+
+		private List<Table<?, ?>> tables;
+		private long tableSignature;
+		private TableListWrapper tableWrapper;
+
+		private void setROIs(final Object rois, final long signature,
+			final ij.gui.Overlay overlay)
+		{
+			this.rois = rois;
+			this.roiSignature = signature;
+			this.overlay = overlay;
+			this.overlaySize = overlay == null ? 0 : overlay.size();
+		}
+
+		private void setTables(final List<Table<?, ?>> tables,
+			final long signature, final TableListWrapper wrapper)
+		{
+			this.tables = tables;
+			this.tableSignature = signature;
+			this.tableWrapper = wrapper;
+		}
+	}
+}
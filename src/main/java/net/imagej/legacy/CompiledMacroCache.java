@@ -0,0 +1,304 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import ij.IJ;
+import ij.ImagePlus;
+import ij.Macro;
+import ij.WindowManager;
+import ij.macro.Interpreter;
+import ij.macro.Program;
+import ij.macro.Tokenizer;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache of tokenized ImageJ 1.x macros.
+ * <p>
+ * {@link IJ#runMacro(String)} tokenizes the full macro source on every call.
+ * This cache keeps the tokenized {@link Program} of the most recently run
+ * macros, keyed by their source code (including any
+ * {@link Interpreter#getAdditionalFunctions() additional functions}), and runs
+ * them the same way ImageJ 1.x does, tracking each interpreter in the current
+ * {@link MacroContext}, if any. Macros run by the {@code IJ1MacroEngine} pass
+ * their parameter values through the interpreter's variable table, so their
+ * source, and hence their {@code Program}, is the same for every call.
+ * </p>
+ * <p>
+ * Since the interpreter stores per-run state in a {@code Program}, each one is
+ * used by at most one run at a time; concurrent runs of the same macro tokenize
+ * additional copies. The cache holds {@value #DEFAULT_SIZE} macros by default;
+ * the {@value #SIZE_PROPERTY} system property sets a different size, where 0
+ * disables caching. If the ImageJ 1.x internals needed to run a {@code Program}
+ * are not accessible, macros are always tokenized anew.
+ * </p>
+ */
+public class CompiledMacroCache {
+
+	/** System property specifying the maximum number of cached macros. */
+	public static final String SIZE_PROPERTY = "imagej.legacy.macroCache.size";
+
+	/** Default maximum number of cached macros. */
+	public static final int DEFAULT_SIZE = 64;
+
+	/** Maximum number of idle copies kept per macro. */
+	private static final int MAX_COPIES = 4;
+
+	private static final Field ARGUMENT, CALLED_MACRO, RETURN_VALUE;
+	private static final Field HAS_VARS, HAS_FUNCTIONS;
+	private static final Method SAVE_GLOBALS;
+
+	static {
+		Field argument = null, calledMacro = null, returnValue = null;
+		Field hasVars = null, hasFunctions = null;
+		Method saveGlobals = null;
+		try {
+			argument = accessible(Interpreter.class.getDeclaredField("argument"));
+			calledMacro = accessible(Interpreter.class.getDeclaredField(
+				"calledMacro"));
+			returnValue = accessible(Interpreter.class.getDeclaredField(
+				"returnValue"));
+			hasVars = accessible(Program.class.getDeclaredField("hasVars"));
+			hasFunctions = accessible(Program.class.getDeclaredField(
+				"hasFunctions"));
+			saveGlobals = Interpreter.class.getDeclaredMethod("saveGlobals2",
+				Program.class);
+			saveGlobals.setAccessible(true);
+		}
+		catch (final NoSuchFieldException | NoSuchMethodException
+				| SecurityException exc)
+		{
+			argument = null;
+		}
+		ARGUMENT = argument;
+		CALLED_MACRO = calledMacro;
+		RETURN_VALUE = returnValue;
+		HAS_VARS = hasVars;
+		HAS_FUNCTIONS = hasFunctions;
+		SAVE_GLOBALS = saveGlobals;
+	}
+
+	private final Map<String, Deque<Program>> programs;
+
+	private volatile int maxSize;
+
+	private long hits, misses;
+
+	/**
+	 * Creates a cache whose size is given by the {@value #SIZE_PROPERTY} system
+	 * property, or {@value #DEFAULT_SIZE} if unset.
+	 */
+	public CompiledMacroCache() {
+		this(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+	}
+
+	/**
+	 * Creates a cache holding up to the given number of macros.
+	 *
+	 * @param maxSize the maximum number of cached macros; 0 disables caching
+	 */
+	public CompiledMacroCache(final int maxSize) {
+		this.maxSize = Math.max(0, maxSize);
+		programs = new LinkedHashMap<String, Deque<Program>>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(
+				final Map.Entry<String, Deque<Program>> eldest)
+			{
+				return size() > CompiledMacroCache.this.maxSize;
+			}
+		};
+	}
+
+	// -- CompiledMacroCache methods --
+
+	/**
+	 * Runs the given macro like {@link IJ#runMacro(String, String)}, reusing its
+	 * tokenized form if it was run before.
+	 *
+	 * @param macro the macro source code
+	 * @param arg the macro argument
+	 * @return the macro's return value, or {@code "[aborted]"}
+	 */
+	public String run(final String macro, final String arg) {
+		if (!isEnabled()) return runUncached(macro, arg);
+
+		final String additional = Interpreter.getAdditionalFunctions();
+		final String source = additional == null ? macro : macro + additional;
+		final Program pgm = acquire(source);
+
+		final Interpreter interp = new Interpreter();
+		try {
+			ARGUMENT.set(interp, arg);
+			CALLED_MACRO.setBoolean(interp, true);
+			if (HAS_VARS.getBoolean(pgm) && HAS_FUNCTIONS.getBoolean(pgm)) {
+				SAVE_GLOBALS.invoke(interp, pgm);
+			}
+			// NB: Attach once set up as a called macro, which aborting leaves the
+			// global batch mode state alone.
+			MacroContext.attach(interp);
+			if (MacroContext.isCurrentAborted()) {
+				release(source, pgm);
+				return "[aborted]";
+			}
+			interp.run(pgm);
+			// NB: An aborted run may leave its program in any state.
+			if (MacroContext.isCurrentAborted()) return "[aborted]";
+			final String returnValue = (String) RETURN_VALUE.get(interp);
+			release(source, pgm);
+			return returnValue;
+		}
+		catch (final IllegalAccessException exc) {
+			throw new IllegalStateException(exc);
+		}
+		catch (final InvocationTargetException exc) {
+			return aborted(interp, exc.getCause());
+		}
+		catch (final Throwable t) {
+			return aborted(interp, t);
+		}
+	}
+
+	/** Returns true iff macros are cached. */
+	public boolean isEnabled() {
+		return maxSize > 0 && ARGUMENT != null;
+	}
+
+	/**
+	 * Sets the maximum number of cached macros.
+	 *
+	 * @param maxSize the maximum number of cached macros; 0 disables caching
+	 */
+	public void setMaxSize(final int maxSize) {
+		this.maxSize = Math.max(0, maxSize);
+		synchronized (programs) {
+			if (this.maxSize == 0) programs.clear();
+		}
+	}
+
+	/** Gets the maximum number of cached macros. */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/** Gets the number of cached macros. */
+	public int size() {
+		synchronized (programs) {
+			return programs.size();
+		}
+	}
+
+	/** Discards all cached macros. */
+	public void clear() {
+		synchronized (programs) {
+			programs.clear();
+		}
+	}
+
+	/** Gets the number of runs which reused a tokenized macro. */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/** Gets the number of runs which had to tokenize their macro. */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	// -- Helper methods --
+
+	/** Runs the given macro the same way as {@code Macro_Runner} does. */
+	private String runUncached(final String macro, final String arg) {
+		final Interpreter interp = new Interpreter();
+		MacroContext.attach(interp);
+		if (MacroContext.isCurrentAborted()) return "[aborted]";
+		try {
+			final String returnValue = interp.run(macro, arg);
+			return MacroContext.isCurrentAborted() ? "[aborted]" : returnValue;
+		}
+		catch (final Throwable t) {
+			return aborted(interp, t);
+		}
+	}
+
+	private Program acquire(final String source) {
+		synchronized (programs) {
+			final Deque<Program> idle = programs.get(source);
+			if (idle != null && !idle.isEmpty()) {
+				count(true);
+				return idle.pop();
+			}
+		}
+		count(false);
+		return new Tokenizer().tokenize(source);
+	}
+
+	private void release(final String source, final Program pgm) {
+		synchronized (programs) {
+			Deque<Program> idle = programs.get(source);
+			if (idle == null) {
+				if (maxSize == 0) return;
+				idle = new ArrayDeque<>();
+				programs.put(source, idle);
+			}
+			if (idle.size() < MAX_COPIES) idle.push(pgm);
+		}
+	}
+
+	private synchronized void count(final boolean hit) {
+		if (hit) hits++;
+		else misses++;
+	}
+
+	/** Handles a failed macro the same way as {@code Macro_Runner} does. */
+	private String aborted(final Interpreter interp, final Throwable t) {
+		interp.abortMacro();
+		IJ.showStatus("");
+		IJ.showProgress(1.0);
+		final ImagePlus imp = WindowManager.getCurrentImage();
+		if (imp != null) imp.unlock();
+		if (t instanceof RuntimeException && Macro.MACRO_CANCELED.equals(t
+			.getMessage())) return "[aborted]";
+		IJ.handleException(t);
+		return "[aborted]";
+	}
+
+	private static Field accessible(final Field field) {
+		field.setAccessible(true);
+		return field;
+	}
+
+}
@@ -0,0 +1,235 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import ij.ImagePlus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import net.imagej.display.ImageDisplay;
+
+import org.scijava.log.LogService;
+
+/**
+ * Coalesces requests to harmonize {@link ImageDisplay}s with their
+ * {@link ImagePlus}es.
+ * <p>
+ * A burst of display updates (e.g., from a script, or while dragging a slider)
+ * would otherwise trigger one full pixel/LUT/overlay synchronization per
+ * update. With a nonzero {@link #setInterval(long) interval}, each display with
+ * pending updates is harmonized at most once per interval, on a dedicated
+ * background thread. Callers needing the {@link ImagePlus} to be current right
+ * away can {@link #flush()} the pending requests synchronously.
+ * <p>
+ * Coalescing is off by default: ImageJ 1.x code reading an {@link ImagePlus}
+ * does not flush, and would see stale data until the next harmonization.
+ * </p>
+ * </p>
+ */
+public class HarmonizationScheduler {
+
+	/**
+	 * Default delay between a request and its harmonization, in ms: none, so
+	 * each request is harmonized right away.
+	 */
+	public static final long DEFAULT_INTERVAL = 0;
+
+	private final Consumer<ImageDisplay> harmonizer;
+	private final LogService log;
+
+	/** Displays awaiting harmonization, in request order. */
+	private final Set<ImageDisplay> pending = new LinkedHashSet<>();
+
+	/**
+	 * The lock held while harmonizing. The owner of the harmonizer holds the
+	 * same lock for all other uses of it, so they never run concurrently.
+	 */
+	private final Object lock;
+
+	private final AtomicLong requestCount = new AtomicLong();
+	private final AtomicLong harmonizeCount = new AtomicLong();
+
+	private long interval = DEFAULT_INTERVAL;
+	private ScheduledExecutorService executor;
+	private ScheduledFuture<?> scheduledFlush;
+	private boolean disposed;
+
+	/**
+	 * Creates a scheduler which passes each display with pending updates to the
+	 * given harmonizer, while holding the given lock.
+	 *
+	 * @param harmonizer the code harmonizing a display
+	 * @param lock the lock guarding all uses of the harmonizer, including those
+	 *          made outside of this scheduler
+	 * @param log the log for reporting failed harmonizations
+	 */
+	public HarmonizationScheduler(final Consumer<ImageDisplay> harmonizer,
+		final Object lock, final LogService log)
+	{
+		this.harmonizer = harmonizer;
+		this.lock = lock;
+		this.log = log;
+	}
+
+	// -- HarmonizationScheduler methods --
+
+	/**
+	 * Requests harmonization of the given {@link ImageDisplay}. Requests for a
+	 * display which is already pending are merged into the pending one. Requests
+	 * made after {@link #dispose()} are ignored.
+	 */
+	public void schedule(final ImageDisplay display) {
+		requestCount.incrementAndGet();
+		synchronized (this) {
+			if (disposed) return;
+			if (interval > 0) {
+				if (pending.add(display) && scheduledFlush == null) {
+					scheduledFlush = executor().schedule(this::flush, interval,
+						TimeUnit.MILLISECONDS);
+				}
+				return;
+			}
+		}
+		// no coalescing; harmonize right away on the calling thread
+		harmonize(display);
+	}
+
+	/** Harmonizes all pending displays on the calling thread. */
+	public void flush() {
+		final List<ImageDisplay> displays;
+		synchronized (this) {
+			displays = new ArrayList<>(pending);
+			pending.clear();
+			if (scheduledFlush != null) {
+				scheduledFlush.cancel(false);
+				scheduledFlush = null;
+			}
+		}
+		for (final ImageDisplay display : displays) {
+			try {
+				harmonize(display);
+			}
+			catch (final RuntimeException exc) {
+				log.error("Cannot harmonize display: " + display.getName(), exc);
+			}
+		}
+	}
+
+	/**
+	 * Harmonizes the given {@link ImageDisplay} on the calling thread, if it has
+	 * pending updates.
+	 */
+	public void flush(final ImageDisplay display) {
+		final boolean wasPending;
+		synchronized (this) {
+			wasPending = pending.remove(display);
+		}
+		if (wasPending) harmonize(display);
+	}
+
+	/** Discards any pending updates of the given {@link ImageDisplay}. */
+	public synchronized void cancel(final ImageDisplay display) {
+		pending.remove(display);
+	}
+
+	/** Gets whether the given {@link ImageDisplay} has pending updates. */
+	public synchronized boolean isPending(final ImageDisplay display) {
+		return pending.contains(display);
+	}
+
+	/** Gets the delay between a request and its harmonization, in ms. */
+	public synchronized long getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Sets the delay between a request and its harmonization, in ms. An
+	 * interval of zero disables coalescing, harmonizing each request immediately.
+	 */
+	public void setInterval(final long interval) {
+		if (interval < 0) throw new IllegalArgumentException(
+			"Negative interval: " + interval);
+		synchronized (this) {
+			this.interval = interval;
+		}
+		if (interval == 0) flush();
+	}
+
+	/** Gets the number of harmonization requests received. */
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * Gets the number of harmonizations actually performed. The difference to
+	 * {@link #getRequestCount()} is the number of requests which were coalesced.
+	 */
+	public long getHarmonizeCount() {
+		return harmonizeCount.get();
+	}
+
+	/** Discards all pending updates and stops the background thread. */
+	public synchronized void dispose() {
+		disposed = true;
+		pending.clear();
+		scheduledFlush = null;
+		if (executor != null) executor.shutdownNow();
+		executor = null;
+	}
+
+	// -- Helper methods --
+
+	private void harmonize(final ImageDisplay display) {
+		synchronized (lock) {
+			harmonizeCount.incrementAndGet();
+			harmonizer.accept(display);
+		}
+	}
+
+	private ScheduledExecutorService executor() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				final Thread thread = new Thread(r, "ImageJ-Legacy-Harmonizer");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executor;
+	}
+}
@@ -45,6 +45,9 @@ import ij.io.OpenDialog;
 import ij.io.Opener;
 import ij.io.SaveDialog;
 import ij.macro.Interpreter;
+import ij.macro.Program;
+import ij.macro.Symbol;
+import ij.macro.Variable;
 import ij.measure.ResultsTable;
 import ij.plugin.Commands;
 import ij.plugin.PlugIn;
@@ -65,6 +68,7 @@ import java.awt.Panel;
 import java.awt.Window;
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -74,6 +78,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -138,6 +143,9 @@ public class IJ1Helper extends AbstractContextual {
 	/** Whether we are in the process of forcibly shutting down ImageJ1. */
 	private boolean disposing;
 
+	/** Tokenized macros, for running the same macros repeatedly. */
+	private CompiledMacroCache macroCache;
+
 	public IJ1Helper(final LegacyService legacyService) {
 		setContext(legacyService.getContext());
 		this.legacyService = legacyService;
@@ -613,9 +621,13 @@ public class IJ1Helper extends AbstractContextual {
 		return Macro.getValue(getOptions(), label, null);
 	}
 
-	/** Returns the active macro {@link Interpreter}. */
+	/**
+	 * Returns the active macro {@link Interpreter} of the current thread.
+	 *
+	 * @see MacroContext#currentInterpreter()
+	 */
 	public static Object getInterpreter() {
-		return Interpreter.getInstance();
+		return MacroContext.currentInterpreter();
 	}
 
 	/** Gets the result of {@link Interpreter#getAdditionalFunctions()}. */
@@ -662,6 +674,77 @@ public class IJ1Helper extends AbstractContextual {
 		return null;
 	}
 
+	/**
+	 * Checks whether variables can be exchanged with a macro {@link Interpreter}
+	 * directly via {@link #setVariables} and {@link #getVariableMap}, rather than
+	 * as macro source code and {@link #getVariables(Object)} strings.
+	 */
+	public static boolean canAccessVariables() {
+		return MacroVariables.AVAILABLE;
+	}
+
+	/**
+	 * Assigns values to the like-named variables of the given macro
+	 * {@link Interpreter}, without generating and parsing macro code.
+	 * <p>
+	 * Arrays become macro arrays, {@link ImagePlus}es their IDs, {@link File}s
+	 * their absolute paths, numbers and booleans numeric values, and everything
+	 * else strings. Variables must already be declared in the running macro;
+	 * names which are not are ignored.
+	 * </p>
+	 *
+	 * @param interpreter The running macro {@link Interpreter}.
+	 * @param values The values to assign, keyed by variable name.
+	 * @throws IllegalStateException if {@link #canAccessVariables()} is false.
+	 * @throws ClassCastException if the given interpreter is not an
+	 *           {@link Interpreter}.
+	 */
+	public static void setVariables(final Object interpreter,
+		final Map<String, ?> values)
+	{
+		final Interpreter interp = (Interpreter) interpreter;
+		final Variable[] stack = MacroVariables.stack(interp);
+		final Symbol[] table = MacroVariables.symbols(interp);
+		final int top = MacroVariables.top(interp);
+		final Set<String> assigned = new HashSet<>();
+		for (int i = 0; i <= top; i++) {
+			final Variable var = stack[i];
+			if (var == null) continue;
+			final String name = table[var.symTabIndex].str;
+			// NB: Globals are at the bottom of the stack; they take precedence.
+			if (!values.containsKey(name) || !assigned.add(name)) continue;
+			assign(var, values.get(name), true);
+		}
+	}
+
+	/**
+	 * Gets the variables of the given macro {@link Interpreter}, read directly
+	 * from its variable table.
+	 *
+	 * @param interpreter The macro {@link Interpreter} to query.
+	 * @return The variables by name: a {@link Double} or {@link String} for
+	 *         scalars, a {@code double[]} for numeric arrays, an {@code Object[]}
+	 *         for other arrays, and {@code null} for NaN values.
+	 * @throws IllegalStateException if {@link #canAccessVariables()} is false.
+	 * @throws ClassCastException if the given interpreter is not an
+	 *           {@link Interpreter}.
+	 */
+	public static Map<String, Object> getVariableMap(final Object interpreter) {
+		final Map<String, Object> vars = new LinkedHashMap<>();
+		if (interpreter == null) return vars;
+		final Interpreter interp = (Interpreter) interpreter;
+		final Variable[] stack = MacroVariables.stack(interp);
+		final Symbol[] table = MacroVariables.symbols(interp);
+		final int top = MacroVariables.top(interp);
+		for (int i = 0; i <= top; i++) {
+			final Variable var = stack[i];
+			if (var == null) continue;
+			final String name = table[var.symTabIndex].str;
+			if (!vars.containsKey(name)) vars.put(name, value(var));
+		}
+		return vars;
+	}
+
 	/** Returns true if the object is an instance of {@link ImagePlus}. */
 	public boolean isImagePlus(final Object o) {
 		return o instanceof ImagePlus;
@@ -1094,6 +1177,71 @@ public class IJ1Helper extends AbstractContextual {
 
 	}
 
+	/**
+	 * Reflective access to the variable table of a macro {@link Interpreter},
+	 * resolved once.
+	 */
+	private static final class MacroVariables {
+
+		private static final Field STACK, TOP_OF_STACK, PGM;
+		private static final Method SYMBOL_TABLE;
+		private static final boolean AVAILABLE;
+
+		static {
+			Field stack = null, top = null, pgm = null;
+			Method symbols = null;
+			try {
+				stack = Interpreter.class.getDeclaredField("stack");
+				top = Interpreter.class.getDeclaredField("topOfStack");
+				pgm = Interpreter.class.getDeclaredField("pgm");
+				symbols = Program.class.getMethod("getSymbolTable");
+				stack.setAccessible(true);
+				top.setAccessible(true);
+				pgm.setAccessible(true);
+			}
+			catch (final NoSuchFieldException | NoSuchMethodException
+					| SecurityException exc)
+			{
+				stack = top = pgm = null;
+				symbols = null;
+			}
+			STACK = stack;
+			TOP_OF_STACK = top;
+			PGM = pgm;
+			SYMBOL_TABLE = symbols;
+			AVAILABLE = stack != null;
+		}
+
+		private static Variable[] stack(final Interpreter interp) {
+			return (Variable[]) get(STACK, interp);
+		}
+
+		private static int top(final Interpreter interp) {
+			return (Integer) get(TOP_OF_STACK, interp);
+		}
+
+		private static Symbol[] symbols(final Interpreter interp) {
+			final Program pgm = (Program) get(PGM, interp);
+			try {
+				return (Symbol[]) SYMBOL_TABLE.invoke(pgm);
+			}
+			catch (final IllegalAccessException | InvocationTargetException exc) {
+				throw new IllegalStateException(exc);
+			}
+		}
+
+		private static Object get(final Field field, final Interpreter interp) {
+			if (!AVAILABLE) throw new IllegalStateException(
+				"Macro variables are not accessible");
+			try {
+				return field.get(interp);
+			}
+			catch (final IllegalAccessException exc) {
+				throw new IllegalStateException(exc);
+			}
+		}
+	}
+
 	private static class MenuCache {
 
 		private final Map<String, Menu> map = new HashMap<>();
@@ -1120,37 +1268,7 @@ public class IJ1Helper extends AbstractContextual {
 		if (EventQueue.isDispatchThread()) {
 			throw new IllegalStateException("Cannot run macro from the EDT!");
 		}
-		final Thread thread = Thread.currentThread();
-		final String name = thread.getName();
-		try {
-			// to make getOptions() work
-			if (!name.startsWith("Run$_")) thread.setName("Run$_" + name);
-			// to make Macro.abort() work
-			if (!name.endsWith("Macro$")) thread.setName(thread.getName() + "Macro$");
-			return call.call();
-		}
-		catch (final RuntimeException e) {
-			throw e;
-		}
-		catch (final Exception e) {
-			throw new RuntimeException(e);
-		}
-		finally {
-			thread.setName(name);
-			// HACK: Try to null out the ij.macro.Interpreter, just in case.
-			// See: http://fiji.sc/bugzilla/show_bug.cgi?id=1266
-			try {
-				final Method m = Interpreter.class.getDeclaredMethod("setInstance",
-					Interpreter.class);
-				m.setAccessible(true);
-				m.invoke(null, new Object[] { null });
-			}
-			catch (final NoSuchMethodException | IllegalAccessException
-					| InvocationTargetException exc)
-			{
-				log.error(exc);
-			}
-		}
+		return MacroContext.run(call);
 	}
 
 	/**
@@ -1180,7 +1298,7 @@ public class IJ1Helper extends AbstractContextual {
 
 			@Override
 			public String call() throws Exception {
-				return IJ.runMacro(macro);
+				return getMacroCache().run(macro, "");
 			}
 		});
 	}
@@ -1197,11 +1315,22 @@ public class IJ1Helper extends AbstractContextual {
 
 			@Override
 			public String call() throws Exception {
+				// NB: Macro files are not cached: Macro_Runner records the file
+				// path, for getInfo("macro.filepath"), and decodes the file.
 				return IJ.runMacroFile(path, arg);
 			}
 		});
 	}
 
+	/**
+	 * Gets the cache of tokenized macros used by {@link #runMacro(String)}, e.g.
+	 * to query its statistics or to disable it.
+	 */
+	public synchronized CompiledMacroCache getMacroCache() {
+		if (macroCache == null) macroCache = new CompiledMacroCache();
+		return macroCache;
+	}
+
 	/**
 	 * Opens an image using ImageJ 1.x.
 	 *
@@ -1469,4 +1598,65 @@ public class IJ1Helper extends AbstractContextual {
 		return escaped;
 	}
 
+	private static void assign(final Variable var, final Object value,
+		final boolean top)
+	{
+		if (top && value != null && value.getClass().isArray()) {
+			// NB: ImageJ 1.x only supports 1-dimensional arrays.
+			final int length = Array.getLength(value);
+			final Variable[] array = new Variable[length];
+			final Class<?> componentType = value.getClass().getComponentType();
+			final boolean numeric = componentType.isPrimitive() &&
+				componentType != boolean.class;
+			for (int i = 0; i < length; i++) {
+				array[i] = new Variable();
+				if (numeric) array[i].setValue(Array.getDouble(value, i));
+				else assign(array[i], Array.get(value, i), false);
+			}
+			var.setArray(array);
+		}
+		else if (value instanceof ImagePlus) {
+			var.setValue(((ImagePlus) value).getID());
+		}
+		else if (value instanceof File) {
+			var.setString(((File) value).getAbsolutePath());
+		}
+		else if (value instanceof Number) {
+			var.setValue(((Number) value).doubleValue());
+		}
+		else if (value instanceof Boolean) {
+			var.setValue((Boolean) value ? 1 : 0);
+		}
+		else var.setString(String.valueOf(value));
+	}
+
+	private static Object value(final Variable var) {
+		switch (var.getType()) {
+			case Variable.STRING:
+				return var.getString();
+			case Variable.ARRAY:
+				final Variable[] array = var.getArray();
+				if (array == null) return null;
+				boolean numeric = true;
+				for (final Variable element : array) {
+					if (element.getType() != Variable.VALUE) {
+						numeric = false;
+						break;
+					}
+				}
+				if (numeric) {
+					final double[] values = new double[array.length];
+					for (int i = 0; i < array.length; i++)
+						values[i] = array[i].getValue();
+					return values;
+				}
+				final Object[] values = new Object[array.length];
+				for (int i = 0; i < array.length; i++)
+					values[i] = value(array[i]);
+				return values;
+			default:
+				final double value = var.getValue();
+				return Double.isNaN(value) ? null : value;
+		}
+	}
 }
@@ -34,6 +34,8 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 
+import net.imagej.legacy.translate.CachedVirtualStack;
+
 import org.scijava.app.AppService;
 import org.scijava.display.DisplayService;
 import org.scijava.io.IOService;
@@ -81,6 +83,22 @@ public class ImageJ2Options extends OptionsPlugin {
 		callback = "run")
 	private boolean sciJavaIO = false;
 
+	/**
+	 * If true, files opened using the SciJava Common {@link IOService} are read
+	 * lazily, as cell-cached images, and shown as virtual stacks. This allows
+	 * opening images which do not fit into memory.
+	 */
+	@Parameter(label = "Open files as virtual stacks",
+		description = "<html>Whether files opened using SCIFIO are read lazily," +
+			"<br>plane by plane, as they are viewed. This allows opening images" +
+			"<br>larger than the available memory.")
+	private boolean virtualStacks = false;
+
+	@Parameter(label = "Virtual stack cache size (planes)",
+		description = "<html>How many planes of each virtual stack to keep in " +
+			"memory", min = "1")
+	private int virtualStackCacheSize = CachedVirtualStack.DEFAULT_CACHE_SIZE;
+
 	@Parameter(label = "SciJava log level",
 		description = "<html>Log level for SciJava",
 		initializer = "initializeLogLevel", //
@@ -152,6 +170,19 @@ public class ImageJ2Options extends OptionsPlugin {
 		return sciJavaIO;
 	}
 
+	/**
+	 * Gets whether files opened using the SciJava Common {@link IOService} are
+	 * read lazily and shown as virtual stacks.
+	 */
+	public boolean isVirtualStacks() {
+		return virtualStacks;
+	}
+
+	/** Gets how many planes of each virtual stack to keep in memory. */
+	public int getVirtualStackCacheSize() {
+		return virtualStackCacheSize;
+	}
+
 	@SuppressWarnings("unused")
 	private void help() {
 		if (welcomeService != null) {
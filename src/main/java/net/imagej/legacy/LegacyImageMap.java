@@ -64,6 +64,7 @@ import org.scijava.display.DisplayService;
 import org.scijava.display.event.DisplayDeletedEvent;
 import org.scijava.display.event.DisplayUpdatedEvent;
 import org.scijava.event.EventHandler;
+import org.scijava.log.LogService;
 import org.scijava.plugin.Parameter;
 import org.scijava.table.Table;
 import org.scijava.ui.viewer.DisplayWindow;
@@ -98,6 +99,25 @@ public class LegacyImageMap extends AbstractContextual {
 	 */
 	public static final String IMP_KEY = "ij1-image-plus";
 
+	/**
+	 * System property which, when set to {@code true}, enables change tracking
+	 * in this map's {@link Harmonizer}.
+	 *
+	 * @see Harmonizer#setChangeTracking(boolean)
+	 */
+	public static final String CHANGE_TRACKING_PROPERTY =
+		"imagej.legacy.changeTracking";
+
+	/**
+	 * System property specifying the interval, in ms, at which display updates
+	 * are coalesced before harmonizing them. Unset or 0 harmonizes each update
+	 * right away.
+	 *
+	 * @see HarmonizationScheduler#setInterval(long)
+	 */
+	public static final String HARMONIZATION_INTERVAL_PROPERTY =
+		"imagej.legacy.harmonizationInterval";
+
 	static {
 		/*
 		 * We absolutely require that the LegacyInjector did its job before we
@@ -173,6 +193,26 @@ public class LegacyImageMap extends AbstractContextual {
 	@Parameter
 	private ConvertService convertService;
 
+	@Parameter
+	private LogService log;
+
+	/**
+	 * Cache of the converted ROIs/tables attached to each {@link Dataset}.
+	 */
+	private final AttachmentCache attachmentCache;
+
+	/**
+	 * The {@link Harmonizer} shared by all synchronizations done by this map.
+	 * All uses of it synchronize on it, including those made by the
+	 * {@link #harmonizationScheduler}, which may run on its background thread.
+	 */
+	private final Harmonizer harmonizer;
+
+	/**
+	 * Coalesces the harmonizations triggered by {@link DisplayUpdatedEvent}s.
+	 */
+	private final HarmonizationScheduler harmonizationScheduler;
+
 	// -- Constructor --
 
 	public LegacyImageMap(final LegacyService legacyService) {
@@ -181,6 +221,16 @@ public class LegacyImageMap extends AbstractContextual {
 		imagePlusTable = new ConcurrentHashMap<>();
 		displayTable = new ConcurrentHashMap<>();
 		imageTranslator = new ImageTranslator(legacyService);
+		attachmentCache = new AttachmentCache(convertService);
+		harmonizer = new Harmonizer(legacyService.getContext(), imageTranslator,
+			this);
+		harmonizer.setChangeTracking(Boolean.getBoolean(
+			CHANGE_TRACKING_PROPERTY));
+		harmonizationScheduler = new HarmonizationScheduler(this::harmonize,
+			harmonizer, log);
+		harmonizationScheduler.setInterval(Math.max(0, Long.getLong(
+			HARMONIZATION_INTERVAL_PROPERTY,
+			HarmonizationScheduler.DEFAULT_INTERVAL)));
 	}
 
 	// -- LegacyImageMap methods --
@@ -200,19 +250,13 @@ public class LegacyImageMap extends AbstractContextual {
 
 	/**
 	 * Gets the {@link ImagePlus} corresponding to the given {@link ImageDisplay},
-	 * or null if there is no existing table entry.
+	 * or null if there is no existing table entry. Pending updates of the
+	 * display are harmonized first, so that the {@code ImagePlus} is current.
 	 */
 	public ImagePlus lookupImagePlus(final ImageDisplay display) {
 		if (display == null) return null;
-		ImagePlus imagePlus;
-		if (legacyService.isLegacyMode()) {
-			final WeakReference<ImagePlus> weakReference = legacyImagePlusTable.get(
-				display);
-			imagePlus = weakReference == null ? null : weakReference.get();
-		}
-		else imagePlus = imagePlusTable.get(display);
-		synchronizeAttachmentsToImagePlus(imagePlus, display);
-		return imagePlus;
+		harmonizationScheduler.flush(display);
+		return lookupMappedImagePlus(display);
 	}
 
 	/**
@@ -293,6 +337,7 @@ public class LegacyImageMap extends AbstractContextual {
 	}
 
 	public synchronized void toggleLegacyMode(boolean enteringLegacyMode) {
+		harmonizationScheduler.flush();
 		if (enteringLegacyMode)
 			enterLegacyMode();
 		else
@@ -301,7 +346,6 @@ public class LegacyImageMap extends AbstractContextual {
 
 	private void enterLegacyMode()
 	{
-		final Harmonizer harmonizer = new Harmonizer(legacyService.getContext(), imageTranslator);
 		// migrate from the ImagePlusTable and DisplayTable to legacy versions.
 		final List<ImageDisplay> imageDisplays =
 				imageDisplayService.getImageDisplays();
@@ -325,8 +369,12 @@ public class LegacyImageMap extends AbstractContextual {
 			else {
 				imp.unlock();
 			}
-			harmonizer.updateLegacyImage(display, imp);
-			harmonizer.registerType(imp);
+			synchronized (harmonizer) {
+				harmonizer.updateLegacyImage(display, imp);
+				harmonizer.registerType(imp);
+				// NB - so that leaving legacy mode propagates only written planes
+				if (imp != null) harmonizer.trackPlanes(imp);
+			}
 		}
 		imagePlusTable.clear();
 		displayTable.clear();
@@ -334,7 +382,6 @@ public class LegacyImageMap extends AbstractContextual {
 
 	private void leaveLegacyMode()
 	{
-		final Harmonizer harmonizer = new Harmonizer(legacyService.getContext(), imageTranslator);
 		// migrate from legacyImagePlusTable and legacyDisplayTable to modern
 		// versions.
 		for (final ImagePlus imp : legacyDisplayTable.keySet()) {
@@ -350,7 +397,10 @@ public class LegacyImageMap extends AbstractContextual {
 				displayTable.put(imp, display);
 				imagePlusTable.put(display, imp);
 				// Update the display
-				harmonizer.updateDisplay(display, imp);
+				synchronized (harmonizer) {
+					harmonizer.updateDisplay(display, imp);
+					harmonizer.untrackPlanes(imp);
+				}
 			}
 		}
 		legacyDisplayTable.clear();
@@ -372,6 +422,7 @@ public class LegacyImageMap extends AbstractContextual {
 	 * delete the associated {@link ImagePlus}.
 	 */
 	public void unregisterDisplay(final ImageDisplay display, final boolean deleteImp) {
+		harmonizationScheduler.cancel(display);
 		final ImagePlus imp = lookupImagePlus(display);
 		removeMapping(display, imp, deleteImp);
 		if (deleteImp && imp != null) imp.close();
@@ -412,8 +463,78 @@ public class LegacyImageMap extends AbstractContextual {
 		return displayTable.keySet();
 	}
 
+	/**
+	 * Gets the cache of converted ROIs/tables used when synchronizing
+	 * attachments between {@link Dataset}s and {@link ImagePlus}es.
+	 *
+	 * @return the {@link AttachmentCache}, whose hit/miss counters report how
+	 *         often a conversion was avoided.
+	 */
+	public AttachmentCache getAttachmentCache() {
+		return attachmentCache;
+	}
+
+	/**
+	 * Gets the {@link Harmonizer} used by this map. If the
+	 * {@value #CHANGE_TRACKING_PROPERTY} system property is set, it tracks
+	 * changes, so that only the facets which changed are harmonized; its
+	 * per-facet statistics tell where harmonization time is spent.
+	 * <p>
+	 * The harmonizer may also be used on a background thread; callers must
+	 * synchronize on it while using it.
+	 * </p>
+	 */
+	public Harmonizer getHarmonizer() {
+		return harmonizer;
+	}
+
+	/**
+	 * Gets the scheduler which coalesces the harmonizations triggered by
+	 * {@link DisplayUpdatedEvent}s.
+	 */
+	public HarmonizationScheduler getHarmonizationScheduler() {
+		return harmonizationScheduler;
+	}
+
+	/**
+	 * Synchronously harmonizes all {@link ImageDisplay}s with pending updates
+	 * with their mapped {@link ImagePlus}es.
+	 */
+	public void flushHarmonization() {
+		harmonizationScheduler.flush();
+	}
+
+	/**
+	 * Synchronously harmonizes the given {@link ImageDisplay} with its mapped
+	 * {@link ImagePlus}, if it has pending updates.
+	 */
+	public void flushHarmonization(final ImageDisplay display) {
+		harmonizationScheduler.flush(display);
+	}
+
+	/** Stops harmonizing pending updates in the background. */
+	public void dispose() {
+		harmonizationScheduler.dispose();
+	}
+
 	// -- Helper methods --
 
+	/**
+	 * As {@link #lookupImagePlus(ImageDisplay)}, but without harmonizing pending
+	 * updates first.
+	 */
+	private ImagePlus lookupMappedImagePlus(final ImageDisplay display) {
+		ImagePlus imagePlus;
+		if (legacyService.isLegacyMode()) {
+			final WeakReference<ImagePlus> weakReference = legacyImagePlusTable.get(
+				display);
+			imagePlus = weakReference == null ? null : weakReference.get();
+		}
+		else imagePlus = imagePlusTable.get(display);
+		synchronizeAttachmentsToImagePlus(imagePlus, display);
+		return imagePlus;
+	}
+
 	/**
 	 * Creates a mapping between a given {@link ImageDisplay} and
 	 * {@link ImagePlus}.
@@ -533,10 +654,10 @@ public class LegacyImageMap extends AbstractContextual {
 
 		// ROIs
 		if (dataset.getProperties().get(ROIService.ROI_PROPERTY) != null) {
-			final ij.gui.Overlay o = convertService.convert(dataset.getProperties()
-				.get(ROIService.ROI_PROPERTY), ij.gui.Overlay.class);
+			final ij.gui.Overlay o = attachmentCache.getOverlay(dataset, dataset
+				.getProperties().get(ROIService.ROI_PROPERTY));
 			if (o == null) return;
-			imagePlus.setOverlay(o);
+			if (imagePlus.getOverlay() != o) imagePlus.setOverlay(o);
 		}
 		else {
 			imagePlus.setOverlay(null);
@@ -551,9 +672,11 @@ public class LegacyImageMap extends AbstractContextual {
 			@SuppressWarnings("unchecked")
 			final List<Table<?, ?>> tables = (List<Table<?, ?>>) dataset
 				.getProperties().get(TableService.TABLE_PROPERTY);
-			final List<ij.measure.ResultsTable> ijTables = new TableListWrapper(
-				tables, convertService);
-			imagePlus.setProperty("tables", ijTables);
+			final List<ij.measure.ResultsTable> ijTables = attachmentCache.getTables(
+				dataset, tables);
+			if (imagePlus.getProperty("tables") != ijTables) {
+				imagePlus.setProperty("tables", ijTables);
+			}
 		}
 		else {
 			if (imagePlus.getProperty("tables") == null) return;
@@ -611,6 +734,7 @@ public class LegacyImageMap extends AbstractContextual {
 			final ROITree rois = convertService.convert(imagePlus.getOverlay(),
 				ROITree.class);
 			dataset.getProperties().put(ROIService.ROI_PROPERTY, rois);
+			attachmentCache.putOverlay(dataset, rois, imagePlus.getOverlay());
 		}
 		else if (imagePlus.getRoi() != null) {
 			final ij.gui.Overlay o = new ij.gui.Overlay();
@@ -626,8 +750,10 @@ public class LegacyImageMap extends AbstractContextual {
 		{
 			final List<?> tables = (List<?>) imagePlus.getProperty("tables");
 			List<Table<?, ?>> imagejTables;
-			if (tables instanceof TableListWrapper) imagejTables =
-				((TableListWrapper) tables).getUpdatedSource();
+			if (tables instanceof TableListWrapper) {
+				imagejTables = ((TableListWrapper) tables).getUpdatedSource();
+				attachmentCache.putTables(dataset, (TableListWrapper) tables);
+			}
 			else {
 				imagejTables = new ArrayList<>();
 				for (final Object table : tables) {
@@ -670,19 +796,26 @@ public class LegacyImageMap extends AbstractContextual {
 
 	/**
 	 * Check if updated display is an {@link ImageDisplay} with a mapped
-	 * {@link ImagePlus}. If so, call {@link ImagePlus#updateAndDraw()}.
+	 * {@link ImagePlus}. If so, schedule its harmonization, which ends with a
+	 * call to {@link ImagePlus#updateAndDraw()}.
 	 */
 	@EventHandler
 	private void onEvent(final DisplayUpdatedEvent event) {
 		final Display<?> display = event.getDisplay();
 		if (display instanceof ImageDisplay) {
-			final ImagePlus mappedImagePlus = lookupImagePlus((ImageDisplay) event.getDisplay());
-			if (mappedImagePlus != null) {
-				final Harmonizer harmonizer =
-						new Harmonizer(legacyService.getContext(), imageTranslator);
-				harmonizer.updateLegacyImage((ImageDisplay) display, mappedImagePlus);
-				mappedImagePlus.updateAndDraw();
-			}
+			harmonizationScheduler.schedule((ImageDisplay) display);
+		}
+	}
+
+	/**
+	 * Updates the {@link ImagePlus} mapped to the given {@link ImageDisplay} (if
+	 * any) to match it, and redraws it.
+	 */
+	private void harmonize(final ImageDisplay display) {
+		final ImagePlus mappedImagePlus = lookupMappedImagePlus(display);
+		if (mappedImagePlus != null) {
+			harmonizer.updateLegacyImage(display, mappedImagePlus);
+			mappedImagePlus.updateAndDraw();
 		}
 	}
 }
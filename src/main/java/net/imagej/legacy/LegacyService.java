@@ -276,6 +276,8 @@ public final class LegacyService extends AbstractService implements
 		final Map<String, Object> inputMap = new HashMap<>();
 		inputMap.put("className", ij1ClassName);
 		inputMap.put("arg", arg);
+		// make sure pending display updates have reached the ImagePluses
+		getImageMap().flushHarmonization();
 		commandService.run(LegacyCommand.class, true, inputMap);
 	}
 
@@ -516,6 +518,7 @@ public final class LegacyService extends AbstractService implements
 	public void dispose() {
 		if (!isActive()) return;
 
+		if (imageMap != null) imageMap.dispose();
 		ij1Helper.dispose();
 
 		synchronized (LegacyService.class) {
@@ -524,7 +527,7 @@ public final class LegacyService extends AbstractService implements
 			instance = null;
 		}
 
-		// clean up SingleInstance remote objects
+		// stop the SingleInstance listener
 		SingleInstance.shutDown();
 	}
 
@@ -0,0 +1,114 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+/**
+ * Escapes strings so that they fit on a single line of a line-based protocol,
+ * such as the one of the {@link MacroWorkerService}.
+ * <p>
+ * Backslashes, tabs, carriage returns and line feeds are written as
+ * {@code \\}, {@code \t}, {@code \r} and {@code \n}, respectively. Tabs can
+ * therefore be used to separate the fields of a line.
+ * </p>
+ */
+final class LineCodec {
+
+	private LineCodec() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/** Escapes the given string for a single line; null becomes empty. */
+	static String escape(final String s) {
+		if (s == null) return "";
+		StringBuilder sb = null;
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			final String escaped;
+			switch (c) {
+				case '\\':
+					escaped = "\\\\";
+					break;
+				case '\t':
+					escaped = "\\t";
+					break;
+				case '\r':
+					escaped = "\\r";
+					break;
+				case '\n':
+					escaped = "\\n";
+					break;
+				default:
+					if (sb != null) sb.append(c);
+					continue;
+			}
+			if (sb == null) sb = new StringBuilder(s.length() + 16).append(s, 0, i);
+			sb.append(escaped);
+		}
+		return sb == null ? s : sb.toString();
+	}
+
+	/** Reverts {@link #escape(String)}. */
+	static String unescape(final String s) {
+		if (s.indexOf('\\') < 0) return s;
+		final StringBuilder sb = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			if (c != '\\' || i + 1 == s.length()) {
+				sb.append(c);
+				continue;
+			}
+			final char next = s.charAt(++i);
+			switch (next) {
+				case 't':
+					sb.append('\t');
+					break;
+				case 'r':
+					sb.append('\r');
+					break;
+				case 'n':
+					sb.append('\n');
+					break;
+				default:
+					sb.append(next);
+			}
+		}
+		return sb.toString();
+	}
+
+	/** Splits the given line at tabs, and unescapes each field. */
+	static String[] split(final String line) {
+		final String[] fields = line.split("\t", -1);
+		for (int i = 0; i < fields.length; i++) {
+			fields[i] = unescape(fields[i]);
+		}
+		return fields;
+	}
+
+}
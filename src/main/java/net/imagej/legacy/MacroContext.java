@@ -0,0 +1,304 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import ij.Macro;
+import ij.macro.Interpreter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * The state of one ImageJ 1.x macro invocation.
+ * <p>
+ * ImageJ 1.x keeps some macro state per thread, such as the
+ * {@link Macro#getOptions() macro options} (which are only visible to threads
+ * whose name starts with {@code Run$_}) and {@link Macro#abort()} (which only
+ * works on threads whose name ends with {@code Macro$}), but other state is
+ * global: the {@link Interpreter#getInstance() active interpreter} and
+ * {@link Interpreter#batchMode batch mode}. A {@code MacroContext} scopes what
+ * it can to a single invocation, so that macros can run on several threads at
+ * once:
+ * </p>
+ * <ul>
+ * <li>the thread name and the thread's macro options are restored when the
+ * invocation ends;</li>
+ * <li>the interpreter running the invocation is tracked by the context, so it
+ * can be queried without relying on {@link Interpreter#getInstance()}, and the
+ * active interpreter is only reset if no other invocation is running it;</li>
+ * <li>an invocation can be aborted through its context, see {@link #abort()},
+ * without affecting the others.</li>
+ * </ul>
+ * <p>
+ * Batch mode is not scoped at all: it remains process-wide, as does the list
+ * of batch mode images, and is left as the invocations leave it, so that batch
+ * mode images stay reachable by later invocations. A macro calling
+ * {@code setBatchMode(true)} or {@code setBatchMode(false)} switches it for
+ * every running macro, and the latter also displays or closes the batch mode
+ * images of all of them. So macros are only safe to run concurrently if they
+ * agree on batch mode, e.g. all enter it and none leaves it, or do not depend
+ * on it. Likewise,
+ * {@link Interpreter#abort()} and the Esc key abort whichever interpreter
+ * happens to be the active one, not necessarily the intended invocation.
+ * </p>
+ */
+public final class MacroContext {
+
+	private static final ThreadLocal<MacroContext> CURRENT = new ThreadLocal<>();
+
+	/** Interpreters running an active invocation, on any thread. */
+	private static final Set<Interpreter> RUNNING = Collections.synchronizedSet(
+		Collections.newSetFromMap(new IdentityHashMap<Interpreter, Boolean>()));
+
+	private static final Object LOCK = new Object();
+
+	private static final Method SET_INSTANCE;
+
+	static {
+		Method setInstance = null;
+		try {
+			setInstance = Interpreter.class.getDeclaredMethod("setInstance",
+				Interpreter.class);
+			setInstance.setAccessible(true);
+		}
+		catch (final NoSuchMethodException | SecurityException exc) {
+			setInstance = null;
+		}
+		SET_INSTANCE = setInstance;
+	}
+
+	/** Number of active invocations, on all threads. */
+	private static int active;
+
+	private final MacroContext parent;
+	private final Thread thread;
+	private final String threadName;
+	private final String options;
+	private volatile Interpreter interpreter;
+
+	/** The nested invocation on the same thread, if any. */
+	private volatile MacroContext child;
+
+	private volatile boolean aborted;
+
+	private MacroContext(final MacroContext parent) {
+		this.parent = parent;
+		thread = Thread.currentThread();
+		threadName = thread.getName();
+
+		// NB: Rename the thread before reading its options, which ImageJ 1.x
+		// only reveals to threads of a running macro.
+		String name = threadName;
+		if (!name.startsWith("Run$_")) name = "Run$_" + name;
+		if (!name.endsWith("Macro$")) name += "Macro$";
+		if (!name.equals(threadName)) thread.setName(name);
+
+		// NB: Macro.getOptions() appends a space to the stored options.
+		final String opts = Macro.getOptions();
+		options = opts == null ? null : opts.substring(0, opts.length() - 1);
+	}
+
+	// -- MacroContext methods --
+
+	/** Gets the thread on which this invocation runs. */
+	public Thread getThread() {
+		return thread;
+	}
+
+	/**
+	 * Gets the macro {@link Interpreter} running this invocation, or null if the
+	 * invocation did not run a macro (yet).
+	 */
+	public Object getInterpreter() {
+		return interpreter;
+	}
+
+	/**
+	 * Aborts this invocation, from any thread. Its macro interpreter, or that of
+	 * a nested invocation, is stopped, and a macro yet to start is cancelled;
+	 * the macro then returns {@code "[aborted]"}. Other invocations are not
+	 * affected.
+	 */
+	public void abort() {
+		aborted = true;
+		for (MacroContext c = this; c != null; c = c.child) {
+			final Interpreter interp = c.interpreter;
+			if (interp != null) interp.abortMacro();
+		}
+	}
+
+	/** Checks whether this invocation, or an enclosing one, was aborted. */
+	public boolean isAborted() {
+		for (MacroContext c = this; c != null; c = c.parent) {
+			if (c.aborted) return true;
+		}
+		return false;
+	}
+
+	// -- Static utility methods --
+
+	/**
+	 * Runs the given code in a new macro context.
+	 *
+	 * @param call the code to run, typically running a macro or a command
+	 * @return the result of {@code call}
+	 */
+	public static <T> T run(final Callable<T> call) {
+		final MacroContext context = enter();
+		try {
+			return call.call();
+		}
+		catch (final RuntimeException e) {
+			throw e;
+		}
+		catch (final Exception e) {
+			throw new RuntimeException(e);
+		}
+		finally {
+			context.exit();
+		}
+	}
+
+	/**
+	 * Gets the innermost macro context of the current thread, or null if the
+	 * current thread is not running a macro via {@link #run(Callable)}.
+	 */
+	public static MacroContext current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Gets the macro {@link Interpreter} of the current thread: the interpreter
+	 * of the innermost macro context if known, or else
+	 * {@link Interpreter#getInstance()}.
+	 */
+	public static Object currentInterpreter() {
+		final MacroContext context = CURRENT.get();
+		final Interpreter interp = context == null ? null : context
+			.findInterpreter();
+		return interp == null ? Interpreter.getInstance() : interp;
+	}
+
+	/** Gets the number of macro invocations currently running, on all threads. */
+	public static int getActiveCount() {
+		synchronized (LOCK) {
+			return active;
+		}
+	}
+
+	// -- Package-private methods --
+
+	/**
+	 * Associates the given interpreter with the innermost macro context of the
+	 * current thread, if any. To be called before the interpreter runs, and
+	 * followed by a check of {@link #isCurrentAborted()}: an invocation aborted
+	 * before attaching its interpreter is not stopped by {@link #abort()}.
+	 */
+	static void attach(final Interpreter interp) {
+		final MacroContext context = CURRENT.get();
+		if (context == null || context.interpreter != null) return;
+		context.interpreter = interp;
+		RUNNING.add(interp);
+	}
+
+	/**
+	 * Checks whether the innermost macro context of the current thread, if any,
+	 * was aborted.
+	 */
+	static boolean isCurrentAborted() {
+		final MacroContext context = CURRENT.get();
+		return context != null && context.isAborted();
+	}
+
+	// -- Helper methods --
+
+	private static MacroContext enter() {
+		final MacroContext parent = CURRENT.get();
+		final MacroContext context = new MacroContext(parent);
+		if (parent != null) parent.child = context;
+		CURRENT.set(context);
+		synchronized (LOCK) {
+			active++;
+		}
+		return context;
+	}
+
+	private void exit() {
+		if (parent == null) CURRENT.remove();
+		else {
+			parent.child = null;
+			CURRENT.set(parent);
+		}
+
+		if (interpreter != null) RUNNING.remove(interpreter);
+		resetInstance();
+
+		Macro.setOptions(thread, options);
+		if (!thread.getName().equals(threadName)) thread.setName(threadName);
+
+		synchronized (LOCK) {
+			active--;
+		}
+	}
+
+	/**
+	 * Resets the active interpreter to the enclosing invocation's one, unless
+	 * it is running another invocation.
+	 * <p>
+	 * See: http://fiji.sc/bugzilla/show_bug.cgi?id=1266
+	 * </p>
+	 */
+	private void resetInstance() {
+		if (SET_INSTANCE == null) return;
+		final Interpreter instance = Interpreter.getInstance();
+		final Interpreter outer = //
+			parent == null ? null : parent.findInterpreter();
+		if (instance == outer || RUNNING.contains(instance)) return;
+		try {
+			SET_INSTANCE.invoke(null, outer);
+		}
+		catch (final IllegalAccessException | InvocationTargetException exc) {
+			// NB: Leave the active interpreter as is.
+		}
+	}
+
+	/** Gets the interpreter of this or the closest enclosing invocation. */
+	private Interpreter findInterpreter() {
+		for (MacroContext c = this; c != null; c = c.parent) {
+			if (c.interpreter != null) return c.interpreter;
+		}
+		return null;
+	}
+
+}
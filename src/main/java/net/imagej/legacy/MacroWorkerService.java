@@ -0,0 +1,628 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.imagej.ImageJService;
+
+import org.scijava.log.LogService;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+/**
+ * Runs ImageJ 1.x macros on a pool of worker threads, so that many macro jobs
+ * can share one warmed-up {@link org.scijava.Context}.
+ * <p>
+ * Jobs are submitted via {@link #submit(String)} and
+ * {@link #submitFile(String, String)}, which block while the queue is full,
+ * or via {@link #offer(String, long, TimeUnit)}, which gives up after a
+ * timeout. The pool size and queue capacity are given by the
+ * {@value #THREADS_PROPERTY} and {@value #QUEUE_PROPERTY} system properties.
+ * Each job runs in its own {@link MacroContext}.
+ * </p>
+ * <p>
+ * The pool has {@value #DEFAULT_THREADS} worker by default, so jobs run one
+ * after another. Much ImageJ 1.x state is shared by all macros, though: batch
+ * mode, the active image and window, the Results table, the ROI Manager and
+ * more. Use more workers only for macros which touch no such shared state, or
+ * which agree on it, e.g. all running in batch mode on their own images.
+ * </p>
+ * <p>
+ * After {@link #listen(int)}, jobs are also accepted through a socket bound to
+ * the loopback interface. The protocol is line-based, with tab-separated
+ * fields in which backslashes, tabs and line breaks are escaped as
+ * {@code \\}, {@code \t}, {@code \r} and {@code \n}:
+ * </p>
+ * <ul>
+ * <li>{@code token <token>} must be sent first, with the token given by
+ * {@link #getToken()};</li>
+ * <li>{@code eval <macro>} runs macro code;</li>
+ * <li>{@code file <path> <arg>} runs a macro file;</li>
+ * <li>{@code stats} reports the statistics of this service;</li>
+ * <li>{@code quit} closes the connection.</li>
+ * </ul>
+ * <p>
+ * Every line is answered by a single line: {@code ok <millis> <value>} for
+ * completed jobs, {@code aborted <millis>} for aborted macros, and
+ * {@code error <message>} otherwise. Jobs of one connection run one at a
+ * time; clients wanting more parallelism open more connections.
+ * </p>
+ */
+@Plugin(type = Service.class)
+public final class MacroWorkerService extends AbstractService implements
+	ImageJService
+{
+
+	/** System property specifying the number of worker threads. */
+	public static final String THREADS_PROPERTY =
+		"imagej.legacy.macroWorkers.threads";
+
+	/** System property specifying the number of jobs which may wait in line. */
+	public static final String QUEUE_PROPERTY =
+		"imagej.legacy.macroWorkers.queue";
+
+	/** Default number of worker threads. */
+	public static final int DEFAULT_THREADS = 1;
+
+	/** Default number of jobs which may wait in line. */
+	public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+	/** Return value of aborted macros. */
+	private static final String ABORTED = "[aborted]";
+
+	@Parameter
+	private LegacyService legacyService;
+
+	@Parameter(required = false)
+	private LogService log;
+
+	private int threadCount;
+	private int queueCapacity;
+
+	/** Permits for running and waiting jobs, to block submitters. */
+	private Semaphore slots;
+
+	private ThreadPoolExecutor workers;
+	private ExecutorService connections;
+	private ServerSocket server;
+	private String token;
+
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong totalLatency = new AtomicLong();
+	private final AtomicLong maxLatency = new AtomicLong();
+	private final AtomicLong firstSubmission = new AtomicLong();
+
+	// -- MacroWorkerService methods --
+
+	/** Gets the number of worker threads. */
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/** Gets the number of jobs which may wait in line for a worker. */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Starts all workers, and runs an empty macro on each of them, so that the
+	 * first jobs do not pay for initializing ImageJ 1.x' macro interpreter.
+	 */
+	public void warmUp() throws InterruptedException {
+		workers().prestartAllCoreThreads();
+		final Future<?>[] futures = new Future<?>[threadCount];
+		for (int i = 0; i < futures.length; i++) {
+			futures[i] = workers().submit(new Callable<String>() {
+
+				@Override
+				public String call() {
+					return helper().runMacro("");
+				}
+			});
+		}
+		for (final Future<?> future : futures) {
+			try {
+				future.get();
+			}
+			catch (final ExecutionException exc) {
+				if (log != null) log.warn("Macro worker warm-up failed", exc);
+			}
+		}
+	}
+
+	/**
+	 * Queues the given macro code, waiting while the queue is full.
+	 *
+	 * @param macro the macro code to run
+	 * @return the future result of the job
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public Future<MacroResult> submit(final String macro)
+		throws InterruptedException
+	{
+		slots().acquire();
+		return enqueue(evalJob(macro));
+	}
+
+	/**
+	 * Queues the given macro file, waiting while the queue is full.
+	 *
+	 * @param path the macro file to run
+	 * @param arg the macro argument
+	 * @return the future result of the job
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public Future<MacroResult> submitFile(final String path, final String arg)
+		throws InterruptedException
+	{
+		slots().acquire();
+		return enqueue(fileJob(path, arg));
+	}
+
+	/**
+	 * Queues the given macro code, unless the queue stays full for the given
+	 * time.
+	 *
+	 * @param macro the macro code to run
+	 * @param timeout how long to wait for room in the queue
+	 * @param unit the unit of {@code timeout}
+	 * @return the future result of the job, or null if the queue was full
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public Future<MacroResult> offer(final String macro, final long timeout,
+		final TimeUnit unit) throws InterruptedException
+	{
+		if (!slots().tryAcquire(timeout, unit)) return null;
+		return enqueue(evalJob(macro));
+	}
+
+	/**
+	 * Accepts jobs through a socket bound to the loopback interface, requiring
+	 * a randomly generated token.
+	 *
+	 * @param port the port to listen on, or 0 for any free port
+	 * @return the port the service listens on
+	 * @throws IOException if the socket cannot be opened
+	 * @see #getToken()
+	 */
+	public int listen(final int port) throws IOException {
+		final byte[] bytes = new byte[16];
+		new SecureRandom().nextBytes(bytes);
+		final StringBuilder sb = new StringBuilder();
+		for (final byte b : bytes) {
+			sb.append(String.format("%02x", b & 0xff));
+		}
+		return listen(port, sb.toString());
+	}
+
+	/**
+	 * Accepts jobs through a socket bound to the loopback interface.
+	 *
+	 * @param port the port to listen on, or 0 for any free port
+	 * @param token the token clients have to send first
+	 * @return the port the service listens on
+	 * @throws IOException if the socket cannot be opened
+	 * @throws IllegalArgumentException if the token is null or empty
+	 */
+	public synchronized int listen(final int port, final String token)
+		throws IOException
+	{
+		if (token == null || token.isEmpty()) {
+			throw new IllegalArgumentException("A token is required");
+		}
+		if (server != null) return server.getLocalPort();
+		this.token = token;
+		server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		connections = Executors.newCachedThreadPool(new Factory(
+			"MacroWorker-Connection-"));
+		connections.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				accept();
+			}
+		});
+		if (log != null) {
+			log.debug("Macro workers listening on port " + server.getLocalPort());
+		}
+		return server.getLocalPort();
+	}
+
+	/**
+	 * Gets the token socket clients have to send first, or null if not
+	 * listening.
+	 */
+	public synchronized String getToken() {
+		return token;
+	}
+
+	/** Gets the number of submitted jobs. */
+	public long getSubmittedCount() {
+		return submitted.get();
+	}
+
+	/** Gets the number of finished jobs, including failed ones. */
+	public long getCompletedCount() {
+		return completed.get();
+	}
+
+	/** Gets the number of jobs which threw an exception or were aborted. */
+	public long getFailedCount() {
+		return failed.get();
+	}
+
+	/** Gets the number of jobs which are waiting or running. */
+	public long getPendingCount() {
+		return submitted.get() - completed.get();
+	}
+
+	/** Gets the mean time from submission to completion, in nanoseconds. */
+	public long getMeanLatency() {
+		final long count = completed.get();
+		return count == 0 ? 0 : totalLatency.get() / count;
+	}
+
+	/** Gets the longest time from submission to completion, in nanoseconds. */
+	public long getMaxLatency() {
+		return maxLatency.get();
+	}
+
+	/** Gets the number of finished jobs per second since the first job. */
+	public double getThroughput() {
+		final long first = firstSubmission.get();
+		if (first == 0) return 0;
+		final long elapsed = System.nanoTime() - first;
+		return elapsed <= 0 ? 0 : completed.get() * 1e9 / elapsed;
+	}
+
+	/** Resets the job statistics. */
+	public void resetStatistics() {
+		// NB: Keep counting the pending jobs.
+		submitted.addAndGet(-completed.getAndSet(0));
+		failed.set(0);
+		totalLatency.set(0);
+		maxLatency.set(0);
+		firstSubmission.set(0);
+	}
+
+	// -- Service methods --
+
+	@Override
+	public void initialize() {
+		threadCount = Math.max(1, Integer.getInteger(THREADS_PROPERTY,
+			DEFAULT_THREADS));
+		queueCapacity = Math.max(0, Integer.getInteger(QUEUE_PROPERTY,
+			DEFAULT_QUEUE_CAPACITY));
+	}
+
+	// -- Disposable methods --
+
+	@Override
+	public synchronized void dispose() {
+		if (server != null) {
+			try {
+				server.close();
+			}
+			catch (final IOException exc) {
+				if (log != null) log.debug(exc);
+			}
+			server = null;
+		}
+		if (connections != null) connections.shutdownNow();
+		if (workers != null) workers.shutdownNow();
+	}
+
+	// -- Helper methods --
+
+	private IJ1Helper helper() {
+		return legacyService.getIJ1Helper();
+	}
+
+	private synchronized Semaphore slots() {
+		if (slots == null) slots = new Semaphore(threadCount + queueCapacity);
+		return slots;
+	}
+
+	private synchronized ThreadPoolExecutor workers() {
+		if (workers == null) {
+			// NB: The queue need not be bounded, since the slots are.
+			workers = new ThreadPoolExecutor(threadCount, threadCount, 0,
+				TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+				new Factory("MacroWorker-"));
+		}
+		return workers;
+	}
+
+	private Callable<String> evalJob(final String macro) {
+		return new Callable<String>() {
+
+			@Override
+			public String call() {
+				return helper().runMacro(macro);
+			}
+		};
+	}
+
+	private Callable<String> fileJob(final String path, final String arg) {
+		return new Callable<String>() {
+
+			@Override
+			public String call() {
+				return helper().runMacroFile(path, arg);
+			}
+		};
+	}
+
+	/** Runs the given job, whose slot was already acquired. */
+	private Future<MacroResult> enqueue(final Callable<String> job) {
+		final long queued = System.nanoTime();
+		firstSubmission.compareAndSet(0, queued);
+		submitted.incrementAndGet();
+		try {
+			return workers().submit(new Callable<MacroResult>() {
+
+				@Override
+				public MacroResult call() {
+					final long started = System.nanoTime();
+					String value = null;
+					Throwable error = null;
+					try {
+						value = job.call();
+					}
+					catch (final Throwable t) {
+						error = t;
+					}
+					finally {
+						slots.release();
+					}
+					final MacroResult result = new MacroResult(value, error, started -
+						queued, System.nanoTime() - started);
+					record(result);
+					return result;
+				}
+			});
+		}
+		catch (final RejectedExecutionException exc) {
+			submitted.decrementAndGet();
+			slots.release();
+			throw exc;
+		}
+	}
+
+	private void record(final MacroResult result) {
+		final long latency = result.getLatency();
+		completed.incrementAndGet();
+		if (!result.isSuccess()) failed.incrementAndGet();
+		totalLatency.addAndGet(latency);
+		long max = maxLatency.get();
+		while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+			max = maxLatency.get();
+		}
+		if (log != null && log.isDebug()) {
+			log.debug("Macro job finished after " + latency / 1000000 +
+				" ms (" + result.getQueueTime() / 1000000 + " ms queued)");
+		}
+	}
+
+	private void accept() {
+		final ServerSocket socket;
+		synchronized (this) {
+			socket = server;
+		}
+		while (socket != null && !socket.isClosed()) {
+			try {
+				final Socket client = socket.accept();
+				connections.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						serve(client);
+					}
+				});
+			}
+			catch (final IOException | RejectedExecutionException exc) {
+				if (!socket.isClosed() && log != null) log.debug(exc);
+			}
+		}
+	}
+
+	private void serve(final Socket client) {
+		try (final Socket s = client;
+				final BufferedReader in = new BufferedReader(new InputStreamReader(s
+					.getInputStream(), StandardCharsets.UTF_8));
+				final Writer out = new OutputStreamWriter(s.getOutputStream(),
+					StandardCharsets.UTF_8))
+		{
+			final String expected = getToken();
+			boolean authorized = false;
+			for (String line = in.readLine(); line != null; line = in.readLine()) {
+				final String[] fields = LineCodec.split(line);
+				final String command = fields[0];
+				final String reply;
+				if (!authorized) {
+					authorized = expected != null && "token".equals(command) &&
+						fields.length == 2 && expected.equals(fields[1]);
+					if (!authorized) {
+						out.write("error\tinvalid token\n");
+						out.flush();
+						return;
+					}
+					reply = "ok";
+				}
+				else if ("quit".equals(command)) return;
+				else reply = handle(fields);
+				out.write(reply);
+				out.write('\n');
+				out.flush();
+			}
+		}
+		catch (final IOException exc) {
+			if (log != null) log.debug(exc);
+		}
+		catch (final InterruptedException exc) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/** Handles one line of the socket protocol, returning the reply. */
+	private String handle(final String[] fields) throws InterruptedException {
+		final String command = fields[0];
+		final Future<MacroResult> future;
+		if ("eval".equals(command) && fields.length == 2) {
+			future = submit(fields[1]);
+		}
+		else if ("file".equals(command) && fields.length == 3) {
+			future = submitFile(fields[1], fields[2]);
+		}
+		else if ("stats".equals(command) && fields.length == 1) {
+			return "ok\tsubmitted=" + getSubmittedCount() + "\tcompleted=" +
+				getCompletedCount() + "\tfailed=" + getFailedCount() + "\tpending=" +
+				getPendingCount() + "\tmeanLatencyMillis=" + getMeanLatency() /
+					1000000 + "\tmaxLatencyMillis=" + getMaxLatency() / 1000000 +
+				"\tthroughput=" + getThroughput();
+		}
+		else return "error\tunknown command: " + LineCodec.escape(command);
+
+		final MacroResult result;
+		try {
+			result = future.get();
+		}
+		catch (final ExecutionException exc) {
+			return "error\t" + LineCodec.escape(String.valueOf(exc.getCause()));
+		}
+		final long millis = result.getLatency() / 1000000;
+		if (result.getError() != null) {
+			return "error\t" + LineCodec.escape(String.valueOf(result.getError()));
+		}
+		if (result.isAborted()) return "aborted\t" + millis;
+		return "ok\t" + millis + "\t" + LineCodec.escape(result.getValue());
+	}
+
+	// -- Helper classes --
+
+	/** The outcome of one macro job. */
+	public static final class MacroResult {
+
+		private final String value;
+		private final Throwable error;
+		private final long queueTime;
+		private final long runTime;
+
+		private MacroResult(final String value, final Throwable error,
+			final long queueTime, final long runTime)
+		{
+			this.value = value;
+			this.error = error;
+			this.queueTime = queueTime;
+			this.runTime = runTime;
+		}
+
+		/** Gets the return value of the macro, if any. */
+		public String getValue() {
+			return value;
+		}
+
+		/** Gets the exception thrown by the job, if any. */
+		public Throwable getError() {
+			return error;
+		}
+
+		/** Returns true iff the macro was aborted. */
+		public boolean isAborted() {
+			return ABORTED.equals(value);
+		}
+
+		/** Returns true iff the macro finished without error or abort. */
+		public boolean isSuccess() {
+			return error == null && !isAborted();
+		}
+
+		/** Gets the time the job waited for a worker, in nanoseconds. */
+		public long getQueueTime() {
+			return queueTime;
+		}
+
+		/** Gets the time the job ran, in nanoseconds. */
+		public long getRunTime() {
+			return runTime;
+		}
+
+		/** Gets the time from submission to completion, in nanoseconds. */
+		public long getLatency() {
+			return queueTime + runTime;
+		}
+	}
+
+	/** Creates daemon threads with numbered names. */
+	private static class Factory implements ThreadFactory {
+
+		private final String prefix;
+		private final AtomicInteger count = new AtomicInteger();
+
+		private Factory(final String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(final Runnable r) {
+			final Thread thread = new Thread(r, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
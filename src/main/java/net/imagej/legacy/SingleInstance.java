@@ -28,15 +28,37 @@
  */
 package net.imagej.legacy;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.rmi.NoSuchObjectException;
-import java.rmi.Remote;
-import java.rmi.RemoteException;
-import java.rmi.server.UnicastRemoteObject;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 
 import org.scijava.log.LogService;
 
@@ -44,20 +66,39 @@ import org.scijava.log.LogService;
  * This class tries to contact another instance on the same machine, started
  * by the current user. If such an instance is found, the arguments are
  * sent to that instance. If no such an instance is found, listen for clients.
- * 
- * No need for extra security, as the stub (and its serialization) contain
- * a hard-to-guess hash code.
+ * <p>
+ * The listening instance accepts connections on the loopback interface only,
+ * and writes its port together with a random token to a file readable only by
+ * the current user (see {@link #getStubPath()}). The file is created private,
+ * and moved into place once complete. A file which cannot be parsed, or whose
+ * instance does not answer the handshake, is considered stale: it is replaced
+ * by a new listening instance. Clients send the token,
+ * followed by all their commands and an {@code end} line, in a single round
+ * trip. Each command is answered by {@code ok <result>}, {@code aborted} or
+ * {@code error <message>}, and the batch by {@code exit <code>}. Fields are
+ * separated by tabs; backslashes, tabs and line breaks within fields are
+ * escaped as {@code \\}, {@code \t}, {@code \r} and {@code \n}.
+ * </p>
  *
  *@author Johannes Schindelin
  *@author Mark Hiner
  */
 public class SingleInstance {
 
+	/** First line of the file describing a listening instance. */
+	private static final String MAGIC = "ImageJ-SingleInstance 1";
+
+	/** How long to wait for a listening instance to accept a connection. */
+	private static final int CONNECT_TIMEOUT = 2000;
+
 	private final int port;
 	private final LogService log;
 	private final IJ1Helper helper;
 	private final boolean isWindows;
 
+	private final List<String> results = new ArrayList<>();
+	private int exitCode;
+
 	public SingleInstance(final int port, final LogService log, final IJ1Helper helper) {
 		this.port = port;
 		this.log = log;
@@ -66,39 +107,97 @@ public class SingleInstance {
 		isWindows = osName != null && osName.toLowerCase().indexOf("win") >= 0;
 	}
 
-	private interface ImageJInstance extends Remote {
-		void sendArgument(String arg) throws RemoteException;
-	}
+	/** Handles the batch of commands sent by one client. */
+	private class Implementation implements Runnable {
+
+		private final Socket client;
+		private final String token;
+
+		private Implementation(final Socket client, final String token) {
+			this.client = client;
+			this.token = token;
+		}
 
-	private class Implementation implements ImageJInstance {
 		@Override
-		public void sendArgument(String cmd) {
-			log.debug("SocketServer.sendArgument: \""+ cmd+"\"");
-			if (cmd.startsWith("open "))
-				IJ1Helper.openAndAddToRecent(new File(cmd.substring(5)));
-			else if (cmd.startsWith("macro ")) {
-				String name = cmd.substring(6);
-				String name2 = name;
-				String arg = null;
-				if (name2.endsWith(")")) {
-					int index = name2.lastIndexOf("(");
-					if (index>0) {
-						name = name2.substring(0, index);
-						arg = name2.substring(index+1, name2.length()-1);
-					}
+		public void run() {
+			try (final Socket s = client;
+					final BufferedReader in = new BufferedReader(new InputStreamReader(
+						s.getInputStream(), StandardCharsets.UTF_8));
+					final Writer out = new BufferedWriter(new OutputStreamWriter(s
+						.getOutputStream(), StandardCharsets.UTF_8)))
+			{
+				final String[] auth = LineCodec.split(String.valueOf(in.readLine()));
+				if (auth.length != 2 || !"token".equals(auth[0]) || !MessageDigest
+					.isEqual(token.getBytes(StandardCharsets.UTF_8), auth[1].getBytes(
+						StandardCharsets.UTF_8)))
+				{
+					out.write("error\tinvalid token\n");
+					return;
+				}
+
+				// NB: Read the whole batch first, so that the client is done writing
+				// by the time the replies are written.
+				final List<String[]> batch = new ArrayList<>();
+				String line;
+				while ((line = in.readLine()) != null && !"end".equals(line)) {
+					batch.add(LineCodec.split(line));
 				}
-				helper.runMacroFile(name, arg);
-			} else if (cmd.startsWith("run "))
-				helper.run(cmd.substring(4));
-			else if (cmd.startsWith("eval ")) {
-				String rtn = helper.runMacro(cmd.substring(5));
-				if (rtn!=null)
-					System.out.print(rtn);
-			} else if (cmd.startsWith("user.dir "))
-				helper.setDefaultDirectory(new File(cmd.substring(9)));
+				if (line == null) return; // incomplete batch
+
+				int exit = 0;
+				for (final String[] command : batch) {
+					final String reply = sendArgument(command);
+					if (!reply.startsWith("ok\t")) exit = 1;
+					out.write(reply);
+					out.write('\n');
+				}
+				out.write("exit\t" + exit + "\n");
+			}
+			catch (final IOException exc) {
+				log.debug(exc);
+			}
+		}
+
+		private String sendArgument(final String[] command) {
+			final String cmd = command[0];
+			final String value = command.length > 1 ? command[1] : "";
+			log.debug("SocketServer.sendArgument: \"" + cmd + " " + value + "\"");
+			try {
+				if ("open".equals(cmd)) {
+					IJ1Helper.openAndAddToRecent(new File(value));
+					return "ok\t";
+				}
+				if ("macro".equals(cmd)) {
+					final String arg = command.length > 2 ? command[2] : null;
+					return result(helper.runMacroFile(value, arg));
+				}
+				if ("run".equals(cmd)) {
+					helper.run(value);
+					return "ok\t";
+				}
+				if ("eval".equals(cmd)) return result(helper.runMacro(value));
+				if ("user.dir".equals(cmd)) {
+					helper.setDefaultDirectory(new File(value));
+					return "ok\t";
+				}
+				return "error\tunknown command: " + LineCodec.escape(cmd);
+			}
+			catch (final RuntimeException exc) {
+				log.error(exc);
+				return "error\t" + LineCodec.escape(String.valueOf(exc));
+			}
+		}
+
+		private String result(final String rtn) {
+			if ("[aborted]".equals(rtn)) return "aborted";
+			return "ok\t" + LineCodec.escape(rtn);
 		}
 	}
 
+	/**
+	 * Gets the path of the file describing the listening instance: its port
+	 * and the token clients have to send.
+	 */
 	public String getStubPath() {
 		String display = System.getenv("DISPLAY");
 		if (display != null) {
@@ -124,6 +223,7 @@ public class SingleInstance {
 			File file = new File(path);
 			file.deleteOnExit();
 
+			file.setReadable(false, false);
 			file.setReadable(true, true);
 			file.setWritable(false);
 			return;
@@ -148,120 +248,327 @@ public class SingleInstance {
 	 *         creates a new server instance.
 	 */
 	public boolean sendArguments(String[] args) {
-		boolean sent = false;
 		final File file = new File(getStubPath());
 
 		// If there is no stub, then the server hasn't
 		// started yet. So start it up and return false.
 		if (file.exists()) {
-			try (FileInputStream in = new FileInputStream(file);
-					ObjectInputStream objIn = new ObjectInputStream(in)) {
-				// Try recovering the remote instance
-				ImageJInstance instance = (ImageJInstance)objIn.readObject();
-
-				if (instance != null) {
-					sendArguments(args, instance);
-
-					// Instance was non-null and arguments sent
-					sent = true;
+			try {
+				sendArguments(args, file);
+				log.debug("sendArguments: return true ");
+				return true;
+			}
+			catch (final ConnectException | StaleStubException e) {
+				// The instance which wrote the stub is gone.
+				log.debug(e);
+				// NB: the stub is read-only, see makeFilePrivate(String)
+				file.setWritable(true);
+				if (!file.delete()) {
+					log.error(
+						"Could not connect to existing ImageJ instance. If problem persists, please delete file: " + file.getAbsolutePath());
+					return false;
 				}
-			} catch (Exception e) {
+			}
+			catch (final IOException e) {
 				log.error(e);
-				// If any problems, we need a new server instance
+				log.error(
+					"Could not connect to existing ImageJ instance. If problem persists, please delete file: " + file.getAbsolutePath());
+				return false;
 			}
 		}
 
-		if (!sent) {
-			if (file.exists()) {
-				log.error(
-						"Could not connect to existing ImageJ instance. If problem persists, please delete file: " + file.getAbsolutePath());
-				file.deleteOnExit();
+		// Only start a new server if we aren't going to clash with an existing file.
+		startServer();
+		log.debug("sendArguments: return false ");
+		return false;
+	}
+
+	/**
+	 * Gets the exit code reported by the existing instance after
+	 * {@link #sendArguments(String[])}: 0 if all arguments were handled
+	 * successfully, nonzero otherwise.
+	 */
+	public int getExitCode() {
+		return exitCode;
+	}
+
+	/**
+	 * Gets the nonempty return values of the macros run by the existing instance
+	 * during {@link #sendArguments(String[])}.
+	 */
+	public List<String> getResults() {
+		return Collections.unmodifiableList(results);
+	}
+
+	/**
+	 * Sends arguments to the ImageJ instance described by the given file
+	 */
+	private void sendArguments(final String[] args, final File file)
+		throws IOException
+	{
+		final String[] lines = new String[3];
+		try (final BufferedReader in = new BufferedReader(new InputStreamReader(
+			new FileInputStream(file), StandardCharsets.UTF_8)))
+		{
+			for (int i = 0; i < lines.length; i++) {
+				lines[i] = in.readLine();
 			}
-			else {
-				// Only start a new server if we aren't going to clash with an existing file.
-				startServer();
-				log.debug("sendArguments: return false ");
+		}
+		// NB: This includes stubs of older versions, which used RMI.
+		if (!MAGIC.equals(lines[0]) || lines[2] == null) {
+			throw new StaleStubException("Not a single instance stub: " + file);
+		}
+		final int serverPort;
+		try {
+			serverPort = Integer.parseInt(lines[1]);
+		}
+		catch (final NumberFormatException e) {
+			throw new StaleStubException("Invalid single instance port: " +
+				lines[1]);
+		}
+		log.debug("sendArguments: port " + serverPort);
+
+		try (final Socket socket = new Socket()) {
+			try {
+				socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+					serverPort), CONNECT_TIMEOUT);
+			}
+			catch (final SocketTimeoutException e) {
+				throw new StaleStubException("No single instance on port " +
+					serverPort);
+			}
+			final Writer out = new BufferedWriter(new OutputStreamWriter(socket
+				.getOutputStream(), StandardCharsets.UTF_8));
+			final BufferedReader in = new BufferedReader(new InputStreamReader(
+				socket.getInputStream(), StandardCharsets.UTF_8));
+
+			// NB: Whatever listens on the port, it is not an instance unless it
+			// takes the batch and answers it.
+			final String handshakeFailed = "Handshake failed on port " + serverPort;
+			String line;
+			try {
+				out.write(line("token", lines[2]));
+				for (final String command : commands(args)) {
+					out.write(command);
+				}
+				out.write("end\n");
+				out.flush();
+				line = in.readLine();
+			}
+			catch (final SocketException e) {
+				throw new StaleStubException(handshakeFailed);
+			}
+			if (line == null || !isReply(LineCodec.split(line))) {
+				throw new StaleStubException(handshakeFailed);
 			}
 
-			return false;
+			results.clear();
+			for (; line != null; line = in.readLine()) {
+				final String[] reply = LineCodec.split(line);
+				if ("exit".equals(reply[0]) && reply.length == 2) {
+					exitCode = Integer.parseInt(reply[1]);
+					return;
+				}
+				if ("ok".equals(reply[0])) {
+					if (reply.length > 1 && !reply[1].isEmpty()) {
+						results.add(reply[1]);
+						System.out.print(reply[1]);
+					}
+				}
+				else if ("aborted".equals(reply[0])) log.warn("Macro aborted");
+				else {
+					final String message = reply.length > 1 ? reply[1] : line;
+					if (message.equals("invalid token")) {
+						throw new StaleStubException(message);
+					}
+					log.error(message);
+				}
+			}
+			throw new IOException("Connection closed before the end of the batch");
 		}
+	}
 
-		log.debug("sendArguments: return true ");
-		return true;
+	/** Checks whether the given line is one a listening instance replies. */
+	private static boolean isReply(final String[] reply) {
+		switch (reply[0]) {
+			case "ok":
+			case "aborted":
+			case "exit":
+				return true;
+			case "error":
+				return reply.length == 2;
+			default:
+				return false;
+		}
 	}
 
-	/**
-	 * Sends arguments to specified ImageJ instance
-	 */
-	private void sendArguments(String[] args, ImageJInstance instance) throws RemoteException {
-		log.debug("sendArguments: " + instance);
-		instance.sendArgument("user.dir " + System.getProperty("user.dir"));
+	/** Translates the command line arguments to protocol lines. */
+	private List<String> commands(final String[] args) {
+		final List<String> commands = new ArrayList<>();
+		final String userDir = System.getProperty("user.dir");
+		commands.add(line("user.dir", userDir));
 		int macros = 0;
 		for (int i = 0; i < args.length; i++) {
 			String arg = args[i];
 			if (arg == null)
 				continue;
-			String cmd = null;
 			if (macros == 0 && arg.endsWith(".ijm")) {
-				cmd = "macro " + arg;
+				commands.add(line("macro", arg));
 				macros++;
 			} else if (arg.startsWith("-macro") && i + 1 < args.length) {
-				String macroArg = i + 2 < args.length ? "(" + args[i + 2] + ")" : "";
-				cmd = "macro " + args[i + 1] + macroArg;
-				instance.sendArgument(cmd);
+				if (i + 2 < args.length) commands.add(line("macro", args[i + 1], args[i + 2]));
+				else commands.add(line("macro", args[i + 1]));
 				break;
 			} else if (arg.startsWith("-eval") && i + 1 < args.length) {
-				cmd = "eval " + args[i + 1];
-				args[i + 1] = null;
+				commands.add(line("eval", args[++i]));
 			} else if (arg.startsWith("-run") && i + 1 < args.length) {
-				cmd = "run " + args[i + 1];
-				args[i + 1] = null;
-			} else if (arg.indexOf("ij.ImageJ") == -1 && !arg.startsWith("-"))
-				cmd = "open " + arg;
-			if (cmd != null)
-				instance.sendArgument(cmd);
+				commands.add(line("run", args[++i]));
+			} else if (arg.indexOf("ij.ImageJ") == -1 && !arg.startsWith("-")) {
+				// NB: Resolve relative paths here, where they are relative to.
+				final File file = new File(arg);
+				commands.add(line("open", file.isAbsolute() ? arg : new File(userDir,
+					arg).getPath()));
+			}
+		}
+		return commands;
+	}
+
+	private static String line(final String... fields) {
+		final StringBuilder sb = new StringBuilder();
+		for (final String field : fields) {
+			if (sb.length() > 0) sb.append('\t');
+			sb.append(LineCodec.escape(field));
 		}
+		return sb.append('\n').toString();
 	}
 
-	private static ImageJInstance stub;
-	private static Implementation implementation;
+	private static ServerSocket server;
+	private static ExecutorService connections;
+	private static File stub;
 
 	private void startServer() {
-		// TODO: not thread safe
 		log.debug("SingleInstance: starting server");
 		final String path = getStubPath();
-		try (FileOutputStream out = new FileOutputStream(path);
-				ObjectOutputStream objOut = new ObjectOutputStream(out)) {
-			implementation = new Implementation();
-			stub = (ImageJInstance)UnicastRemoteObject.exportObject(implementation, 0);
+		final byte[] bytes = new byte[16];
+		new SecureRandom().nextBytes(bytes);
+		final StringBuilder token = new StringBuilder();
+		for (final byte b : bytes) {
+			token.append(String.format("%02x", b & 0xff));
+		}
+		synchronized (SingleInstance.class) {
+			if (server != null) return;
+			try {
+				server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+				writeStub(path, MAGIC + "\n" + server.getLocalPort() + "\n" + token +
+					"\n");
+				stub = new File(path);
+				connections = Executors.newCachedThreadPool(new ThreadFactory() {
 
-			// Write serialized object
-			makeFilePrivate(path);
-			objOut.writeObject(stub);
+					@Override
+					public Thread newThread(final Runnable r) {
+						final Thread thread = new Thread(r, "SingleInstance-Server");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+				final ServerSocket socket = server;
+				connections.execute(new Runnable() {
 
-			log.debug("SingleInstance: server ready");
-		} catch (Exception e) {
-			log.error(e);
+					@Override
+					public void run() {
+						accept(socket, token.toString());
+					}
+				});
+				log.debug("SingleInstance: server ready");
+			} catch (Exception e) {
+				log.error(e);
+				shutDown();
+			}
 		}
 	}
 
 	/**
-	 * Clean up remote objects
+	 * Writes the stub to a temporary file, which is private from the start, and
+	 * then moves it into place, so that clients never see a partial stub.
 	 */
-	public static void shutDown() {
+	private void writeStub(final String path, final String content)
+		throws IOException
+	{
+		final Path target = new File(path).toPath();
+		final Path dir = target.toAbsolutePath().getParent();
+		final Path tmp;
+		if (FileSystems.getDefault().supportedFileAttributeViews().contains(
+			"posix"))
+		{
+			tmp = Files.createTempFile(dir, ".ImageJ-", ".stub", PosixFilePermissions
+				.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		}
+		else {
+			tmp = Files.createTempFile(dir, ".ImageJ-", ".stub");
+			makeFilePrivate(tmp.toString());
+			tmp.toFile().setWritable(true, true);
+		}
 		try {
-			if (SingleInstance.implementation != null) {
-				UnicastRemoteObject.unexportObject(SingleInstance.implementation, true);
+			Files.write(tmp, content.getBytes(StandardCharsets.UTF_8));
+			try {
+				Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (final AtomicMoveNotSupportedException e) {
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
 			}
-		} catch (final NoSuchObjectException exc) {
-			// No-op
 		}
-		try {
-			if (SingleInstance.stub != null) {
-				UnicastRemoteObject.unexportObject(SingleInstance.stub, true);
+		finally {
+			Files.deleteIfExists(tmp);
+		}
+		makeFilePrivate(path);
+	}
+
+	private void accept(final ServerSocket socket, final String token) {
+		while (!socket.isClosed()) {
+			try {
+				final Socket client = socket.accept();
+				connections.execute(new Implementation(client, token));
+			}
+			catch (final IOException | RejectedExecutionException e) {
+				if (!socket.isClosed()) log.debug(e);
+			}
+		}
+	}
+
+	/**
+	 * Stops listening for clients
+	 */
+	public static void shutDown() {
+		synchronized (SingleInstance.class) {
+			if (server != null) {
+				try {
+					server.close();
+				} catch (final IOException exc) {
+					// No-op
+				}
+				server = null;
+			}
+			if (connections != null) {
+				connections.shutdownNow();
+				connections = null;
 			}
-		} catch (final NoSuchObjectException exc) {
-			// No-op
+			if (stub != null) {
+				stub.setWritable(true);
+				stub.delete();
+				stub = null;
+			}
+		}
+	}
+
+	/**
+	 * Signals a stub file which does not describe a listening instance, e.g. one
+	 * left behind by a crashed or an older version of ImageJ.
+	 */
+	private static class StaleStubException extends IOException {
+
+		private StaleStubException(final String message) {
+			super(message);
 		}
 	}
 }
@@ -222,9 +222,10 @@ public class SingleInstanceArgument extends AbstractConsoleArgument {
 			// plugins would still process the original arguments (e.g. opening
 			// the file) in this second instance. We fix both issues by returning
 			// true (so handle() is called and clears the list) and then calling
-			// System.exit(0) to immediately terminate this redundant instance.
+			// System.exit() to immediately terminate this redundant instance,
+			// passing on the exit code reported by the other instance.
 			context().dispose();
-			System.exit(0);
+			System.exit(instance.getExitCode());
 			return true; // NB: Unreachable, but satisfies the compiler.
 		}
 
@@ -0,0 +1,195 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import org.scijava.convert.ConversionRequest;
+import org.scijava.convert.ConvertService;
+import org.scijava.convert.Converter;
+import org.scijava.log.LogService;
+
+/**
+ * Converts many objects to the same output type, such as all {@link ij.gui.Roi}s
+ * of an {@link ij.gui.Overlay}.
+ * <p>
+ * {@link ConvertService#convert(Object, Class)} scans all converters for every
+ * object. This class instead narrows the converters down once per source
+ * class, and only checks those against each object, in priority order, so the
+ * chosen converter is the same as with the {@link ConvertService}. Batches of
+ * at least {@link #PARALLEL_THRESHOLD} objects are converted in parallel
+ * chunks on the common fork-join pool. The number of conversions and the time
+ * spent converting are tallied per source class.
+ * </p>
+ *
+ * @param <O> the output type
+ */
+final class BatchConverter<O> {
+
+	/** Minimum number of objects for converting in parallel. */
+	static final int PARALLEL_THRESHOLD = 1024;
+
+	/** Number of objects converted by each parallel task. */
+	private static final int CHUNK_SIZE = 256;
+
+	private final ConvertService convertService;
+	private final Class<O> dest;
+
+	/** Candidate converters for each source class, in priority order. */
+	private final Map<Class<?>, List<Converter<?, ?>>> candidates =
+		new ConcurrentHashMap<>();
+
+	private final Map<Class<?>, TypeStats> stats = new ConcurrentHashMap<>();
+
+	BatchConverter(final ConvertService convertService, final Class<O> dest) {
+		this.convertService = convertService;
+		this.dest = dest;
+	}
+
+	/**
+	 * Converts each of the given objects.
+	 *
+	 * @param sources the objects to convert
+	 * @return the converted objects, in the same order; {@code null} for objects
+	 *         which could not be converted
+	 */
+	List<O> convertAll(final List<?> sources) {
+		final int n = sources.size();
+		final Object[] converted = new Object[n];
+		if (n < PARALLEL_THRESHOLD) convertRange(sources, converted, 0, n);
+		else {
+			final int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+			IntStream.range(0, chunks).parallel().forEach(c -> convertRange(sources,
+				converted, c * CHUNK_SIZE, Math.min(n, (c + 1) * CHUNK_SIZE)));
+		}
+		@SuppressWarnings("unchecked")
+		final List<O> result = (List<O>) Arrays.asList(converted);
+		return result;
+	}
+
+	/**
+	 * Logs the number of conversions and the time spent per source class, if
+	 * debug logging is enabled.
+	 */
+	void logStatistics(final LogService log) {
+		if (log == null || !log.isDebug()) return;
+		final StringBuilder sb = new StringBuilder("Converted to ");
+		sb.append(dest.getSimpleName()).append(":");
+		for (final Map.Entry<Class<?>, TypeStats> entry : stats.entrySet()) {
+			final TypeStats s = entry.getValue();
+			sb.append(" ").append(entry.getKey().getSimpleName());
+			sb.append(" x").append(s.count.sum());
+			sb.append(" (").append(s.nanos.sum() / 1000000).append(" ms)");
+		}
+		log.debug(sb.toString());
+	}
+
+	/** Gets the number of conversions from the given source class. */
+	long getCount(final Class<?> sourceClass) {
+		final TypeStats s = stats.get(sourceClass);
+		return s == null ? 0 : s.count.sum();
+	}
+
+	/** Gets the nanoseconds spent converting from the given source class. */
+	long getNanos(final Class<?> sourceClass) {
+		final TypeStats s = stats.get(sourceClass);
+		return s == null ? 0 : s.nanos.sum();
+	}
+
+	// -- Helper methods --
+
+	private void convertRange(final List<?> sources, final Object[] converted,
+		final int start, final int end)
+	{
+		for (int i = start; i < end; i++) {
+			final Object src = sources.get(i);
+			if (src == null) continue;
+			final long t0 = System.nanoTime();
+			converted[i] = convert(src);
+			final TypeStats s = stats.computeIfAbsent(src.getClass(),
+				c -> new TypeStats());
+			s.count.increment();
+			s.nanos.add(System.nanoTime() - t0);
+		}
+	}
+
+	private O convert(final Object src) {
+		final ConversionRequest request = new ConversionRequest(src, dest);
+		for (final Converter<?, ?> converter : candidates(src.getClass())) {
+			if (converter.supports(request)) return converter.convert(src, dest);
+		}
+		// NB: None of the candidates applies; defer to the full lookup.
+		return convertService.convert(src, dest);
+	}
+
+	/**
+	 * Gets the converters which may convert objects of the given class, judging
+	 * by their types only. Whether one applies to a particular object is decided
+	 * by {@link #convert(Object)}, since some converters need the object itself:
+	 * e.g. the ROI converters inspect the ROI, and fail on a request without one.
+	 */
+	private List<Converter<?, ?>> candidates(final Class<?> srcClass) {
+		return candidates.computeIfAbsent(srcClass, c -> {
+			final List<Converter<?, ?>> list = new ArrayList<>();
+			for (final Converter<?, ?> converter : convertService.getInstances()) {
+				if (mayConvert(converter, c)) list.add(converter);
+			}
+			return list;
+		});
+	}
+
+	private boolean mayConvert(final Converter<?, ?> converter,
+		final Class<?> srcClass)
+	{
+		try {
+			return converter.canConvert(srcClass, (Type) dest);
+		}
+		catch (final RuntimeException exc) {
+			// NB: Keep the converter, and let the object decide.
+			return true;
+		}
+	}
+
+	// -- Helper classes --
+
+	private static final class TypeStats {
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+	}
+
+}
@@ -30,7 +30,7 @@ package net.imagej.legacy.convert;
 
 import ij.gui.Overlay;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import net.imagej.roi.DefaultROITree;
@@ -40,11 +40,13 @@ import net.imglib2.roi.MaskPredicate;
 import org.scijava.convert.AbstractConverter;
 import org.scijava.convert.ConvertService;
 import org.scijava.convert.Converter;
+import org.scijava.log.LogService;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
 
 /**
- * Converts an {@link Overlay} to a {@link ROITree}.
+ * Converts an {@link Overlay} to a {@link ROITree}. Large overlays are
+ * converted in parallel; see {@link BatchConverter}.
  *
  * @author Alison Walter
  */
@@ -56,6 +58,9 @@ public class OverlayToROITreeConverter extends
 	@Parameter
 	private ConvertService convertService;
 
+	@Parameter(required = false)
+	private LogService log;
+
 	@Override
 	public Class<Overlay> getInputType() {
 		return Overlay.class;
@@ -77,12 +82,14 @@ public class OverlayToROITreeConverter extends
 			throw new IllegalArgumentException("Unexpected output class: " + dest);
 
 		final Overlay o = (Overlay) src;
-		final List<MaskPredicate<?>> converted = new ArrayList<>();
-		for (int i = 0; i < o.size(); i++)
-			converted.add(convertService.convert(o.get(i), MaskPredicate.class));
+		@SuppressWarnings("rawtypes")
+		final BatchConverter<MaskPredicate> batch = new BatchConverter<>(
+			convertService, MaskPredicate.class);
+		final List<?> converted = batch.convertAll(Arrays.asList(o.toArray()));
+		batch.logStatistics(log);
 
 		final ROITree rois = new DefaultROITree();
-		rois.addROIs(converted);
+		rois.addROIs((List<MaskPredicate<?>>) converted);
 		return (T) rois;
 	}
 
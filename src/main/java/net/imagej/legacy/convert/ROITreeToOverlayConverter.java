@@ -31,18 +31,23 @@ package net.imagej.legacy.convert;
 
 import ij.gui.Overlay;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import net.imagej.roi.ROITree;
 import net.imglib2.roi.MaskPredicate;
 
 import org.scijava.convert.AbstractConverter;
 import org.scijava.convert.ConvertService;
 import org.scijava.convert.Converter;
+import org.scijava.log.LogService;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
 import org.scijava.util.TreeNode;
 
 /**
- * Converts a {@link ROITree} to an {@link Overlay}.
+ * Converts a {@link ROITree} to an {@link Overlay}. Large trees are converted
+ * in parallel; see {@link BatchConverter}.
  *
  * @author Alison Walter
  */
@@ -54,6 +59,9 @@ public class ROITreeToOverlayConverter extends
 	@Parameter
 	private ConvertService convertService;
 
+	@Parameter(required = false)
+	private LogService log;
+
 	@Override
 	public Class<ROITree> getInputType() {
 		return ROITree.class;
@@ -73,20 +81,23 @@ public class ROITreeToOverlayConverter extends
 			throw new IllegalArgumentException("Unexpected output class: " + dest);
 
 		final ROITree rois = (ROITree) src;
+		final List<Object> masks = new ArrayList<>();
+		collectROIs(rois, masks);
+
+		final BatchConverter<ij.gui.Roi> batch = new BatchConverter<>(
+			convertService, ij.gui.Roi.class);
 		final Overlay o = new Overlay();
-		addROIs(rois, o);
+		for (final ij.gui.Roi ijRoi : batch.convertAll(masks))
+			o.add(ijRoi);
+		batch.logStatistics(log);
 		return (T) o;
 	}
 
-	private void addROIs(final TreeNode<?> rois, final Overlay overlay) {
-		if (rois.data() instanceof MaskPredicate) {
-			final ij.gui.Roi ijRoi = convertService.convert(rois.data(),
-				ij.gui.Roi.class);
-			overlay.add(ijRoi);
-		}
+	private void collectROIs(final TreeNode<?> rois, final List<Object> masks) {
+		if (rois.data() instanceof MaskPredicate) masks.add(rois.data());
 		if (rois.children() == null || rois.children().isEmpty()) return;
 		for (final TreeNode<?> roi : rois.children())
-			addROIs(roi, overlay);
+			collectROIs(roi, masks);
 	}
 
 }
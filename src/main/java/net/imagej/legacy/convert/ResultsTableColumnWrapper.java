@@ -31,8 +31,6 @@ package net.imagej.legacy.convert;
 
 import ij.measure.ResultsTable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -57,6 +55,16 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 		this.col = col;
 	}
 
+	/**
+	 * Gets the numeric values of this column, without boxing them.
+	 *
+	 * @return a copy of the values, one per row; String cells are NaN
+	 */
+	public double[] getDoubles() {
+		final double[] values = table.getColumnAsDoubles(col);
+		return values == null ? new double[table.size()] : values;
+	}
+
 	@Override
 	public String getHeader() {
 		return table.getColumnHeading(col);
@@ -176,16 +184,7 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 	@Override
 	public void clear() {
 		// Determine if empty cells are NaN or 0
-		double fill = 0;
-		try {
-			final Field f = ResultsTable.class.getDeclaredField("NaNEmptyCells");
-			f.setAccessible(true);
-			final boolean nan = (boolean) f.get(table);
-			fill = nan ? Double.NaN : 0;
-		}
-		catch (final Exception exc) {
-			// Keep as zero
-		}
+		final double fill = ResultsTables.emptyCellValue(table);
 
 		for (int i = 0; i < table.size(); i++) {
 			// set strings to "", this must be done first. Since setting the string
@@ -282,34 +281,7 @@ public class ResultsTableColumnWrapper extends GenericColumn {
 	 *         false
 	 */
 	private boolean checkString(final int row) {
-		final double d = table.getValueAsDouble(col, row);
-		final String s = table.getStringValue(col, row);
-
-		// convert d to a string, as ResultsTable would
-		String c = "";
-		try {
-			final Field f = ResultsTable.class.getDeclaredField("decimalPlaces");
-			f.setAccessible(true);
-			final short[] dec = (short[]) f.get(table);
-			final short places = dec[col];
-			if (places == Short.MIN_VALUE) {
-				final Method m = table.getClass().getDeclaredMethod("n", double.class);
-				m.setAccessible(true);
-				c = (String) m.invoke(table, d);
-			}
-			else {
-				c = ResultsTable.d2s(d, dec[col]);
-			}
-		}
-		catch (final Exception exc) {
-			// if can't get the decimal places or n(...), call d2s with AUTO_FORMAT
-			c = ResultsTable.d2s(d, ResultsTable.AUTO_FORMAT);
-		}
-
-		// Special case for NaN
-		if (((Double) d).isNaN() && (s == "" || s == null)) return false;
-
-		return !s.equals(c);
+		return ResultsTables.isString(table, col, row);
 	}
 
 	private int findInRange(final Object o, final IntStream range) {
@@ -31,13 +31,16 @@ package net.imagej.legacy.convert;
 
 import ij.measure.ResultsTable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 import org.scijava.table.Column;
 import org.scijava.table.GenericTable;
@@ -49,8 +52,17 @@ import org.scijava.table.GenericTable;
  */
 public class ResultsTableWrapper implements GenericTable {
 
+	/** Temporary column used to move rows which are to be removed. */
+	private static final String REMOVAL_COLUMN = "__ResultsTableWrapper_remove__";
+
 	private final ResultsTable table;
 
+	/** Lazily built index of the first row with each label. */
+	private Map<String, Integer> labelIndex;
+
+	/** Row count of the table when {@link #labelIndex} was built. */
+	private int labelIndexSize;
+
 	public ResultsTableWrapper(final ResultsTable table) {
 		this.table = table;
 	}
@@ -59,6 +71,76 @@ public class ResultsTableWrapper implements GenericTable {
 		return table;
 	}
 
+	/**
+	 * Gets the numeric values of the given column, without boxing them.
+	 *
+	 * @param col the column index
+	 * @return a copy of the column's values, one per row; String cells are NaN
+	 */
+	public double[] getColumnAsDoubles(final int col) {
+		final double[] values = table.getColumnAsDoubles(getActualColumnIndex(
+			col));
+		return values == null ? new double[table.size()] : values;
+	}
+
+	/**
+	 * Sets the numeric values of the given column, without boxing them. Rows are
+	 * appended as needed. Columns holding only numbers are written in bulk.
+	 *
+	 * @param col the column index
+	 * @param values the values, starting at the first row
+	 */
+	public void setColumn(final int col, final double[] values) {
+		final int actualCol = getActualColumnIndex(col);
+		while (table.size() < values.length) {
+			table.incrementCounter();
+		}
+		// NB: String cells shadow the numbers, so must be cleared one by one.
+		final double[] column = ResultsTables.hasStrings(table, actualCol) ? null
+			: ResultsTables.columnArray(table, actualCol);
+		if (column != null && column.length >= values.length) {
+			System.arraycopy(values, 0, column, 0, values.length);
+			return;
+		}
+		for (int r = 0; r < values.length; r++) {
+			table.setValue(actualCol, r, values[r]);
+		}
+	}
+
+	/**
+	 * Iterates over the rows of the table, as the numeric values of all columns.
+	 * <p>
+	 * To stream large tables, the same array is returned for every row, and is
+	 * overwritten by the next call to {@link Iterator#next()}.
+	 * </p>
+	 */
+	public Iterator<double[]> rowIterator() {
+		final int[] cols = new int[getColumnCount()];
+		for (int c = 0, i = 0; c <= table.getLastColumn(); c++) {
+			if (table.columnExists(c)) cols[i++] = c;
+		}
+		final double[] row = new double[cols.length];
+		return new Iterator<double[]>() {
+
+			private int r;
+
+			@Override
+			public boolean hasNext() {
+				return r < table.size();
+			}
+
+			@Override
+			public double[] next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				for (int c = 0; c < cols.length; c++) {
+					row[c] = table.getValueAsDouble(cols[c], r);
+				}
+				r++;
+				return row;
+			}
+		};
+	}
+
 	@Override
 	public int getColumnCount() {
 		// NB: Last column gives the index of the last column in use, but there may
@@ -85,17 +167,7 @@ public class ResultsTableWrapper implements GenericTable {
 	@Override
 	public Column<? extends Object> appendColumn() {
 		// Determine if empty cells are NaN or 0
-		double fill = 0;
-		try {
-			final Field f = ResultsTable.class.getDeclaredField(
-				"NaNEmptyCells");
-			f.setAccessible(true);
-			final boolean nan = (boolean) f.get(table);
-			fill = nan ? Double.NaN : 0;
-		}
-		catch (final Exception exc) {
-			// Keep as zero
-		}
+		final double fill = ResultsTables.emptyCellValue(table);
 		// addValue does not increment the counter (row count) and sets the heading
 		// to "---"
 		table.addValue(table.getLastColumn() + 1, fill);
@@ -187,43 +259,44 @@ public class ResultsTableWrapper implements GenericTable {
 
 	@Override
 	public void appendRow() {
-		// Determine if empty cells are NaN or 0
-		double fill = 0;
-		try {
-			final Field f = ResultsTable.class.getDeclaredField(
-				"NaNEmptyCells");
-			f.setAccessible(true);
-			final boolean nan = (boolean) f.get(table);
-			fill = nan ? Double.NaN : 0;
-		}
-		catch (final Exception exc) {
-			// Keep as zero
-		}
-
-		for (int i = 0; i <= table.getLastColumn(); i++) {
-			// setValue increments the column whereas addValue does not
-			table.setValue(i, table.size(), fill);
-		}
+		appendRows(1);
 	}
 
 	@Override
 	public void appendRow(final String header) {
+		final boolean indexed = isLabelIndexValid();
 		appendRow(); // incremented row count
 		table.setLabel(header, table.size() - 1);
+		if (indexed) {
+			// NB: keep the index up to date, rather than rebuilding it
+			labelIndex.putIfAbsent(header, table.size() - 1);
+			labelIndexSize = table.size();
+		}
 	}
 
 	@Override
 	public void appendRows(final int count) {
-		for (int i = 0; i < count; i++) {
-			appendRow();
+		// Determine if empty cells are NaN or 0
+		final double fill = ResultsTables.emptyCellValue(table);
+		final int lastColumn = table.getLastColumn();
+
+		for (int r = 0; r < count; r++) {
+			final int row = table.size();
+			for (int i = 0; i <= lastColumn; i++) {
+				// setValue increments the column whereas addValue does not
+				table.setValue(i, row, fill);
+			}
 		}
 	}
 
 	@Override
 	public void appendRows(final String... headers) {
+		final int first = table.size();
+		appendRows(headers.length);
 		for (int i = 0; i < headers.length; i++) {
-			appendRow(headers[i]);
+			table.setLabel(headers[i], first + i);
 		}
+		invalidateLabelIndex();
 	}
 
 	@Override
@@ -253,26 +326,67 @@ public class ResultsTableWrapper implements GenericTable {
 
 	@Override
 	public void removeRow(final String header) {
-		for (int i = 0; i < table.size(); i++) {
-			if (table.getLabel(i).equals(header)) {
-				table.deleteRow(i);
-				break;
-			}
-		}
+		final int row = getRowIndex(header);
+		if (row < 0) return;
+		table.deleteRow(row);
+		invalidateLabelIndex();
 	}
 
 	@Override
 	public void removeRows(final int row, final int count) {
-		for (int i = 0; i < count; i++) {
-			table.deleteRow(i + row);
-		}
+		if (count <= 0) return;
+		table.deleteRows(row, row + count - 1);
+		invalidateLabelIndex();
 	}
 
+	/**
+	 * Removes the first row with each of the given labels. A label which is
+	 * given several times removes as many rows with that label.
+	 * <p>
+	 * All rows are removed in a single pass over the table.
+	 * </p>
+	 */
 	@Override
 	public void removeRows(final String... headers) {
-		for (int i = 0; i < headers.length; i++) {
-			removeRow(headers[i]);
+		final BitSet rows = new BitSet(table.size());
+		for (final String header : headers) {
+			int row = getRowIndex(header);
+			// NB: labels given more than once remove the next rows with that label
+			while (row >= 0 && rows.get(row)) {
+				row = nextRowIndex(header, row + 1);
+			}
+			if (row >= 0) rows.set(row);
 		}
+		removeRows(rows);
+	}
+
+	/**
+	 * Removes the given rows, compacting the table in a single pass.
+	 *
+	 * @param rows the indices of the rows to remove
+	 */
+	public void removeRows(final BitSet rows) {
+		final int size = table.size();
+		final int count = rows.get(0, size).cardinality();
+		if (count == 0) return;
+		final int first = rows.nextSetBit(0);
+		final int last = rows.previousSetBit(size - 1);
+		if (last - first + 1 == count) {
+			// contiguous rows
+			table.deleteRows(first, last);
+		}
+		else {
+			// NB: Move the rows to remove to the end of the table, keeping the order
+			// of all other rows, and truncate it. This moves each row only once,
+			// whereas deleting the rows one by one shifts the rows after each.
+			for (int r = 0; r < size; r++) {
+				table.setValue(REMOVAL_COLUMN, r, rows.get(r) ? size + r : r);
+			}
+			table.sort(REMOVAL_COLUMN);
+			table.deleteRows(size - count, size - 1);
+			table.deleteColumn(REMOVAL_COLUMN);
+		}
+		invalidateLabelIndex();
 	}
 
 	@Override
@@ -306,14 +420,27 @@ public class ResultsTableWrapper implements GenericTable {
 	@Override
 	public void setRowHeader(final int row, final String header) {
 		table.setLabel(header, row);
+		invalidateLabelIndex();
 	}
 
+	/**
+	 * Gets the index of the first row with the given label.
+	 * <p>
+	 * The first lookup indexes all row labels; later lookups reuse that index
+	 * until the rows change. Changes made directly to the wrapped
+	 * {@link ResultsTable} are detected when they change its row count, or
+	 * relabel the row found in the index.
+	 * </p>
+	 */
 	@Override
 	public int getRowIndex(final String header) {
-		for (int i = 0; i < table.size(); i++) {
-			if (table.getLabel(i).equals(header)) return i;
-		}
-		return -1;
+		final Integer row = labelIndex().get(header);
+		if (row == null) return -1;
+		if (Objects.equals(table.getLabel(row), header)) return row;
+		// the table was relabeled behind our back
+		invalidateLabelIndex();
+		final Integer newRow = labelIndex().get(header);
+		return newRow == null ? -1 : newRow;
 	}
 
 	/**
@@ -452,6 +579,7 @@ public class ResultsTableWrapper implements GenericTable {
 	@Override
 	public void clear() {
 		table.reset();
+		invalidateLabelIndex();
 	}
 
 	@Override
@@ -520,6 +648,37 @@ public class ResultsTableWrapper implements GenericTable {
 
 // -- Helper methods --
 
+	private boolean isLabelIndexValid() {
+		return labelIndex != null && labelIndexSize == table.size();
+	}
+
+	private void invalidateLabelIndex() {
+		labelIndex = null;
+	}
+
+	/** Gets the label index, (re)building it if needed. */
+	private Map<String, Integer> labelIndex() {
+		if (!isLabelIndexValid()) {
+			final int size = table.size();
+			final Map<String, Integer> index = new HashMap<>();
+			for (int i = 0; i < size; i++) {
+				final String label = table.getLabel(i);
+				if (label != null) index.putIfAbsent(label, i);
+			}
+			labelIndex = index;
+			labelIndexSize = size;
+		}
+		return labelIndex;
+	}
+
+	/** Gets the index of the first row at or after the given one with a label. */
+	private int nextRowIndex(final String header, final int start) {
+		for (int i = start; i < table.size(); i++) {
+			if (Objects.equals(table.getLabel(i), header)) return i;
+		}
+		return -1;
+	}
+
 	/**
 	 * Checks if the value at the given position is a String.
 	 *
@@ -527,35 +686,7 @@ public class ResultsTableWrapper implements GenericTable {
 	 *         false
 	 */
 	private boolean checkString(final int row, final int col) {
-		final double d = table.getValueAsDouble(col, row);
-		final String s = table.getStringValue(col, row);
-
-		// convert d to a string, as ResultsTable would
-		String c = "";
-		try {
-			final Field f = ResultsTable.class.getDeclaredField(
-				"decimalPlaces");
-			f.setAccessible(true);
-			final short[] dec = (short[]) f.get(table);
-			final short places = dec[col];
-			if (places == Short.MIN_VALUE) {
-				final Method m = table.getClass().getDeclaredMethod("n", double.class);
-				m.setAccessible(true);
-				c = (String) m.invoke(table, d);
-			}
-			else {
-				c = ResultsTable.d2s(d, dec[col]);
-			}
-		}
-		catch (final Exception exc) {
-			// if can't get the decimal places or n(...), call d2s with AUTO_FORMAT
-			c = ResultsTable.d2s(d, ResultsTable.AUTO_FORMAT);
-		}
-
-		// Special case for NaN
-		if (((Double) d).isNaN() && (s == "" || s == null)) return false;
-
-		return !s.equals(c);
+		return ResultsTables.isString(table, col, row);
 	}
 
 	/**
@@ -0,0 +1,167 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import ij.measure.ResultsTable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Utility methods for inspecting {@link ResultsTable} cells.
+ * <p>
+ * Some of the information needed is not exposed by ImageJ 1.x, so it is read
+ * reflectively. The reflective handles are resolved once, when this class is
+ * initialized, rather than once per cell.
+ * </p>
+ *
+ * @author Alison Walter
+ */
+final class ResultsTables {
+
+	private static final Field NAN_EMPTY_CELLS = field("NaNEmptyCells");
+	private static final Field DECIMAL_PLACES = field("decimalPlaces");
+	private static final Field STRING_COLUMNS = field("stringColumns");
+	private static final Field COLUMNS = field("columns");
+	private static final Method N = method("n", double.class);
+
+	private ResultsTables() {
+		// prevent instantiation of utility class
+	}
+
+	/**
+	 * Gets the value of empty cells of the given table: NaN or 0.
+	 */
+	static double emptyCellValue(final ResultsTable table) {
+		try {
+			return (boolean) NAN_EMPTY_CELLS.get(table) ? Double.NaN : 0;
+		}
+		catch (final Exception exc) {
+			// Keep as zero
+			return 0;
+		}
+	}
+
+	/**
+	 * Checks whether the given column may contain String values.
+	 *
+	 * @return false if the column holds only numbers, true if it holds Strings or
+	 *         if this cannot be determined
+	 */
+	static boolean hasStrings(final ResultsTable table, final int col) {
+		if (STRING_COLUMNS == null) return true;
+		try {
+			final Map<?, ?> stringColumns = (Map<?, ?>) STRING_COLUMNS.get(table);
+			return stringColumns != null && stringColumns.containsKey(col);
+		}
+		catch (final Exception exc) {
+			return true;
+		}
+	}
+
+	/**
+	 * Checks if the value at the given position is a String.
+	 *
+	 * @return true if the value at the given location is a String, otherwise
+	 *         false
+	 */
+	static boolean isString(final ResultsTable table, final int col,
+		final int row)
+	{
+		// NB: cells of columns without any Strings are numbers
+		if (!hasStrings(table, col)) return false;
+
+		final double d = table.getValueAsDouble(col, row);
+		final String s = table.getStringValue(col, row);
+
+		// Special case for NaN
+		if (Double.isNaN(d) && (s == null || s.isEmpty())) return false;
+
+		return !s.equals(format(table, col, d));
+	}
+
+	/**
+	 * Gets the array backing the numeric values of the given column, which may
+	 * be longer than the table.
+	 *
+	 * @return the column array, or null if it cannot be accessed
+	 */
+	static double[] columnArray(final ResultsTable table, final int col) {
+		if (COLUMNS == null) return null;
+		try {
+			final double[][] columns = (double[][]) COLUMNS.get(table);
+			return col >= 0 && col < columns.length ? columns[col] : null;
+		}
+		catch (final Exception exc) {
+			return null;
+		}
+	}
+
+	// -- Helper methods --
+
+	/** Converts the given number to a String, as the ResultsTable would. */
+	private static String format(final ResultsTable table, final int col,
+		final double d)
+	{
+		try {
+			final short[] dec = (short[]) DECIMAL_PLACES.get(table);
+			final short places = dec[col];
+			if (places == Short.MIN_VALUE) return (String) N.invoke(table, d);
+			return ResultsTable.d2s(d, places);
+		}
+		catch (final Exception exc) {
+			// if can't get the decimal places or n(...), call d2s with AUTO_FORMAT
+			return ResultsTable.d2s(d, ResultsTable.AUTO_FORMAT);
+		}
+	}
+
+	private static Field field(final String name) {
+		try {
+			final Field f = ResultsTable.class.getDeclaredField(name);
+			f.setAccessible(true);
+			return f;
+		}
+		catch (final Exception exc) {
+			return null;
+		}
+	}
+
+	private static Method method(final String name, final Class<?>... types) {
+		try {
+			final Method m = ResultsTable.class.getDeclaredMethod(name, types);
+			m.setAccessible(true);
+			return m;
+		}
+		catch (final Exception exc) {
+			return null;
+		}
+	}
+}
@@ -30,10 +30,16 @@
 package net.imagej.legacy.convert;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import org.scijava.convert.ConvertService;
 import org.scijava.table.Table;
@@ -44,6 +50,10 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 	private final ConvertService convertService;
 	private List<ij.measure.ResultsTable> resultsTables;
 
+	/** The {@link Table} of each {@link ij.measure.ResultsTable}, if known. */
+	private final Map<ij.measure.ResultsTable, Converted> converted =
+		new IdentityHashMap<>();
+
 	public TableListWrapper(final List<Table<?, ?>> tables,
 		final ConvertService convertService)
 	{
@@ -62,16 +72,31 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 
 	/**
 	 * Synchronizes {@code this} and the source {@code List<Table<?, ?>>}.
+	 * <p>
+	 * Only {@link ij.measure.ResultsTable}s which were added, or which changed
+	 * since they were last converted, are converted; the {@link Table}s of all
+	 * others are reused. If no table changed, the source list is kept as is.
+	 * </p>
 	 */
 	public void synchronize() {
 		if (resultsTables == null) return;
-		final List<Table<?, ?>> updated = new ArrayList<>();
-		for (final ij.measure.ResultsTable resultsTable : getResultsTables()) {
-			final Table<?, ?> table = convertService.convert(resultsTable,
-				Table.class);
-			updated.add(table);
+		boolean changed = resultsTables.size() != tables.size();
+		final List<Table<?, ?>> updated = new ArrayList<>(resultsTables.size());
+		final Set<ij.measure.ResultsTable> current = Collections.newSetFromMap(
+			new IdentityHashMap<>());
+		for (final ij.measure.ResultsTable resultsTable : resultsTables) {
+			current.add(resultsTable);
+			Converted c = converted.get(resultsTable);
+			if (c == null || !c.isUpToDate(resultsTable)) {
+				c = new Converted(resultsTable, convertService.convert(resultsTable,
+					Table.class));
+				converted.put(resultsTable, c);
+			}
+			if (!changed && c.table != tables.get(updated.size())) changed = true;
+			updated.add(c.table);
 		}
-		tables = updated;
+		converted.keySet().retainAll(current);
+		if (changed) tables = updated;
 	}
 
 	/**
@@ -220,7 +245,56 @@ public class TableListWrapper implements List<ij.measure.ResultsTable> {
 			final ij.measure.ResultsTable rt = convertService.convert(table,
 				ij.measure.ResultsTable.class);
 			rts.add(rt);
+			converted.put(rt, new Converted(rt, table));
 		}
 		resultsTables = rts;
 	}
+
+	// -- Helper classes --
+
+	/** A {@link Table} converted from or to a {@link ij.measure.ResultsTable}. */
+	private static final class Converted {
+
+		private final Table<?, ?> table;
+
+		/** Whether the table is a live view of the ResultsTable, or vice versa. */
+		private final boolean live;
+
+		/** Stamp of the ResultsTable contents at conversion time. */
+		private final long stamp;
+
+		private Converted(final ij.measure.ResultsTable rt,
+			final Table<?, ?> table)
+		{
+			this.table = table;
+			live = rt instanceof TableWrapper && ((TableWrapper) rt)
+				.getSource() == table || //
+				table instanceof ResultsTableWrapper && ((ResultsTableWrapper) table)
+					.getSource() == rt;
+			stamp = live ? 0 : stamp(rt);
+		}
+
+		/**
+		 * Checks whether the table still reflects the given ResultsTable. Live
+		 * views always do; copies do unless the ResultsTable's dimensions or
+		 * contents changed.
+		 */
+		private boolean isUpToDate(final ij.measure.ResultsTable rt) {
+			return live || stamp == stamp(rt);
+		}
+
+		private static long stamp(final ij.measure.ResultsTable rt) {
+			long hash = 31L * rt.size() + rt.getLastColumn();
+			for (int c = 0; c <= rt.getLastColumn(); c++) {
+				if (!rt.columnExists(c)) continue;
+				hash = 31 * hash + Objects.hashCode(rt.getColumnHeading(c));
+				final double[] values = rt.getColumnAsDoubles(c);
+				if (values != null) hash = 31 * hash + Arrays.hashCode(values);
+			}
+			for (int r = 0; r < rt.size(); r++) {
+				hash = 31 * hash + Objects.hashCode(rt.getLabel(r));
+			}
+			return hash;
+		}
+	}
 }
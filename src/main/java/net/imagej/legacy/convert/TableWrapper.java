@@ -31,13 +31,15 @@ package net.imagej.legacy.convert;
 
 import ij.ImagePlus;
 import ij.gui.Roi;
-import ij.measure.ResultsTable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.Arrays;
 
 import org.scijava.convert.ConvertService;
 import org.scijava.table.Column;
+import org.scijava.table.DoubleColumn;
+import org.scijava.table.DoubleTable;
+import org.scijava.table.FloatColumn;
+import org.scijava.table.FloatTable;
 import org.scijava.table.Table;
 
 /**
@@ -50,6 +52,15 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	private final Table<?, ?> source;
 	private final ConvertService convert;
 
+	/** Number of leading rows known to match the source. */
+	private int syncedRows;
+
+	/** Number of modifications made through this table. */
+	private long modCount;
+
+	/** Value of {@link #modCount} at the last synchronization. */
+	private long syncedModCount;
+
 	public TableWrapper(final Table<?, ?> source, final ConvertService convert) {
 		super();
 		for (int r = 0; r < source.getRowCount(); r++)
@@ -64,15 +75,25 @@ public class TableWrapper extends ij.measure.ResultsTable {
 		return source;
 	}
 
+	/**
+	 * Gets the number of modifications made through this table, e.g. to track
+	 * whether it changed since it was last read.
+	 */
+	public long getModificationCount() {
+		return modCount;
+	}
+
 	@Override
 	public synchronized void incrementCounter() {
 		super.incrementCounter();
+		modCount++;
 		source.appendRow();
 	}
 
 	@Override
 	public synchronized void addColumns() {
 		super.addColumns();
+		modCount++;
 		final int numIJColumns = super.getLastColumn() + 1;
 		while (numIJColumns != source.getColumnCount())
 			source.appendColumn();
@@ -84,6 +105,7 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	@Override
 	public void addValue(final int column, final double value) {
 		super.addValue(column, value);
+		modCount++;
 
 		// NB: In IJ String and double values are in separate data structures,
 		// so when String values are set the corresponding position in the double
@@ -98,18 +120,21 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	@SuppressWarnings("deprecation")
 	public void addLabel(final String columnHeading, final String label) {
 		super.addLabel(columnHeading, label);
+		modCount++;
 		source.setRowHeader(source.getRowCount() - 1, label);
 	}
 
 	@Override
 	public void setLabel(final String label, final int row) {
 		super.setLabel(label, row);
+		modCount++;
 		source.setRowHeader(row, label);
 	}
 
 	@Override
 	public void disableRowLabels() {
 		super.disableRowLabels();
+		modCount++;
 		if (source.getRowHeader(source.getRowCount() - 1).equals("Label")) {
 			for (int r = 0; r < source.getRowCount(); r++)
 				source.setRowHeader(r, null);
@@ -127,6 +152,7 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	@Override
 	public void setValue(final int column, final int row, final double value) {
 		super.setValue(column, row, value);
+		modCount++;
 
 		// NB: In IJ String and double values are in separate data structures,
 		// so when String values are set the corresponding position in the double
@@ -140,6 +166,7 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	@Override
 	public void setValue(final int column, final int row, final String value) {
 		super.setValue(column, row, value);
+		modCount++;
 		createMissingColumns(column);
 		setStringValue(column, row, value);
 	}
@@ -148,6 +175,7 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	@SuppressWarnings("deprecation")
 	public void setHeading(final int column, final String heading) {
 		super.setHeading(column, heading);
+		modCount++;
 		createMissingColumns(column);
 		source.setColumnHeader(column, heading);
 	}
@@ -165,39 +193,61 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	@Override
 	public synchronized void deleteRow(final int rowIndex) {
 		super.deleteRow(rowIndex);
+		modCount++;
 		source.removeRow(rowIndex);
+		// NB: the source shifted its rows in the same way
+		if (rowIndex < syncedRows) syncedRows--;
 	}
 
 	@Override
 	public void deleteColumn(final String column) {
 		super.deleteColumn(column);
+		modCount++;
 		source.removeColumn(column);
 	}
 
 	@Override
 	public void renameColumn(final String oldName, final String newName) {
 		super.renameColumn(oldName, newName);
+		modCount++;
 		source.get(oldName).setHeader(newName);
 	}
 
 	@Override
 	public synchronized void reset() {
 		super.reset();
+		modCount++;
 		source.clear();
+		syncedRows = 0;
 	}
 
 	@Override
 	public void update(final int measurements, final ImagePlus imp,
 		final Roi roi)
 	{
+		final int lastColumn = getLastColumn();
+		final String[] headings = getHeadings();
 		super.update(measurements, imp, roi);
-		synchronizeToIJTable();
+		// NB: updating may add or remove columns directly, bypassing the methods
+		// which pass changes on to the source. If it did, every row needs to be
+		// copied. Otherwise only rows which were not synchronized yet differ.
+		if (lastColumn != getLastColumn() || //
+			!Arrays.equals(headings, getHeadings()))
+		{
+			modCount++;
+			synchronizeColumns();
+			synchronizeToIJTable(0);
+		}
+		else synchronizeToIJTable(syncedRows);
 	}
 
 	@Override
 	public boolean applyMacro(final String macro) {
 		final boolean applyMacro = super.applyMacro(macro);
-		synchronizeToIJTable();
+		// NB: the macro may have modified any row, and may have added columns
+		modCount++;
+		synchronizeColumns();
+		synchronizeToIJTable(0);
 		return applyMacro;
 	}
 
@@ -209,8 +259,22 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	 */
 	@SuppressWarnings("deprecation")
 	private void synchronizeToImageJTable() {
+		final int rowCount = source.getRowCount();
 		for (int c = 0; c < source.getColumnCount(); c++) {
-			for (int r = 0; r < source.getRowCount(); r++) {
+			// NB: copy primitive columns directly, without boxing each value
+			if (source instanceof DoubleTable) {
+				final double[] values = ((DoubleTable) source).get(c).getArray();
+				for (int r = 0; r < rowCount; r++)
+					super.setValue(c, r, values[r]);
+				continue;
+			}
+			if (source instanceof FloatTable) {
+				final float[] values = ((FloatTable) source).get(c).getArray();
+				for (int r = 0; r < rowCount; r++)
+					super.setValue(c, r, values[r]);
+				continue;
+			}
+			for (int r = 0; r < rowCount; r++) {
 				final Object value = source.get(c, r);
 				if (value instanceof Number) super.setValue(c, r, ((Number) value)
 					.doubleValue());
@@ -224,16 +288,39 @@ public class TableWrapper extends ij.measure.ResultsTable {
 		// does not allow null headings
 		for (int i = 0; i < source.getColumnCount(); i++)
 			super.setHeading(i, source.getColumnHeader(i));
+		markSynchronized();
 	}
 
 	/**
 	 * Synchronizes the backing {@link Table} to be the same as this
-	 * {@link ij.measure.ResultsTable}.
+	 * {@link ij.measure.ResultsTable}, from the given row on.
+	 *
+	 * @param firstRow the first row which may differ from the source
 	 */
-	private void synchronizeToIJTable() {
+	private void synchronizeToIJTable(final int firstRow) {
+		final int rowCount = size();
+		if (firstRow >= rowCount && modCount == syncedModCount) {
+			// nothing changed since the last synchronization
+			return;
+		}
 		for (int c = 0; c <= getLastColumn(); c++) {
-			for (int r = 0; r < size(); r++) {
-				if (checkString(c, r)) {
+			// NB: primitive columns cannot hold Strings, so copy the numbers
+			if (source instanceof DoubleTable && c < source.getColumnCount()) {
+				final DoubleColumn column = ((DoubleTable) source).get(c);
+				for (int r = firstRow; r < rowCount; r++)
+					column.setValue(r, getValueAsDouble(c, r));
+				column.setHeader(getColumnHeading(c));
+				continue;
+			}
+			if (source instanceof FloatTable && c < source.getColumnCount()) {
+				final FloatColumn column = ((FloatTable) source).get(c);
+				for (int r = firstRow; r < rowCount; r++)
+					column.setValue(r, (float) getValueAsDouble(c, r));
+				column.setHeader(getColumnHeading(c));
+				continue;
+			}
+			for (int r = firstRow; r < rowCount; r++) {
+				if (checkString(r, c)) {
 					setStringValue(c, r, getStringValue(c, r));
 				}
 				else {
@@ -244,6 +331,24 @@ public class TableWrapper extends ij.measure.ResultsTable {
 
 		for (int i = 0; i < source.getColumnCount(); i++)
 			source.setColumnHeader(i, getColumnHeading(i));
+		markSynchronized();
+	}
+
+	/**
+	 * Makes the backing {@link Table} have as many columns as this
+	 * {@link ij.measure.ResultsTable}. Values and headings are copied by
+	 * {@link #synchronizeToIJTable(int)}.
+	 */
+	private void synchronizeColumns() {
+		final int columnCount = getLastColumn() + 1;
+		while (source.getColumnCount() > columnCount)
+			source.removeColumn(source.getColumnCount() - 1);
+		createMissingColumns(columnCount - 1);
+	}
+
+	private void markSynchronized() {
+		syncedRows = size();
+		syncedModCount = modCount;
 	}
 
 	/**
@@ -348,35 +453,7 @@ public class TableWrapper extends ij.measure.ResultsTable {
 	 *         false
 	 */
 	private boolean checkString(final int row, final int col) {
-		final double d = getValueAsDouble(col, row);
-		final String s = getStringValue(col, row);
-
-		// convert d to a string, as ResultsTable would
-		String c = "";
-		try {
-			final Field f = ij.measure.ResultsTable.class.getDeclaredField(
-				"decimalPlaces");
-			f.setAccessible(true);
-			final short[] dec = (short[]) f.get(this);
-			final short places = dec[col];
-			if (places == Short.MIN_VALUE) {
-				final Method m = super.getClass().getDeclaredMethod("n", double.class);
-				m.setAccessible(true);
-				c = (String) m.invoke(this, d);
-			}
-			else {
-				c = ResultsTable.d2s(d, dec[col]);
-			}
-		}
-		catch (final Exception exc) {
-			// if can't get the decimal places or n(...), call d2s with AUTO_FORMAT
-			c = ResultsTable.d2s(d, ij.measure.ResultsTable.AUTO_FORMAT);
-		}
-
-		// Special case for NaN
-		if (((Double) d).isNaN() && (s == "" || s == null)) return false;
-
-		return !s.equals(c);
+		return ResultsTables.isString(this, col, row);
 	}
 
 	/**
@@ -48,6 +48,8 @@ public abstract class AbstractPolygonRoiWrapper implements
 
 	private final PolygonRoi poly;
 
+	private volatile RoiVertices vertices;
+
 	/**
 	 * Creates an ImageJ 1.x {@link PolygonRoi} and wraps it as an ImgLib2
 	 * {@link Polygon2D} or {@link Polyline}.
@@ -112,12 +114,7 @@ public abstract class AbstractPolygonRoiWrapper implements
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
 		// NB: bounding box doesn't update after vertex removed
-		final float[] c = d == 0 ? poly.getFloatPolygon().xpoints : poly
-			.getFloatPolygon().ypoints;
-		double min = Double.POSITIVE_INFINITY;
-		for (int i = 0; i < numVertices(); i++)
-			if (c[i] < min) min = c[i];
-		return min;
+		return intactVertices().min(d);
 	}
 
 	@Override
@@ -125,12 +122,7 @@ public abstract class AbstractPolygonRoiWrapper implements
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
 		// NB: bounding box doesn't update after vertex removed
-		final float[] c = d == 0 ? poly.getFloatPolygon().xpoints : poly
-			.getFloatPolygon().ypoints;
-		double max = Double.NEGATIVE_INFINITY;
-		for (int i = 0; i < numVertices(); i++)
-			if (c[i] > max) max = c[i];
-		return max;
+		return intactVertices().max(d);
 	}
 
 	public int numVertices() {
@@ -147,4 +139,36 @@ public abstract class AbstractPolygonRoiWrapper implements
 		return 2;
 	}
 
+	// -- Internal methods --
+
+	/**
+	 * Gets the indexed vertices of the wrapped {@link PolygonRoi}. The snapshot
+	 * is retaken whenever the {@code PolygonRoi} has been modified, as far as
+	 * {@link RoiVertices#isCurrent} can tell in constant time.
+	 */
+	protected RoiVertices vertices() {
+		RoiVertices v = vertices;
+		if (v == null || !v.isCurrent(poly)) vertices = v = createVertices(poly);
+		return v;
+	}
+
+	/**
+	 * Gets the indexed vertices of the wrapped {@link PolygonRoi}, like
+	 * {@link #vertices()}, but also retakes the snapshot if vertices were moved
+	 * in place. This reads all vertices.
+	 */
+	protected RoiVertices intactVertices() {
+		RoiVertices v = vertices;
+		if (v == null || !v.isIntact(poly)) vertices = v = createVertices(poly);
+		return v;
+	}
+
+	/**
+	 * Indexes the vertices of the given {@link PolygonRoi}. By default, the
+	 * vertices are indexed as a closed polygon.
+	 */
+	protected RoiVertices createVertices(final PolygonRoi roi) {
+		return RoiVertices.polygon(roi);
+	}
+
 }
@@ -30,13 +30,22 @@
 package net.imagej.legacy.convert.roi;
 
 import ij.gui.Roi;
+import ij.process.ImageProcessor;
 
 import java.awt.Rectangle;
 
+import net.imglib2.Cursor;
 import net.imglib2.Localizable;
 import net.imglib2.Positionable;
 import net.imglib2.RealPositionable;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.basictypearray.LongArray;
+import net.imglib2.roi.IterableRegion;
 import net.imglib2.roi.MaskInterval;
+import net.imglib2.roi.Regions;
+import net.imglib2.type.logic.BitType;
+import net.imglib2.view.Views;
 
 /**
  * Wraps any {@link Roi} as a {@link MaskInterval}. The {@code test(...)} method
@@ -52,6 +61,10 @@ public class DefaultRoiWrapper<R extends Roi> implements
 
 	private final R roi;
 
+	private volatile Bounds bounds;
+
+	private volatile MaskRegion maskRegion;
+
 	/**
 	 * Creates a {@link MaskInterval} which wraps the given {@link Roi}.
 	 *
@@ -75,7 +88,8 @@ public class DefaultRoiWrapper<R extends Roi> implements
 	public long min(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
-		return d == 0 ? roi.getBounds().x : roi.getBounds().y;
+		final Bounds b = bounds();
+		return d == 0 ? b.x : b.y;
 	}
 
 	@Override
@@ -94,8 +108,8 @@ public class DefaultRoiWrapper<R extends Roi> implements
 	public long max(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
-		final Rectangle r = roi.getBounds();
-		return d == 0 ? r.x + r.width : r.y + r.height;
+		final Bounds b = bounds();
+		return d == 0 ? b.x + b.width : b.y + b.height;
 	}
 
 	@Override
@@ -114,7 +128,8 @@ public class DefaultRoiWrapper<R extends Roi> implements
 	public double realMin(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
-		return d == 0 ? roi.getXBase() : roi.getYBase();
+		final Bounds b = bounds();
+		return d == 0 ? b.realX : b.realY;
 	}
 
 	@Override
@@ -133,8 +148,8 @@ public class DefaultRoiWrapper<R extends Roi> implements
 	public double realMax(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
-		return d == 0 ? roi.getXBase() + roi.getFloatWidth() : roi.getYBase() + roi
-			.getFloatHeight();
+		final Bounds b = bounds();
+		return d == 0 ? b.realX + b.realWidth : b.realY + b.realHeight;
 	}
 
 	@Override
@@ -159,7 +174,8 @@ public class DefaultRoiWrapper<R extends Roi> implements
 	public long dimension(final int d) {
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
-		return d == 0 ? roi.getBounds().width : roi.getBounds().height;
+		final Bounds b = bounds();
+		return d == 0 ? b.width : b.height;
 	}
 
 	@Override
@@ -167,4 +183,110 @@ public class DefaultRoiWrapper<R extends Roi> implements
 		return roi;
 	}
 
+	// -- DefaultRoiWrapper methods --
+
+	/**
+	 * Gets the pixels of the wrapped {@link Roi} as an {@link IterableRegion},
+	 * rasterized from {@link Roi#getMask()}. Unlike {@link #test(Localizable)},
+	 * iterating or sampling the region does not call back into the ROI, so it is
+	 * much faster for sampling all pixels of an image within the ROI.
+	 * <p>
+	 * The bitmap is cached, and rasterized again when the ROI's bounds, number of
+	 * vertices or vertex coordinates change. Checking the coordinates reads all
+	 * vertices of the ROI, which is still much cheaper than rasterizing it.
+	 * </p>
+	 *
+	 * @return the rasterized ROI, positioned at the ROI's bounds
+	 */
+	public IterableRegion<BitType> getMaskRegion() {
+		final Bounds b = bounds();
+		final int n = roi.getNCoordinates();
+		final long checksum = RoiVertices.checksum(roi);
+		MaskRegion m = maskRegion;
+		if (m == null || m.bounds != b || m.nCoordinates != n ||
+			m.checksum != checksum)
+		{
+			maskRegion = m = new MaskRegion(b, n, checksum, rasterize(b));
+		}
+		return m.region;
+	}
+
+	// -- Helper methods --
+
+	/** Gets the bounds of the ROI, computing them only if the ROI changed. */
+	private Bounds bounds() {
+		Bounds b = bounds;
+		if (b == null || !b.isCurrent(roi)) bounds = b = new Bounds(roi);
+		return b;
+	}
+
+	private IterableRegion<BitType> rasterize(final Bounds b) {
+		final ImageProcessor mask = roi.getMask();
+		final int w = mask == null ? (int) b.width : mask.getWidth();
+		final int h = mask == null ? (int) b.height : mask.getHeight();
+		final ArrayImg<BitType, LongArray> img = ArrayImgs.bits(w, h);
+		final Cursor<BitType> c = img.cursor();
+		if (mask == null) {
+			// NB: rectangular ROIs have no mask
+			while (c.hasNext())
+				c.next().set(true);
+		}
+		else {
+			final byte[] pixels = (byte[]) mask.getPixels();
+			for (int i = 0; c.hasNext(); i++)
+				c.next().set(pixels[i] != 0);
+		}
+		return Regions.iterable(Views.translate(img, b.x, b.y));
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * Integer and real bounds of a {@link Roi}, stamped with the real bounds
+	 * they were computed from.
+	 */
+	private static final class Bounds {
+
+		private final double realX, realY, realWidth, realHeight;
+		private final long x, y, width, height;
+
+		private Bounds(final Roi roi) {
+			realX = roi.getXBase();
+			realY = roi.getYBase();
+			realWidth = roi.getFloatWidth();
+			realHeight = roi.getFloatHeight();
+			final Rectangle r = roi.getBounds();
+			x = r.x;
+			y = r.y;
+			width = r.width;
+			height = r.height;
+		}
+
+		private boolean isCurrent(final Roi roi) {
+			return realX == roi.getXBase() && realY == roi.getYBase() && //
+				realWidth == roi.getFloatWidth() && realHeight == roi.getFloatHeight();
+		}
+	}
+
+	/**
+	 * A rasterized {@link Roi}, with the bounds and vertices it was rasterized
+	 * at.
+	 */
+	private static final class MaskRegion {
+
+		private final Bounds bounds;
+		private final int nCoordinates;
+		private final long checksum;
+		private final IterableRegion<BitType> region;
+
+		private MaskRegion(final Bounds bounds, final int nCoordinates,
+			final long checksum, final IterableRegion<BitType> region)
+		{
+			this.bounds = bounds;
+			this.nCoordinates = nCoordinates;
+			this.checksum = checksum;
+			this.region = region;
+		}
+	}
+
 }
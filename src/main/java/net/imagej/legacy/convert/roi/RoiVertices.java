@@ -0,0 +1,455 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import ij.ImagePlus;
+import ij.gui.PointRoi;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+import ij.process.FloatPolygon;
+
+import java.lang.reflect.Field;
+
+import net.imglib2.RealLocalizable;
+import net.imglib2.roi.geom.GeomMaths;
+
+import gnu.trove.set.hash.TLongHashSet;
+
+/**
+ * An immutable snapshot of the vertices of an ImageJ 1.x {@link PolygonRoi},
+ * indexed for fast hit-testing.
+ * <p>
+ * Obtaining the vertices of a {@code PolygonRoi} allocates new arrays on every
+ * call, which made each {@code test} of the ROI wrappers allocate and scan the
+ * full vertex list. A snapshot is taken once per ROI modification instead:
+ * wrappers keep the snapshot as long as {@link #isCurrent(Roi)} holds, which
+ * compares the vertex count, location, size, (if any) image position and
+ * vertex arrays of the ROI at snapshot time in constant time. Vertices moved
+ * in place, within the bounds, are only detected by {@link #isIntact(Roi)},
+ * which also compares a checksum of the vertex coordinates.
+ * </p>
+ * <p>
+ * Edges are bucketed by their y extent into a uniform grid of horizontal
+ * strips, so that testing a point only visits the edges overlapping its strip.
+ * The per-edge tests are the same as those of {@link GeomMaths}, so results are
+ * identical to testing all edges.
+ * </p>
+ */
+public final class RoiVertices {
+
+	/** Target number of edges per strip. */
+	private static final int EDGES_PER_STRIP = 4;
+
+	/** Maximum number of strips. */
+	private static final int MAX_STRIPS = 4096;
+
+	/** Maximum average number of strips spanned by each edge. */
+	private static final int MAX_SPAN = 16;
+
+	// NB: the vertex arrays of a PolygonRoi, read without copying them
+	private static final Field XP = field("xp"), YP = field("yp");
+	private static final Field XPF = field("xpf"), YPF = field("ypf");
+
+	private final float[] x, y;
+	private final int n;
+	private final double minX, minY, maxX, maxY;
+
+	// -- Modification stamp --
+
+	private final int stampCount;
+	private final double stampX, stampY, stampWidth, stampHeight;
+	private final int stampPosition;
+	private final Object stampXs, stampYs;
+	private final long stampChecksum;
+
+	// -- Edge grid --
+
+	/** Number of horizontal strips. */
+	private final int strips;
+
+	/** Height of each strip. */
+	private final double stripHeight;
+
+	/** Offsets of each strip's edges into {@link #stripEdges}. */
+	private final int[] stripStart;
+
+	/** Start vertex of each edge, grouped by strip. */
+	private final int[] stripEdges;
+
+	/** Exact point coordinates, for point collections. */
+	private final TLongHashSet points;
+
+	private RoiVertices(final Roi roi, final FloatPolygon fp, final int n,
+		final int edges, final double margin, final boolean indexPoints)
+	{
+		this.n = n;
+		x = fp.xpoints;
+		y = fp.ypoints;
+
+		double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+		double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			if (x[i] < x0) x0 = x[i];
+			if (x[i] > x1) x1 = x[i];
+			if (y[i] < y0) y0 = y[i];
+			if (y[i] > y1) y1 = y[i];
+		}
+		minX = x0;
+		minY = y0;
+		maxX = x1;
+		maxY = y1;
+
+		stampCount = roi.getNCoordinates();
+		stampX = roi.getXBase();
+		stampY = roi.getYBase();
+		stampWidth = roi.getFloatWidth();
+		stampHeight = roi.getFloatHeight();
+		stampPosition = position(roi);
+		stampXs = vertexArray(roi, XPF, XP);
+		stampYs = vertexArray(roi, YPF, YP);
+		stampChecksum = checksum(roi);
+
+		if (indexPoints) {
+			points = new TLongHashSet(n);
+			for (int i = 0; i < n; i++)
+				points.add(key(x[i], y[i]));
+			strips = 0;
+			stripHeight = 0;
+			stripStart = null;
+			stripEdges = null;
+			return;
+		}
+		points = null;
+
+		// choose the number of strips, halving it when edges span too many
+		int s = maxY > minY ? Math.max(1, Math.min(MAX_STRIPS, edges /
+			EDGES_PER_STRIP)) : 1;
+		int[] counts;
+		while (true) {
+			counts = new int[s + 1];
+			final double h = (maxY - minY) / s;
+			long total = 0;
+			for (int e = 0; e < edges; e++) {
+				final int lo = strip(lowY(e) - margin, s, h);
+				final int hi = strip(highY(e) + margin, s, h);
+				for (int b = lo; b <= hi; b++)
+					counts[b + 1]++;
+				total += hi - lo + 1;
+			}
+			if (s == 1 || total <= (long) MAX_SPAN * edges) break;
+			s /= 2;
+		}
+		strips = s;
+		stripHeight = (maxY - minY) / s;
+
+		for (int b = 0; b < s; b++)
+			counts[b + 1] += counts[b];
+		stripStart = counts;
+		stripEdges = new int[counts[s]];
+		final int[] fill = new int[s];
+		for (int e = 0; e < edges; e++) {
+			final int lo = strip(lowY(e) - margin, s, stripHeight);
+			final int hi = strip(highY(e) + margin, s, stripHeight);
+			for (int b = lo; b <= hi; b++)
+				stripEdges[stripStart[b] + fill[b]++] = e;
+		}
+	}
+
+	// -- Factory methods --
+
+	/**
+	 * Takes a snapshot of the given ROI's vertices as a closed polygon.
+	 *
+	 * @param roi the ROI whose vertices are indexed
+	 * @return the indexed vertices
+	 */
+	public static RoiVertices polygon(final PolygonRoi roi) {
+		final int n = roi.getNCoordinates();
+		return new RoiVertices(roi, roi.getFloatPolygon(), n, n, 0, false);
+	}
+
+	/**
+	 * Takes a snapshot of the given ROI's vertices as an open polyline.
+	 *
+	 * @param roi the ROI whose vertices are indexed
+	 * @return the indexed vertices
+	 */
+	public static RoiVertices polyline(final PolygonRoi roi) {
+		final int n = roi.getNCoordinates();
+		final FloatPolygon fp = roi.getFloatPolygon();
+		// NB: GeomMaths.lineContains tolerates tiny deviations from the line
+		double extent = 1;
+		for (int i = 0; i < n; i++)
+			extent = Math.max(extent, Math.abs(fp.ypoints[i]));
+		return new RoiVertices(roi, fp, n, Math.max(0, n - 1), 1e-6 * extent,
+			false);
+	}
+
+	/**
+	 * Takes a snapshot of the points of the given ROI which are contained in its
+	 * current image position.
+	 *
+	 * @param roi the ROI whose points are indexed
+	 * @return the indexed points
+	 */
+	public static RoiVertices points(final PointRoi roi) {
+		final FloatPolygon fp = roi.getContainedFloatPoints();
+		return new RoiVertices(roi, fp, fp.npoints, 0, 0, true);
+	}
+
+	// -- RoiVertices methods --
+
+	/**
+	 * Checks whether this snapshot still reflects the given ROI, in constant
+	 * time. This is the case as long as the ROI's vertex count, location, size,
+	 * image position and vertex arrays are unchanged. A vertex moved in place,
+	 * within the bounds, is not detected; see {@link #isIntact(Roi)}.
+	 *
+	 * @param roi the ROI this snapshot was taken from
+	 * @return true iff the ROI appears unmodified since the snapshot
+	 */
+	public boolean isCurrent(final Roi roi) {
+		return stampCount == roi.getNCoordinates() && //
+			stampX == roi.getXBase() && stampY == roi.getYBase() && //
+			stampWidth == roi.getFloatWidth() && //
+			stampHeight == roi.getFloatHeight() && //
+			stampPosition == position(roi) && //
+			stampXs == vertexArray(roi, XPF, XP) && //
+			stampYs == vertexArray(roi, YPF, YP);
+	}
+
+	/**
+	 * Checks whether this snapshot still reflects the given ROI, like
+	 * {@link #isCurrent(Roi)}, and whether its vertex checksum is unchanged.
+	 * Vertices moved within the bounds are thus detected, too, at the cost of
+	 * reading all vertices.
+	 *
+	 * @param roi the ROI this snapshot was taken from
+	 * @return true iff the ROI is unmodified since the snapshot
+	 */
+	public boolean isIntact(final Roi roi) {
+		return isCurrent(roi) && stampChecksum == checksum(roi);
+	}
+
+	/** Gets the number of vertices. */
+	public int size() {
+		return n;
+	}
+
+	/** Gets the x coordinate of the given vertex. */
+	public double x(final int i) {
+		return x[i];
+	}
+
+	/** Gets the y coordinate of the given vertex. */
+	public double y(final int i) {
+		return y[i];
+	}
+
+	/**
+	 * Gets the minimum vertex coordinate in the given dimension.
+	 *
+	 * @param d dimension, 0 or 1
+	 */
+	public double min(final int d) {
+		return d == 0 ? minX : minY;
+	}
+
+	/**
+	 * Gets the maximum vertex coordinate in the given dimension.
+	 *
+	 * @param d dimension, 0 or 1
+	 */
+	public double max(final int d) {
+		return d == 0 ? maxX : maxY;
+	}
+
+	/**
+	 * Tests whether the given point is inside the polygon, using the same
+	 * "pnpoly" algorithm as {@link GeomMaths#pnpoly}.
+	 *
+	 * @param t the point to test
+	 * @return true iff the point is inside
+	 */
+	public boolean polygonContains(final RealLocalizable t) {
+		final double xl = t.getDoublePosition(0);
+		final double yl = t.getDoublePosition(1);
+		// NB: no edge can cross the horizontal ray outside the y extent
+		if (!(yl >= minY && yl < maxY) || xl < minX || xl > maxX) return false;
+
+		final int b = strip(yl, strips, stripHeight);
+		boolean inside = false;
+		for (int k = stripStart[b]; k < stripStart[b + 1]; k++) {
+			final int j = stripEdges[k];
+			final int i = j + 1 == n ? 0 : j + 1;
+			final double xi = x[i], yi = y[i], xj = x[j], yj = y[j];
+			if ((yi > yl) != (yj > yl) && //
+				xl < (xj - xi) * (yl - yi) / (yj - yi) + xi) inside = !inside;
+		}
+		return inside;
+	}
+
+	/**
+	 * Tests whether the given point lies on any segment of the polyline, using
+	 * {@link GeomMaths#lineContains}.
+	 *
+	 * @param t the point to test
+	 * @return true iff the point is on the polyline
+	 */
+	public boolean polylineContains(final RealLocalizable t) {
+		final double xl = t.getDoublePosition(0);
+		final double yl = t.getDoublePosition(1);
+		if (!(xl >= minX && xl <= maxX && yl >= minY && yl <= maxY)) return false;
+
+		final int b = strip(yl, strips, stripHeight);
+		final double[] start = new double[2];
+		final double[] end = new double[2];
+		for (int k = stripStart[b]; k < stripStart[b + 1]; k++) {
+			final int i = stripEdges[k];
+			start[0] = x[i];
+			start[1] = y[i];
+			end[0] = x[i + 1];
+			end[1] = y[i + 1];
+			if (GeomMaths.lineContains(start, end, t, 2)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Tests whether the given point exactly matches one of the points.
+	 *
+	 * @param t the point to test
+	 * @return true iff there is a point with exactly the same coordinates, at
+	 *         {@code float} precision
+	 */
+	public boolean pointsContain(final RealLocalizable t) {
+		final float xt = t.getFloatPosition(0);
+		final float yt = t.getFloatPosition(1);
+		if (Float.isNaN(xt) || Float.isNaN(yt)) return false;
+		return points.contains(key(xt, yt));
+	}
+
+	// -- Helper methods --
+
+	private double lowY(final int e) {
+		return Math.min(y[e], y[e + 1 == n ? 0 : e + 1]);
+	}
+
+	private double highY(final int e) {
+		return Math.max(y[e], y[e + 1 == n ? 0 : e + 1]);
+	}
+
+	/** NB: Monotonic in {@code yl}, so edges and points agree on strips. */
+	private int strip(final double yl, final int s, final double h) {
+		if (s == 1) return 0;
+		final int b = (int) ((yl - minY) / h);
+		return b < 0 ? 0 : b >= s ? s - 1 : b;
+	}
+
+	private static long key(final float xp, final float yp) {
+		// NB: adding 0 maps -0 to +0, since -0 == +0 for float comparison
+		return ((long) Float.floatToIntBits(xp + 0f) << 32) | //
+			(Float.floatToIntBits(yp + 0f) & 0xffffffffL);
+	}
+
+	private static int position(final Roi roi) {
+		final ImagePlus imp = roi.getImage();
+		return imp == null ? 0 : imp.getCurrentSlice();
+	}
+
+	/**
+	 * Gets a coordinate array of the given ROI, without copying it: the
+	 * {@code float} one if the {@link PolygonRoi} has subpixel coordinates,
+	 * else the {@code int} one.
+	 *
+	 * @return the array, or null if it cannot be read
+	 */
+	private static Object vertexArray(final Roi roi, final Field floats,
+		final Field ints)
+	{
+		if (!(roi instanceof PolygonRoi)) return null;
+		try {
+			final Object array = floats == null ? null : floats.get(roi);
+			if (array != null) return array;
+			return ints == null ? null : ints.get(roi);
+		}
+		catch (final IllegalAccessException exc) {
+			return null;
+		}
+	}
+
+	/**
+	 * Computes a checksum of the vertex coordinates of the given ROI. The
+	 * coordinate arrays of a {@link PolygonRoi} are read in place where
+	 * possible, rather than copied by {@link Roi#getFloatPolygon()}.
+	 */
+	static long checksum(final Roi roi) {
+		final int count = roi.getNCoordinates();
+		final Object xs = vertexArray(roi, XPF, XP);
+		final Object ys = vertexArray(roi, YPF, YP);
+		if (xs instanceof float[] && ys instanceof float[]) {
+			return checksum((float[]) xs, (float[]) ys, count);
+		}
+		if (xs instanceof int[] && ys instanceof int[]) {
+			final int[] xp = (int[]) xs, yp = (int[]) ys;
+			long sum = 1;
+			final int size = Math.min(count, Math.min(xp.length, yp.length));
+			for (int i = 0; i < size; i++)
+				sum = 31 * (31 * sum + xp[i]) + yp[i];
+			return sum;
+		}
+		// fall back to the copied coordinates
+		final FloatPolygon fp = roi.getFloatPolygon();
+		return fp == null ? 0 : checksum(fp.xpoints, fp.ypoints, fp.npoints);
+	}
+
+	private static long checksum(final float[] xs, final float[] ys,
+		final int count)
+	{
+		long sum = 1;
+		final int size = Math.min(count, Math.min(xs.length, ys.length));
+		for (int i = 0; i < size; i++)
+			sum = 31 * (31 * sum + Float.floatToIntBits(xs[i])) + //
+				Float.floatToIntBits(ys[i]);
+		return sum;
+	}
+
+	private static Field field(final String name) {
+		try {
+			final Field f = PolygonRoi.class.getDeclaredField(name);
+			f.setAccessible(true);
+			return f;
+		}
+		catch (final Exception exc) {
+			return null;
+		}
+	}
+
+}
@@ -53,6 +53,9 @@ public class ShapeRoiWrapper implements IJRealRoiWrapper<ShapeRoi> {
 		// The backing shape is stored with its upper left corner at (0, 0)
 		final double x = t.getDoublePosition(0) - shape.getXBase();
 		final double y = t.getDoublePosition(1) - shape.getYBase();
+		// NB: Reject points outside the bounds before walking the shape's path
+		if (!(x >= 0 && y >= 0 && x <= shape.getFloatWidth() && y <= shape
+			.getFloatHeight())) return false;
 		return shape.getShape().contains(x, y);
 	}
 
@@ -38,6 +38,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import net.imagej.legacy.convert.roi.IJRealRoiWrapper;
+import net.imagej.legacy.convert.roi.RoiVertices;
 import net.imagej.legacy.convert.roi.Rois;
 import net.imglib2.AbstractRealLocalizable;
 import net.imglib2.RealLocalizable;
@@ -56,6 +57,8 @@ public class PointRoiWrapper implements IJRealRoiWrapper<PointRoi>,
 
 	private final PointRoi points;
 
+	private volatile RoiVertices vertices;
+
 	/**
 	 * Creates an ImageJ 1.x {@link PointRoi} and wraps it as an ImgLib2
 	 * {@link RealPointCollection}.
@@ -151,15 +154,7 @@ public class PointRoiWrapper implements IJRealRoiWrapper<PointRoi>,
 	public boolean test(final RealLocalizable t) {
 		// NB: ImageJ 1.x contains(...) is not used due to the limitations of
 		// integer coordinates.
-		final float xt = t.getFloatPosition(0);
-		final float yt = t.getFloatPosition(1);
-		final float[] x = points.getContainedFloatPoints().xpoints;
-		final float[] y = points.getContainedFloatPoints().ypoints;
-		final int numPoints = points.getNCoordinates();
-
-		for (int i = 0; i < numPoints; i++)
-			if (xt == x[i] && yt == y[i]) return true;
-		return false;
+		return vertices().pointsContain(t);
 	}
 
 	@Override
@@ -167,20 +162,7 @@ public class PointRoiWrapper implements IJRealRoiWrapper<PointRoi>,
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
 
-		final int numPoints = points.getNCoordinates();
-		double min = Double.POSITIVE_INFINITY;
-
-		if (d == 0) {
-			final float[] x = points.getContainedFloatPoints().xpoints;
-			for (int i = 0; i < numPoints; i++)
-				if (x[i] < min) min = x[i];
-			return min;
-		}
-
-		final float[] y = points.getContainedFloatPoints().ypoints;
-		for (int i = 0; i < numPoints; i++)
-			if (y[i] < min) min = y[i];
-		return min;
+		return intactVertices().min(d);
 	}
 
 	@Override
@@ -188,31 +170,16 @@ public class PointRoiWrapper implements IJRealRoiWrapper<PointRoi>,
 		if (d != 0 && d != 1) throw new IllegalArgumentException(
 			"Invalid dimension " + d);
 
-		final int numPoints = points.getNCoordinates();
-		double max = Double.NEGATIVE_INFINITY;
-
-		if (d == 0) {
-			final float[] x = points.getContainedFloatPoints().xpoints;
-			for (int i = 0; i < numPoints; i++)
-				if (x[i] > max) max = x[i];
-			return max;
-		}
-
-		final float[] y = points.getContainedFloatPoints().ypoints;
-		for (int i = 0; i < numPoints; i++)
-			if (y[i] > max) max = y[i];
-		return max;
+		return intactVertices().max(d);
 	}
 
 	@Override
 	public Iterable<RealLocalizable> points() {
 		final List<RealLocalizable> pts = new ArrayList<>();
-		final float[] x = points.getContainedFloatPoints().xpoints;
-		final float[] y = points.getContainedFloatPoints().ypoints;
-		final int numPoints = points.getNCoordinates();
+		final RoiVertices v = vertices();
 
-		for (int i = 0; i < numPoints; i++) {
-			pts.add(new AbstractRealLocalizable(new double[] { x[i], y[i] }) {});
+		for (int i = 0; i < v.size(); i++) {
+			pts.add(new AbstractRealLocalizable(new double[] { v.x(i), v.y(i) }) {});
 		}
 		return pts;
 	}
@@ -273,4 +240,30 @@ public class PointRoiWrapper implements IJRealRoiWrapper<PointRoi>,
 			RealPointCollection.equals(this, (RealPointCollection<?>) obj);
 	}
 
+	// -- Helper methods --
+
+	/**
+	 * Gets the indexed points of the wrapped {@link PointRoi}. The snapshot is
+	 * retaken whenever the {@code PointRoi} has been modified, as far as
+	 * {@link RoiVertices#isCurrent} can tell in constant time.
+	 */
+	private RoiVertices vertices() {
+		RoiVertices v = vertices;
+		if (v == null || !v.isCurrent(points)) vertices = v = RoiVertices.points(
+			points);
+		return v;
+	}
+
+	/**
+	 * Gets the indexed points of the wrapped {@link PointRoi}, like
+	 * {@link #vertices()}, but also retakes the snapshot if points were moved in
+	 * place. This reads all points.
+	 */
+	private RoiVertices intactVertices() {
+		RoiVertices v = vertices;
+		if (v == null || !v.isIntact(points)) vertices = v = RoiVertices.points(
+			points);
+		return v;
+	}
+
 }
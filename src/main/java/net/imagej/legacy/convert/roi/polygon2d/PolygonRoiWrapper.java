@@ -32,21 +32,18 @@ package net.imagej.legacy.convert.roi.polygon2d;
 import ij.ImagePlus;
 import ij.gui.PolygonRoi;
 import ij.gui.Roi;
-import ij.process.FloatPolygon;
 
 import java.util.Collection;
 
 import net.imagej.legacy.convert.roi.AbstractPolygonRoiWrapper;
+import net.imagej.legacy.convert.roi.RoiVertices;
 import net.imagej.legacy.convert.roi.Rois;
 import net.imglib2.RealLocalizable;
-import net.imglib2.roi.geom.GeomMaths;
 import net.imglib2.roi.geom.real.Polygon2D;
 import net.imglib2.roi.geom.real.Polyshape;
 import net.imglib2.roi.geom.real.WritablePolygon2D;
 import net.imglib2.roi.util.RealLocalizableRealPositionable;
 
-import gnu.trove.list.array.TDoubleArrayList;
-
 /**
  * Wraps an ImageJ 1.x {@link PolygonRoi} as an ImgLib2 {@link Polygon2D}.
  *
@@ -120,23 +117,13 @@ public class PolygonRoiWrapper extends AbstractPolygonRoiWrapper implements
 	 */
 	@Override
 	public boolean test(final RealLocalizable t) {
-		final float[] xf = getRoi().getFloatPolygon().xpoints;
-		final float[] yf = getRoi().getFloatPolygon().ypoints;
-		final TDoubleArrayList x = new TDoubleArrayList(getRoi().getNCoordinates());
-		final TDoubleArrayList y = new TDoubleArrayList(getRoi().getNCoordinates());
-
-		for (int i = 0; i < getRoi().getNCoordinates(); i++) {
-			x.add(xf[i]);
-			y.add(yf[i]);
-		}
-
-		return GeomMaths.pnpoly(x, y, t);
+		return vertices().polygonContains(t);
 	}
 
 	@Override
 	public RealLocalizableRealPositionable vertex(final int pos) {
-		final FloatPolygon fp = getRoi().getFloatPolygon();
-		return Rois.ijRoiPoint(fp.xpoints[pos], fp.ypoints[pos]);
+		final RoiVertices v = vertices();
+		return Rois.ijRoiPoint(v.x(pos), v.y(pos));
 	}
 
 	/**
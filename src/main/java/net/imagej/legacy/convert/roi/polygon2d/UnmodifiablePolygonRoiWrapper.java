@@ -31,17 +31,14 @@ package net.imagej.legacy.convert.roi.polygon2d;
 
 import ij.gui.PolygonRoi;
 import ij.gui.Roi;
-import ij.process.FloatPolygon;
 
 import net.imagej.legacy.convert.roi.AbstractPolygonRoiWrapper;
+import net.imagej.legacy.convert.roi.RoiVertices;
 import net.imglib2.AbstractRealLocalizable;
 import net.imglib2.RealLocalizable;
-import net.imglib2.roi.geom.GeomMaths;
 import net.imglib2.roi.geom.real.Polygon2D;
 import net.imglib2.roi.geom.real.Polyshape;
 
-import gnu.trove.list.array.TDoubleArrayList;
-
 /**
  * Wraps an ImageJ 1.x {@link PolygonRoi} of type {@link Roi#FREEROI} or
  * {@link Roi#TRACED_ROI} as an unmodifiable ImgLib2 {@link Polygon2D}.
@@ -75,24 +72,13 @@ public class UnmodifiablePolygonRoiWrapper extends AbstractPolygonRoiWrapper
 	 */
 	@Override
 	public boolean test(final RealLocalizable t) {
-		final float[] xf = getRoi().getFloatPolygon().xpoints;
-		final float[] yf = getRoi().getFloatPolygon().ypoints;
-		final TDoubleArrayList x = new TDoubleArrayList(getRoi().getNCoordinates());
-		final TDoubleArrayList y = new TDoubleArrayList(getRoi().getNCoordinates());
-
-		for (int i = 0; i < getRoi().getNCoordinates(); i++) {
-			x.add(xf[i]);
-			y.add(yf[i]);
-		}
-
-		return GeomMaths.pnpoly(x, y, t);
+		return vertices().polygonContains(t);
 	}
 
 	@Override
 	public RealLocalizable vertex(final int pos) {
-		final FloatPolygon fp = getRoi().getFloatPolygon();
-		return new AbstractRealLocalizable(new double[] { fp.xpoints[pos],
-			fp.ypoints[pos] })
+		final RoiVertices v = vertices();
+		return new AbstractRealLocalizable(new double[] { v.x(pos), v.y(pos) })
 		{};
 	}
 
@@ -32,19 +32,17 @@ package net.imagej.legacy.convert.roi.polyline;
 import ij.ImagePlus;
 import ij.gui.PolygonRoi;
 import ij.gui.Roi;
-import ij.process.FloatPolygon;
 
 import java.util.Collection;
 
 import net.imagej.legacy.convert.roi.AbstractPolygonRoiWrapper;
+import net.imagej.legacy.convert.roi.RoiVertices;
 import net.imagej.legacy.convert.roi.Rois;
 import net.imglib2.RealLocalizable;
-import net.imglib2.roi.geom.GeomMaths;
 import net.imglib2.roi.geom.real.Polyline;
 import net.imglib2.roi.geom.real.Polyshape;
 import net.imglib2.roi.geom.real.WritablePolyline;
 import net.imglib2.roi.util.RealLocalizableRealPositionable;
-import net.imglib2.util.Intervals;
 
 /**
  * Wraps an ImageJ 1.x {@link PolygonRoi} as an ImgLib2 {@link Polyline}.
@@ -112,25 +110,18 @@ public class PolylineRoiWrapper extends AbstractPolygonRoiWrapper implements
 
 	@Override
 	public boolean test(final RealLocalizable t) {
-		if (Intervals.contains(this, t)) {
-			final float[] x = getRoi().getFloatPolygon().xpoints;
-			final float[] y = getRoi().getFloatPolygon().ypoints;
-
-			for (int i = 1; i < numVertices(); i++) {
-				final double[] start = new double[] { x[i - 1], y[i - 1] };
-				final double[] end = new double[] { x[i], y[i] };
-				final boolean testLineContains = GeomMaths.lineContains(start, end, t,
-					2);
-				if (testLineContains) return true;
-			}
-		}
-		return false;
+		return vertices().polylineContains(t);
+	}
+
+	@Override
+	protected RoiVertices createVertices(final PolygonRoi roi) {
+		return RoiVertices.polyline(roi);
 	}
 
 	@Override
 	public RealLocalizableRealPositionable vertex(final int pos) {
-		final FloatPolygon fp = getRoi().getFloatPolygon();
-		return Rois.ijRoiPoint(fp.xpoints[pos], fp.ypoints[pos]);
+		final RoiVertices v = vertices();
+		return Rois.ijRoiPoint(v.x(pos), v.y(pos));
 	}
 
 	/**
@@ -31,15 +31,13 @@ package net.imagej.legacy.convert.roi.polyline;
 
 import ij.gui.PolygonRoi;
 import ij.gui.Roi;
-import ij.process.FloatPolygon;
 
 import net.imagej.legacy.convert.roi.AbstractPolygonRoiWrapper;
+import net.imagej.legacy.convert.roi.RoiVertices;
 import net.imglib2.AbstractRealLocalizable;
 import net.imglib2.RealLocalizable;
-import net.imglib2.roi.geom.GeomMaths;
 import net.imglib2.roi.geom.real.Polyline;
 import net.imglib2.roi.geom.real.Polyshape;
-import net.imglib2.util.Intervals;
 
 /**
  * Wraps an ImageJ 1.x {@link PolygonRoi} of type {@link Roi#FREELINE} and
@@ -69,26 +67,18 @@ public class UnmodifiablePolylineRoiWrapper extends AbstractPolygonRoiWrapper
 
 	@Override
 	public boolean test(final RealLocalizable t) {
-		if (Intervals.contains(this, t)) {
-			final float[] x = getRoi().getFloatPolygon().xpoints;
-			final float[] y = getRoi().getFloatPolygon().ypoints;
+		return vertices().polylineContains(t);
+	}
 
-			for (int i = 1; i < numVertices(); i++) {
-				final double[] start = new double[] { x[i - 1], y[i - 1] };
-				final double[] end = new double[] { x[i], y[i] };
-				final boolean testLineContains = GeomMaths.lineContains(start, end, t,
-					2);
-				if (testLineContains) return true;
-			}
-		}
-		return false;
+	@Override
+	protected RoiVertices createVertices(final PolygonRoi roi) {
+		return RoiVertices.polyline(roi);
 	}
 
 	@Override
 	public RealLocalizable vertex(final int pos) {
-		final FloatPolygon fp = getRoi().getFloatPolygon();
-		return new AbstractRealLocalizable(new double[] { fp.xpoints[pos],
-			fp.ypoints[pos] })
+		final RoiVertices v = vertices();
+		return new AbstractRealLocalizable(new double[] { v.x(pos), v.y(pos) })
 		{};
 	}
 
@@ -31,20 +31,34 @@ package net.imagej.legacy.plugin;
 
 import ij.ImagePlus;
 
+import io.scif.ImageMetadata;
 import io.scif.Metadata;
+import io.scif.Reader;
 import io.scif.app.SCIFIOApp;
+import io.scif.config.SCIFIOConfig;
+import io.scif.config.SCIFIOConfig.ImgMode;
+import io.scif.img.ImageRegion;
+import io.scif.img.ImgOpener;
 import io.scif.img.SCIFIOImgPlus;
+import io.scif.services.InitializeService;
+import io.scif.util.FormatTools;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.Future;
 
 import net.imagej.Dataset;
+import net.imagej.DatasetService;
+import net.imagej.ImgPlus;
+import net.imagej.axis.AxisType;
+import net.imagej.axis.CalibratedAxis;
 import net.imagej.display.DefaultImageDisplay;
 import net.imagej.display.ImageDisplay;
 import net.imagej.legacy.IJ1Helper;
 import net.imagej.legacy.ImageJ2Options;
 import net.imagej.legacy.LegacyImageMap;
 import net.imagej.legacy.LegacyService;
+import net.imagej.legacy.translate.CachedVirtualStack;
 
 import org.scijava.Cancelable;
 import org.scijava.Context;
@@ -128,8 +142,11 @@ public class DefaultLegacyOpener implements LegacyOpener {
 		pluginService = getCached(pluginService, PluginService.class, c);
 
 		// Check to see if SCIFIO has been disabled
-		final boolean newStyleIO =
-			optionsService.getOptions(ImageJ2Options.class).isSciJavaIO();
+		final ImageJ2Options options =
+			optionsService.getOptions(ImageJ2Options.class);
+		final boolean newStyleIO = options.isSciJavaIO();
+		final boolean virtual = newStyleIO && options.isVirtualStacks();
+		int virtualCacheSize = 0;
 
 		// Ensure path is not null.
 		if (path == null) {
@@ -167,7 +184,17 @@ public class DefaultLegacyOpener implements LegacyOpener {
 					logService.warn("No appropriate format found: " + path);
 					return returnPath;
 				}
-				data = opener.open(path);
+				final boolean datasets =
+					Dataset.class.isAssignableFrom(opener.getDataType());
+				Dataset ds = null;
+				if (datasets && planeIndex > 0 && isSCIFIO(opener)) {
+					ds = openPlane(c, path, planeIndex);
+				}
+				else if (datasets && virtual) {
+					ds = openVirtual(c, path);
+					if (ds != null) virtualCacheSize = options.getVirtualStackCacheSize();
+				}
+				data = ds != null ? ds : opener.open(path);
 				if (data == null) {
 					logService.warn("Opening was canceled.");
 					return returnPath;
@@ -206,12 +233,108 @@ public class DefaultLegacyOpener implements LegacyOpener {
 			return returnPath; // fall back to original ImageJ
 		}
 
-		return handleData(c, data, path, displayResult);
+		return handleData(c, data, path, displayResult, virtualCacheSize);
 	}
 
 	// -- Helper methods --
 
-	private Object handleData(Context c, Object data, String path, boolean displayResult) {
+	/**
+	 * Opens the given image lazily, as a cell-cached {@link Dataset} whose
+	 * planes are read only when accessed.
+	 *
+	 * @return the lazily loaded {@link Dataset}, or null if SCIFIO cannot open
+	 *         the image, in which case the caller falls back to reading it whole
+	 */
+	private Dataset openVirtual(final Context c, final String path) {
+		final DatasetService datasetService = c.getService(DatasetService.class);
+		if (datasetService == null) return null;
+		try {
+			final SCIFIOConfig config = new SCIFIOConfig();
+			config.imgOpenerSetImgModes(ImgMode.CELL);
+			final List<SCIFIOImgPlus<?>> imgs = new ImgOpener(c).openImgs(path,
+				config);
+			if (imgs.isEmpty()) return null;
+			@SuppressWarnings({ "rawtypes", "unchecked" })
+			final Dataset ds = datasetService.create((ImgPlus) imgs.get(0));
+			return ds;
+		}
+		catch (final Exception exc) {
+			logService.debug("Cannot open " + path + " lazily", exc);
+			return null;
+		}
+	}
+
+	/**
+	 * Gets whether the given I/O plugin reads images using SCIFIO. Only then
+	 * does reading a single plane through SCIFIO yield the same data as the
+	 * plugin would.
+	 */
+	private boolean isSCIFIO(final IOPlugin<?> opener) {
+		return opener.getClass().getName().startsWith("io.scif.");
+	}
+
+	/**
+	 * Reads a single plane of the given image using SCIFIO.
+	 *
+	 * @param planeIndex the 1-based index of the plane to read, as in
+	 *          {@code IJ.openImage(path, n)}
+	 * @return the single-plane {@link Dataset}, or null if the plane cannot be
+	 *         read on its own, in which case the caller falls back to reading
+	 *         the whole image
+	 */
+	private Dataset openPlane(final Context c, final String path,
+		final int planeIndex)
+	{
+		final InitializeService initializeService =
+			c.getService(InitializeService.class);
+		final DatasetService datasetService = c.getService(DatasetService.class);
+		if (initializeService == null || datasetService == null) return null;
+		Reader reader = null;
+		try {
+			reader = initializeService.initializeReader(path);
+			final ImageMetadata iMeta = reader.getMetadata().get(0);
+			if (planeIndex > iMeta.getPlaneCount()) return null;
+
+			// restrict each non-planar axis to the position of the plane
+			final List<CalibratedAxis> axes = iMeta.getAxesNonPlanar();
+			final long[] position = FormatTools.rasterToPosition(iMeta
+				.getAxesLengthsNonPlanar(), planeIndex - 1);
+			final AxisType[] axisTypes = new AxisType[axes.size()];
+			final String[] ranges = new String[axes.size()];
+			for (int i = 0; i < axisTypes.length; i++) {
+				axisTypes[i] = axes.get(i).type();
+				ranges[i] = String.valueOf(position[i]);
+			}
+			final SCIFIOConfig config = new SCIFIOConfig();
+			config.imgOpenerSetRegion(new ImageRegion(axisTypes, ranges));
+
+			final List<SCIFIOImgPlus<?>> imgs = new ImgOpener(c).openImgs(reader,
+				config);
+			if (imgs.isEmpty()) return null;
+			@SuppressWarnings({ "rawtypes", "unchecked" })
+			final Dataset ds = datasetService.create((ImgPlus) imgs.get(0));
+			return ds;
+		}
+		catch (final Exception exc) {
+			logService.debug("Cannot read plane " + planeIndex + " of " + path +
+				"; reading all planes", exc);
+			return null;
+		}
+		finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				}
+				catch (final IOException exc) {
+					logService.debug(exc);
+				}
+			}
+		}
+	}
+
+	private Object handleData(Context c, Object data, String path,
+		boolean displayResult, int virtualCacheSize)
+	{
 		if (data == null) return path;
 
 		if (data instanceof Dataset) {
@@ -234,6 +357,9 @@ public class DefaultLegacyOpener implements LegacyOpener {
 
 				final LegacyImageMap imageMap = legacyService.getImageMap();
 				imp = imageMap.registerDisplay(imageDisplay);
+				if (virtualCacheSize > 0) {
+					CachedVirtualStack.wrap(imp, virtualCacheSize);
+				}
 				imp.setTitle(d.getName());
 				imp.show();
 				// --- HACK ---
@@ -247,6 +373,9 @@ public class DefaultLegacyOpener implements LegacyOpener {
 			else {
 				// Register the dataset, without creating a display
 				imp = legacyService.getImageMap().registerDataset(d);
+				if (imp != null && virtualCacheSize > 0) {
+					CachedVirtualStack.wrap(imp, virtualCacheSize);
+				}
 			}
 			// TODO remove usage of SCIFIO classes after migrating ImageMetadata
 			// framework to imagej-common
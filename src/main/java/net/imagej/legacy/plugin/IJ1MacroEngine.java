@@ -35,6 +35,7 @@ import java.io.Reader;
 import java.lang.reflect.Array;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import javax.script.Bindings;
@@ -98,9 +99,20 @@ public class IJ1MacroEngine extends AbstractScriptEngine {
 
 	private static ThreadLocal<Object> interpreters = new ThreadLocal<>();
 
-	/** Called by ImageJ 1.x at the beginning of each macro execution. */
+	/** Input values to assign directly once the macro is running. */
+	private static ThreadLocal<Map<String, Object>> inputs = new ThreadLocal<>();
+
+	/**
+	 * Called by ImageJ 1.x at the beginning of each macro execution. Also
+	 * assigns the pending input values to the macro's variables.
+	 */
 	public static void saveInterpreter() {
-		interpreters.set(IJ1Helper.getInterpreter());
+		final Object interpreter = IJ1Helper.getInterpreter();
+		interpreters.set(interpreter);
+		final Map<String, Object> values = inputs.get();
+		if (values == null) return;
+		inputs.remove();
+		IJ1Helper.setVariables(interpreter, values);
 	}
 
 	/**
@@ -132,32 +144,52 @@ public class IJ1MacroEngine extends AbstractScriptEngine {
 		final String method = "\"" + getClass().getName() + ".saveInterpreter\"";
 		suffix.append("  call(" + method + ");\n");
 
+		// NB: If possible, values are assigned directly to the declared variables
+		// by saveInterpreter(), rather than as (potentially huge) macro code.
+		final boolean direct = IJ1Helper.canAccessVariables();
+		final Map<String, Object> values = new HashMap<>();
+
 		// prepend variable assignments to the macro
 		for (final Entry<String, Object> entry : inVars.entrySet()) {
 			appendDeclaration(prefix, entry.getKey());
-			appendVar(suffix, entry.getKey(), entry.getValue());
+			if (!direct) appendVar(suffix, entry.getKey(), entry.getValue());
+			else if (isValidName(entry.getKey()) && entry.getValue() != null) {
+				values.put(entry.getKey(), entry.getValue());
+			}
 		}
 
 		prefix.append("; initializeSciJavaParameters(); ");
 		suffix.append("}\n");
 
 		// run the macro!
-		final String returnValue = ij1Helper.runMacro(prefix + macro + "\n" + suffix);
+		final String returnValue;
+		if (direct) inputs.set(values);
+		try {
+			returnValue = ij1Helper.runMacro(prefix + macro + "\n" + suffix);
+		}
+		finally {
+			inputs.remove();
+		}
 
 		// retrieve the interpreter used
 		final Object interpreter = interpreters.get();
 		interpreters.remove();
 
 		// populate bindings with the results
-		for (final String var : ij1Helper.getVariables(interpreter)) {
-			String name = var.substring(0, var.indexOf('\t'));
-			// global variables contain a ' (g)' suffix, see:
-			// https://github.com/imagej/imagej1/blob/ac613d3/ij/macro/Interpreter.java#L2042-L2044
-			final String globalSuffix = " (g)";
-			if (name.endsWith(globalSuffix)) {
-				name = name.substring(0, name.indexOf(globalSuffix));
+		if (direct) engineScopeBindings.putAll(IJ1Helper.getVariableMap(
+			interpreter));
+		else {
+			for (final String var : ij1Helper.getVariables(interpreter)) {
+				String name = var.substring(0, var.indexOf('\t'));
+				// global variables contain a ' (g)' suffix, see:
+				// https://github.com/imagej/imagej1/blob/ac613d3/ij/macro/Interpreter.java#L2042-L2044
+				final String globalSuffix = " (g)";
+				if (name.endsWith(globalSuffix)) {
+					name = name.substring(0, name.indexOf(globalSuffix));
+				}
+				engineScopeBindings.put(name, ij1Helper.getVariable(interpreter,
+					name));
 			}
-			engineScopeBindings.put(name, ij1Helper.getVariable(interpreter, name));
 		}
 
 		if (module != null) {
@@ -212,22 +244,24 @@ public class IJ1MacroEngine extends AbstractScriptEngine {
 	private void appendVar(final StringBuilder sb, //
 		final String key, final Object value)
 	{
-		// check for illegal identifiers
-		if (ArrayUtils.contains(RESERVED_WORDS, key)) return;
-		if (key.matches(".*[^a-zA-Z0-9_].*")) return;
+		if (!isValidName(key)) return;
 
 		if (value == null) return;
 		sb.append(key).append(" = ").append(varValue(value, true)).append(";\n");
 	}
 
 	private void appendDeclaration(final StringBuilder pre, final String key) {
-		// check for illegal identifiers
-		if (ArrayUtils.contains(RESERVED_WORDS, key)) return;
-		if (key.matches(".*[^a-zA-Z0-9_].*")) return;
+		if (!isValidName(key)) return;
 
 		pre.append(key + ",");
 	}
 
+	/** Checks for illegal identifiers. */
+	private boolean isValidName(final String key) {
+		if (ArrayUtils.contains(RESERVED_WORDS, key)) return false;
+		return !key.matches(".*[^a-zA-Z0-9_].*");
+	}
+
 	private String varValue(final Object v, final boolean top) {
 		if (top && v.getClass().isArray()) {
 			// NB: ImageJ 1.x only supports 1-dimensional arrays.
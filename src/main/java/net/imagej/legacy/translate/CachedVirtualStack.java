@@ -0,0 +1,344 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import ij.ImagePlus;
+import ij.ImageStack;
+import ij.VirtualStack;
+import ij.process.ImageProcessor;
+
+import java.awt.image.ColorModel;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link VirtualStack} keeping a bounded number of recently used planes of
+ * another {@link VirtualStack} in memory, and reading ahead the next planes
+ * along Z and T in the background.
+ * <p>
+ * This is meant for lazily loaded images which are too large to be read into
+ * memory, and whose planes are costly to read, such as cell-cached
+ * {@link net.imagej.Dataset}s exposed to ImageJ 1.x through
+ * {@link net.imglib2.img.display.imagej.ImgToVirtualStack}.
+ * </p>
+ * <p>
+ * Cached planes are handed out as is, so in-place edits last as long as the
+ * plane stays in memory. Planes written via {@link #setPixels(Object, int)} or
+ * {@link #saveChanges(int)} are marked dirty, and written back to the source
+ * when evicted, {@link #flush() flushed} or saved.
+ * </p>
+ */
+public class CachedVirtualStack extends VirtualStack {
+
+	/** Default number of planes kept in memory. */
+	public static final int DEFAULT_CACHE_SIZE = 64;
+
+	private static final ExecutorService READ_AHEAD = createReadAheadExecutor();
+
+	private final VirtualStack source;
+	private final int capacity;
+	private final int zStep;
+	private final int tStep;
+	private final Map<Integer, ImageProcessor> cache;
+	private final Set<Integer> dirty = new HashSet<>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Creates a cache around the given stack.
+	 *
+	 * @param source The stack whose planes to cache.
+	 * @param capacity The maximum number of planes to keep in memory.
+	 * @param nChannels The number of channels of the stack, i.e., the distance
+	 *          between planes adjacent along Z.
+	 * @param nSlices The number of Z slices of the stack.
+	 */
+	public CachedVirtualStack(final VirtualStack source, final int capacity,
+		final int nChannels, final int nSlices)
+	{
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+		this.source = source;
+		this.capacity = capacity;
+		zStep = Math.max(nChannels, 1);
+		tStep = zStep * Math.max(nSlices, 1);
+		cache = new LinkedHashMap<Integer, ImageProcessor>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(
+				final Map.Entry<Integer, ImageProcessor> eldest)
+			{
+				if (size() <= CachedVirtualStack.this.capacity) return false;
+				writeBack(eldest.getKey(), eldest.getValue());
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Replaces the {@link VirtualStack} of the given image by a
+	 * {@link CachedVirtualStack} with the given capacity. Does nothing if the
+	 * image is not virtual, or is already cached.
+	 */
+	public static void wrap(final ImagePlus imp, final int capacity) {
+		final ImageStack stack = imp.getStack();
+		if (!(stack instanceof VirtualStack) ||
+			stack instanceof CachedVirtualStack) return;
+		final int c = imp.getNChannels(), z = imp.getNSlices(),
+				t = imp.getNFrames();
+		imp.setStack(new CachedVirtualStack((VirtualStack) stack, capacity, c, z));
+		imp.setDimensions(c, z, t);
+	}
+
+	// -- CachedVirtualStack methods --
+
+	/** Gets the stack whose planes are cached. */
+	public VirtualStack getSource() {
+		return source;
+	}
+
+	/** Gets the maximum number of planes kept in memory. */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/** Gets how many plane requests were served from memory. */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/** Gets how many plane requests had to be read from the source. */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/** Gets whether the given plane was written but not yet written back. */
+	public boolean isDirty(final int n) {
+		synchronized (cache) {
+			return dirty.contains(n);
+		}
+	}
+
+	/** Writes all dirty planes back to the source. */
+	public void flush() {
+		synchronized (cache) {
+			for (final Map.Entry<Integer, ImageProcessor> entry : cache.entrySet()) {
+				writeBack(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	/** Writes back all dirty planes, then discards all planes kept in memory. */
+	public void clear() {
+		synchronized (cache) {
+			flush();
+			cache.clear();
+		}
+	}
+
+	// -- VirtualStack methods --
+
+	@Override
+	public ImageProcessor getProcessor(final int n) {
+		ImageProcessor ip;
+		synchronized (cache) {
+			ip = cache.get(n);
+		}
+		if (ip != null) hits.incrementAndGet();
+		else {
+			misses.incrementAndGet();
+			ip = load(n);
+		}
+		readAhead(n + zStep);
+		readAhead(n + tStep);
+		return ip;
+	}
+
+	@Override
+	public Object getPixels(final int n) {
+		return getProcessor(n).getPixels();
+	}
+
+	@Override
+	public void setPixels(final Object pixels, final int n) {
+		synchronized (cache) {
+			final ImageProcessor ip = cache.get(n);
+			if (ip != null) {
+				ip.setPixels(pixels);
+				dirty.add(n);
+				return;
+			}
+			synchronized (source) {
+				source.setPixels(pixels, n);
+			}
+		}
+	}
+
+	@Override
+	public Object[] getImageArray() {
+		return source.getImageArray();
+	}
+
+	@Override
+	public int saveChanges(final int n) {
+		synchronized (cache) {
+			final ImageProcessor ip = cache.get(n);
+			if (ip != null) {
+				// NB - the processor may have been edited in place
+				dirty.add(n);
+				writeBack(n, ip);
+			}
+		}
+		return source.saveChanges(n);
+	}
+
+	@Override
+	public void addSlice(final String fileName) {
+		clear();
+		source.addSlice(fileName);
+	}
+
+	@Override
+	public void deleteSlice(final int n) {
+		clear();
+		source.deleteSlice(n);
+	}
+
+	@Override
+	public int getSize() {
+		return source.getSize();
+	}
+
+	@Override
+	public int getWidth() {
+		return source.getWidth();
+	}
+
+	@Override
+	public int getHeight() {
+		return source.getHeight();
+	}
+
+	@Override
+	public ColorModel getColorModel() {
+		return source.getColorModel();
+	}
+
+	@Override
+	public void setColorModel(final ColorModel cm) {
+		source.setColorModel(cm);
+	}
+
+	@Override
+	public int getBitDepth() {
+		return source.getBitDepth();
+	}
+
+	@Override
+	public String getSliceLabel(final int n) {
+		return source.getSliceLabel(n);
+	}
+
+	@Override
+	public void setSliceLabel(final String label, final int n) {
+		source.setSliceLabel(label, n);
+	}
+
+	@Override
+	public String getFileName(final int n) {
+		return source.getFileName(n);
+	}
+
+	@Override
+	public String getDirectory() {
+		return source.getDirectory();
+	}
+
+	// -- Helper methods --
+
+	private ImageProcessor load(final int n) {
+		final ImageProcessor ip;
+		synchronized (source) {
+			ip = source.getProcessor(n);
+		}
+		synchronized (cache) {
+			// NB - keep a plane loaded meanwhile, which may have been edited
+			final ImageProcessor cached = cache.get(n);
+			if (cached != null) return cached;
+			cache.put(n, ip);
+		}
+		return ip;
+	}
+
+	/** Writes the given plane back to the source, if it is dirty. */
+	private void writeBack(final int n, final ImageProcessor ip) {
+		synchronized (cache) {
+			if (!dirty.remove(n)) return;
+		}
+		synchronized (source) {
+			source.setPixels(ip.getPixels(), n);
+		}
+	}
+
+	private void readAhead(final int n) {
+		if (n < 1 || n > getSize()) return;
+		synchronized (cache) {
+			if (cache.containsKey(n)) return;
+		}
+		READ_AHEAD.execute(() -> {
+			synchronized (cache) {
+				if (cache.containsKey(n)) return;
+			}
+			load(n);
+		});
+	}
+
+	private static ExecutorService createReadAheadExecutor() {
+		// NB - a single thread, dropping requests when far behind: reading ahead
+		// is only useful for the planes requested most recently.
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 10,
+			TimeUnit.SECONDS, new LinkedBlockingQueue<>(8), r -> {
+				final Thread t = new Thread(r, "ImageJ-Legacy-ReadAhead");
+				t.setDaemon(true);
+				return t;
+			}, new ThreadPoolExecutor.DiscardOldestPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+}
@@ -59,9 +59,21 @@ public class ColorTableHarmonizer implements DisplayHarmonizer {
 
 	private final ImageDisplayService imgDispSrv;
 
+	private final LUTCache lutCache = new LUTCache();
+
 	public ColorTableHarmonizer(ImageDisplayService imgDispSrv) {
 		this.imgDispSrv = imgDispSrv;
 	}
+
+	/** Gets how many LUTs were built from already converted color tables. */
+	public long getLUTCacheHitCount() {
+		return lutCache.getHitCount();
+	}
+
+	/** Gets how many LUTs had to be resampled from their color tables. */
+	public long getLUTCacheMissCount() {
+		return lutCache.getMissCount();
+	}
 	
 	/**
 	 * Sets the ColorTables of the active view of an modern ImageJ ImageDisplay
@@ -239,15 +251,22 @@ public class ColorTableHarmonizer implements DisplayHarmonizer {
 			// NB
 			//   Originally I used ci.getLUTs() and modified each LUT's min and max.
 			//   This cannot work as getLUTs() returns copies rather than originals.
-			//   Unfortunately setLUTs() does not use min/max of passed in LUTs. So
-			//   can't tweak and set back. So we'll cycle through the channels setting
-			//   min/max and make sure channel set where it started when we're done.
-			int origC = ci.getC();
+			//   Unfortunately setLUTs() does not use min/max of passed in LUTs. And
+			//   cycling through the channels with setC() switches processors (and
+			//   reads planes of virtual stacks) for every channel. But
+			//   getChannelLut() returns the originals, which hold the display range
+			//   of each channel. So update those in bulk, along with the per channel
+			//   processors, and let setDisplayRange() handle the current channel.
+			final int origC = ci.getC();
 			for (int i = 0; i < channelCount; i++) {
-				ci.setC(i+1);
-				ci.setDisplayRange(min[i], max[i]);
+				if (i + 1 == origC) continue;
+				final LUT lut = ci.getChannelLut(i + 1);
+				lut.min = min[i];
+				lut.max = max[i];
+				final ImageProcessor channelProc = ci.getProcessor(i + 1);
+				if (channelProc != null) channelProc.setLut(lut);
 			}
-			ci.setC(origC);
+			ci.setDisplayRange(min[origC - 1], max[origC - 1]);
 		}
 		else { // regular ImagePlus
 			
@@ -294,16 +313,8 @@ public class ColorTableHarmonizer implements DisplayHarmonizer {
 	 * version is functionally equivalent.
 	 */
 	private LUT make8BitLUT(final ColorTable cTable) {
-		final byte[] reds = new byte[256];
-		final byte[] greens = new byte[256];
-		final byte[] blues = new byte[256];
-
-		for (int i = 0; i < 256; i++) {
-			reds  [i] = (byte) cTable.getResampled(ColorTable.RED,   256, i);
-			greens[i] = (byte) cTable.getResampled(ColorTable.GREEN, 256, i);
-			blues [i] = (byte) cTable.getResampled(ColorTable.BLUE,  256, i);
-		}
-		return new LUT(reds, greens, blues);
+		final byte[][] rgb = lutCache.get(cTable);
+		return new LUT(rgb[0], rgb[1], rgb[2]);
 	}
 
 	/** Assigns the color tables of the active view of a ImageDisplay. */
@@ -30,6 +30,7 @@
 package net.imagej.legacy.translate;
 
 import net.imagej.Dataset;
+import net.imagej.ImgPlus;
 import net.imglib2.Dimensions;
 
 /**
@@ -56,10 +57,20 @@ public class DatasetUtils {
 	 * @param ds The Dataset to modify
 	 */
 	public static void initColorTables(final Dataset ds) {
-		final long numPlanes = planeCount(ds);
+		initColorTables(ds.getImgPlus());
+	}
+
+	/**
+	 * Allocates the color table array within a new planar ImgPlus (one table per
+	 * plane). Each color table will be assigned null.
+	 * 
+	 * @param imgPlus The ImgPlus to modify
+	 */
+	public static void initColorTables(final ImgPlus<?> imgPlus) {
+		final long numPlanes = planeCount(imgPlus);
 		if (numPlanes > Integer.MAX_VALUE) throw new IllegalArgumentException(
 			"color table count cannot exceed " + Integer.MAX_VALUE);
-		ds.getImgPlus().initializeColorTables((int) numPlanes);
+		imgPlus.initializeColorTables((int) numPlanes);
 	}
 
 	// -- private helpers --
@@ -93,6 +93,17 @@ public class DisplayCreator extends AbstractContextual
 		return makeDisplay(imp);
 	}
 
+	/**
+	 * Wraps the planes of the given {@link ImagePlus} into an {@link ImgPlus},
+	 * with axes, calibration and (uninitialized) color tables, but without
+	 * creating a {@link Dataset} or {@link ImageDisplay}.
+	 */
+	public ImgPlus<?> createImgPlus(final ImagePlus imp) {
+		final ImgPlus<?> imgPlus = toImgPlus(imp);
+		DatasetUtils.initColorTables(imgPlus);
+		return imgPlus;
+	}
+
 	/**
 	 * @return A {@link Dataset} appropriate for the given {@link ImagePlus}
 	 */
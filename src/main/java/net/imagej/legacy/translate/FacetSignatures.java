@@ -0,0 +1,294 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import ij.CompositeImage;
+import ij.ImagePlus;
+import ij.ImageStack;
+import ij.gui.Roi;
+import ij.measure.Calibration;
+import ij.process.ImageProcessor;
+import ij.process.LUT;
+
+import java.util.List;
+import java.util.Objects;
+
+import net.imagej.Dataset;
+import net.imagej.axis.CalibratedAxis;
+import net.imagej.display.DataView;
+import net.imagej.display.DatasetView;
+import net.imagej.display.ImageDisplay;
+import net.imagej.legacy.translate.Harmonizer.Facet;
+import net.imagej.overlay.Overlay;
+import net.imglib2.display.ColorTable;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.basictypeaccess.array.ArrayDataAccess;
+import net.imglib2.img.planar.PlanarImg;
+
+/**
+ * Computes cheap signatures of each {@link Facet} of an
+ * {@link ImageDisplay}/{@link ImagePlus} pairing. When the signature of a facet
+ * is unchanged since the last harmonization, neither side changed that facet
+ * and its harmonizer need not run again.
+ * <p>
+ * Signatures are computed from identities, sizes and scalar values only. In
+ * particular, pixel values are never inspected: the pixels are tracked only
+ * while the {@link ImagePlus} and the {@link Dataset} share their planes by
+ * reference, so that in-place edits on either side are seen by the other.
+ * Otherwise, their signature is {@link #UNTRACKED} and they are harmonized
+ * every time.
+ * </p>
+ */
+final class FacetSignatures {
+
+	/**
+	 * The signature of a facet whose changes cannot be detected, which must
+	 * therefore be harmonized every time.
+	 */
+	static final long UNTRACKED = Long.MIN_VALUE;
+
+	private FacetSignatures() {
+		// prevent instantiation of utility class
+	}
+
+	/** Computes the signature of the given facet. */
+	static long signature(final Facet facet, final ImageDisplay display,
+		final Dataset ds, final ImagePlus imp)
+	{
+		switch (facet) {
+			case PIXELS:
+				return pixels(ds, imp);
+			case CALIBRATION:
+				return calibration(ds, imp);
+			case LUTS:
+				return luts(display, imp);
+			case ROIS:
+				return rois(display, imp);
+			case POSITION:
+				return position(display, imp);
+			case NAME:
+				return mix(mix(1, display.getName()), imp.getTitle());
+			default:
+				throw new IllegalArgumentException("Unknown facet: " + facet);
+		}
+	}
+
+	// -- Helper methods --
+
+	private static long pixels(final Dataset ds, final ImagePlus imp) {
+		final Object[] planes = planes(ds);
+		if (planes == null || !sharesPlanes(imp, planes)) return UNTRACKED;
+		long h = System.identityHashCode(ds.getImgPlus());
+		for (int d = 0; d < ds.numDimensions(); d++)
+			h = mix(h, ds.dimension(d));
+		h = mix(h, imp.getWidth());
+		h = mix(h, imp.getHeight());
+		h = mix(h, imp.getBitDepth());
+		h = mix(h, imp.getNChannels());
+		h = mix(h, imp.getNSlices());
+		h = mix(h, imp.getNFrames());
+		for (final Object plane : planes)
+			h = mix(h, System.identityHashCode(plane));
+		return h;
+	}
+
+	/**
+	 * Gets the pixel arrays of the given {@link Dataset}'s planes, or null if
+	 * its pixels are not stored as one primitive array per plane.
+	 */
+	private static Object[] planes(final Dataset ds) {
+		final Img<?> img = ds.getImgPlus().getImg();
+		if (img instanceof PlanarImg) {
+			final PlanarImg<?, ?> planarImg = (PlanarImg<?, ?>) img;
+			final Object[] planes = new Object[planarImg.numSlices()];
+			for (int i = 0; i < planes.length; i++) {
+				final Object plane = planarImg.getPlane(i);
+				if (!(plane instanceof ArrayDataAccess)) return null;
+				planes[i] = ((ArrayDataAccess<?>) plane).getCurrentStorageArray();
+			}
+			return planes;
+		}
+		if (img instanceof ArrayImg && img.numDimensions() == 2) {
+			final Object access = ((ArrayImg<?, ?>) img).update(null);
+			if (!(access instanceof ArrayDataAccess)) return null;
+			return new Object[] { ((ArrayDataAccess<?>) access)
+				.getCurrentStorageArray() };
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether the planes of the given {@link ImagePlus} are the given
+	 * pixel arrays.
+	 */
+	private static boolean sharesPlanes(final ImagePlus imp,
+		final Object[] planes)
+	{
+		final ImageStack stack = imp.getStack();
+		if (stack.getSize() != planes.length) return false;
+		if (stack.isVirtual()) {
+			// NB: Virtual planes are only read on demand; a stack wrapping the
+			// Dataset hands out its planes, whereas others hand out copies. So
+			// checking the current plane suffices.
+			final ImageProcessor ip = imp.getProcessor();
+			return ip != null && ip.getPixels() == planes[imp.getCurrentSlice() -
+				1];
+		}
+		final Object[] pixels = stack.getImageArray();
+		for (int i = 0; i < planes.length; i++) {
+			if (pixels[i] != planes[i]) return false;
+		}
+		return true;
+	}
+
+	private static long calibration(final Dataset ds, final ImagePlus imp) {
+		long h = mix(1, ds.getName());
+		for (int d = 0; d < ds.numDimensions(); d++) {
+			final CalibratedAxis axis = ds.axis(d);
+			h = mix(h, axis.type());
+			h = mix(h, axis.averageScale(0, 1));
+			h = mix(h, axis.calibratedValue(0));
+			h = mix(h, axis.unit());
+		}
+		final Calibration cal = imp.getCalibration();
+		h = mix(h, cal.pixelWidth);
+		h = mix(h, cal.pixelHeight);
+		h = mix(h, cal.pixelDepth);
+		h = mix(h, cal.frameInterval);
+		h = mix(h, cal.xOrigin);
+		h = mix(h, cal.yOrigin);
+		h = mix(h, cal.zOrigin);
+		h = mix(h, cal.getXUnit());
+		h = mix(h, cal.getYUnit());
+		h = mix(h, cal.getZUnit());
+		h = mix(h, cal.getTimeUnit());
+		return h;
+	}
+
+	private static long luts(final ImageDisplay display, final ImagePlus imp) {
+		long h = 1;
+		final DataView view = display.getActiveView();
+		if (view instanceof DatasetView) {
+			final DatasetView dsView = (DatasetView) view;
+			h = mix(h, dsView.getData().getCompositeChannelCount());
+			final List<ColorTable> colorTables = dsView.getColorTables();
+			h = mix(h, colorTables.size());
+			for (final ColorTable colorTable : colorTables)
+				h = mix(h, System.identityHashCode(colorTable));
+			for (int c = 0; c < dsView.getChannelCount(); c++) {
+				h = mix(h, dsView.getChannelMin(c));
+				h = mix(h, dsView.getChannelMax(c));
+			}
+		}
+		if (imp instanceof CompositeImage) {
+			final CompositeImage ci = (CompositeImage) imp;
+			h = mix(h, ci.getMode());
+			for (int c = 1; c <= ci.getNChannels(); c++) {
+				final LUT lut = ci.getChannelLut(c);
+				h = mix(h, System.identityHashCode(lut));
+				if (lut == null) continue;
+				h = mix(h, lut.min);
+				h = mix(h, lut.max);
+			}
+		}
+		else {
+			final ImageProcessor ip = imp.getProcessor();
+			if (ip != null) {
+				h = mix(h, System.identityHashCode(ip.getColorModel()));
+				h = mix(h, ip.isInvertedLut() ? 1 : 0);
+			}
+			h = mix(h, imp.getDisplayRangeMin());
+			h = mix(h, imp.getDisplayRangeMax());
+		}
+		return h;
+	}
+
+	private static long rois(final ImageDisplay display, final ImagePlus imp) {
+		long h = 1;
+		for (final DataView view : display) {
+			if (!(view.getData() instanceof Overlay)) continue;
+			final Overlay overlay = (Overlay) view.getData();
+			h = mix(h, System.identityHashCode(overlay));
+			for (int d = 0; d < overlay.numDimensions(); d++) {
+				h = mix(h, overlay.realMin(d));
+				h = mix(h, overlay.realMax(d));
+			}
+		}
+		final ij.gui.Overlay overlay = imp.getOverlay();
+		h = mix(h, System.identityHashCode(overlay));
+		if (overlay != null) {
+			h = mix(h, overlay.size());
+			for (int i = 0; i < overlay.size(); i++)
+				h = mix(h, overlay.get(i));
+		}
+		h = mix(h, imp.getRoi());
+		final ImageProcessor ip = imp.getProcessor();
+		if (ip == null) return h;
+		h = mix(h, ip.getMinThreshold());
+		h = mix(h, ip.getMaxThreshold());
+		return h;
+	}
+
+	private static long position(final ImageDisplay display,
+		final ImagePlus imp)
+	{
+		long h = 1;
+		for (int d = 0; d < display.numDimensions(); d++)
+			h = mix(h, display.getLongPosition(d));
+		h = mix(h, imp.getC());
+		h = mix(h, imp.getZ());
+		h = mix(h, imp.getT());
+		return h;
+	}
+
+	private static long mix(final long h, final Roi roi) {
+		long result = mix(h, System.identityHashCode(roi));
+		if (roi == null) return result;
+		result = mix(result, roi.getType());
+		result = mix(result, roi.getXBase());
+		result = mix(result, roi.getYBase());
+		result = mix(result, roi.getFloatWidth());
+		result = mix(result, roi.getFloatHeight());
+		return result;
+	}
+
+	private static long mix(final long h, final Object o) {
+		return mix(h, Objects.hashCode(o));
+	}
+
+	private static long mix(final long h, final double v) {
+		return mix(h, Double.doubleToLongBits(v));
+	}
+
+	private static long mix(final long h, final long v) {
+		return 31 * h + v;
+	}
+}
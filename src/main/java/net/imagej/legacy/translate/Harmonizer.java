@@ -32,14 +32,29 @@ package net.imagej.legacy.translate;
 import ij.ImagePlus;
 import ij.ImageStack;
 
-import java.util.HashMap;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import net.imagej.Dataset;
 import net.imagej.ImgPlus;
+import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
 import net.imagej.display.ImageDisplay;
 import net.imagej.display.ImageDisplayService;
+import net.imagej.legacy.LegacyImageMap;
 import net.imagej.legacy.LegacyService;
+import net.imglib2.img.Img;
+import net.imglib2.img.basictypeaccess.array.ArrayDataAccess;
+import net.imglib2.img.planar.PlanarImg;
+import net.imglib2.type.numeric.RealType;
 
 import org.scijava.AbstractContextual;
 import org.scijava.Context;
@@ -53,11 +68,52 @@ import org.scijava.plugin.Parameter;
  */
 public class Harmonizer extends AbstractContextual {
 
+	/**
+	 * The aspects of an {@link ImageDisplay}/{@link ImagePlus} pairing which are
+	 * harmonized separately.
+	 */
+	public enum Facet {
+			/** Pixel data and dimensional structure. */
+			PIXELS,
+			/** Spatial calibration and other metadata. */
+			CALIBRATION,
+			/** Color tables, display ranges and composite mode. */
+			LUTS,
+			/** Overlays, the active selection and thresholds. */
+			ROIS,
+			/** The current plane position. */
+			POSITION,
+			/** The display name or image title. */
+			NAME
+	}
+
+	/** The order of the axes of an {@link ImageStack}'s planes. */
+	private static final List<AxisType> STACK_ORDER = Arrays.asList(Axes.X,
+		Axes.Y, Axes.CHANNEL, Axes.Z, Axes.TIME);
+
 	// -- instance variables --
 
 	private final ImageTranslator imageTranslator;
 	private final Map<ImagePlus, Integer> bitDepthMap;
 
+	/** Facet signatures recorded after the last harmonization of each image. */
+	private final Map<ImagePlus, long[]> signatureMap;
+
+	/** Facets explicitly flagged as changed since the last harmonization. */
+	private final Map<ImagePlus, Set<Facet>> changedMap;
+
+	/** The stacks of the images whose planes are tracked. */
+	private final Map<ImagePlus, PlaneTracker> trackerMap;
+
+	/** Planes propagated by the last harmonization of each tracked image. */
+	private final Map<ImagePlus, BitSet> changedPlanesMap;
+
+	private boolean changeTracking;
+
+	private final AtomicLongArray facetTimes;
+	private final AtomicLongArray facetRuns;
+	private final AtomicLongArray facetSkips;
+
 	private final ColorTableHarmonizer colorTableHarmonizer;
 	private final MetadataHarmonizer metadataHarmonizer;
 	private final CompositeHarmonizer compositeHarmonizer;
@@ -71,13 +127,35 @@ public class Harmonizer extends AbstractContextual {
 	@Parameter
 	private LegacyService legacyService;
 
+	/**
+	 * The image map this harmonizer belongs to, if given. NB: Using it, rather
+	 * than {@link LegacyService#getImageMap()}, avoids taking the service's
+	 * lock while the map's lock on this harmonizer is held.
+	 */
+	private final LegacyImageMap imageMap;
+
 	// -- constructor --
 
 	public Harmonizer(final Context context, final ImageTranslator trans)
+	{
+		this(context, trans, null);
+	}
+
+	public Harmonizer(final Context context, final ImageTranslator trans,
+		final LegacyImageMap imageMap)
 	{
 		setContext(context);
+		this.imageMap = imageMap;
 		imageTranslator = trans;
-		bitDepthMap = new HashMap<>();
+		bitDepthMap = Collections.synchronizedMap(new WeakHashMap<>());
+		signatureMap = Collections.synchronizedMap(new WeakHashMap<>());
+		changedMap = Collections.synchronizedMap(new WeakHashMap<>());
+		trackerMap = Collections.synchronizedMap(new WeakHashMap<>());
+		changedPlanesMap = Collections.synchronizedMap(new WeakHashMap<>());
+		final int facetCount = Facet.values().length;
+		facetTimes = new AtomicLongArray(facetCount);
+		facetRuns = new AtomicLongArray(facetCount);
+		facetSkips = new AtomicLongArray(facetCount);
 		colorTableHarmonizer = new ColorTableHarmonizer(imageDisplayService);
 		metadataHarmonizer = new MetadataHarmonizer();
 		compositeHarmonizer = new CompositeHarmonizer();
@@ -97,14 +175,21 @@ public class Harmonizer extends AbstractContextual {
 		updateLegacyImage(final ImageDisplay display, final ImagePlus imp)
 	{
 		final Dataset ds = imageDisplayService.getActiveDataset(display);
-		rebuildImagePlusData(display, imp);
-		metadataHarmonizer.updateLegacyImage(ds, imp);
-		colorTableHarmonizer.updateLegacyImage(display, imp);
+		final Set<Facet> facets = changedFacets(display, ds, imp);
+		run(Facet.PIXELS, facets, () -> rebuildImagePlusData(display, imp));
+		run(Facet.CALIBRATION, facets, //
+			() -> metadataHarmonizer.updateLegacyImage(ds, imp));
+		run(Facet.LUTS, facets, //
+			() -> colorTableHarmonizer.updateLegacyImage(display, imp));
 		// NB - correct thresholding behavior requires overlay harmonization after
 		// color table harmonization
-		overlayHarmonizer.updateLegacyImage(display, imp);
-		positionHarmonizer.updateLegacyImage(display, imp);
-		nameHarmonizer.updateLegacyImage(display, imp);
+		run(Facet.ROIS, facets, //
+			() -> overlayHarmonizer.updateLegacyImage(display, imp));
+		run(Facet.POSITION, facets, //
+			() -> positionHarmonizer.updateLegacyImage(display, imp));
+		run(Facet.NAME, facets, //
+			() -> nameHarmonizer.updateLegacyImage(display, imp));
+		recordSignatures(display, ds, imp);
 	}
 
 	/**
@@ -133,19 +218,44 @@ public class Harmonizer extends AbstractContextual {
 		// (such as the Histogram plugin) where the data in the created display
 		// has not been updated to reflect values in imp. So record the bit depth
 		// but don't return or pixels won't get synchronized correctly.
+		final boolean knownType = oldBitDepth != null;
 		if (oldBitDepth == null) {
 			oldBitDepth = imp.getBitDepth();
 			bitDepthMap.put(imp, imp.getBitDepth());
 		}
-		rebuildDatasetData(ds, imp);
-		metadataHarmonizer.updateDataset(ds, imp);
-		compositeHarmonizer.updateDataset(ds, imp);
-		colorTableHarmonizer.updateDisplay(display, imp);
+		final boolean tracked = knownType && oldBitDepth == imp.getBitDepth() &&
+			canPropagatePlanes(ds, imp);
+		final Set<Facet> facets = imp.getStack().isVirtual() ? //
+			EnumSet.allOf(Facet.class) : changedFacets(display, ds, imp);
+		if (tracked) {
+			// NB - the Dataset still wraps the same planes; so rather than
+			// rebuilding it, propagate only the planes which changed.
+			time(Facet.PIXELS, () -> updateChangedPlanes(ds, imp));
+		}
+		else if (facets.contains(Facet.PIXELS)) {
+			run(Facet.PIXELS, facets, () -> rebuildDatasetData(ds, imp));
+		}
+		else {
+			// NB - the planes are shared by reference, so any pixel changes are
+			// already present. But the display still needs to redraw them.
+			ds.update();
+		}
+		run(Facet.CALIBRATION, facets, //
+			() -> metadataHarmonizer.updateDataset(ds, imp));
+		run(Facet.LUTS, facets, () -> {
+			compositeHarmonizer.updateDataset(ds, imp);
+			colorTableHarmonizer.updateDisplay(display, imp);
+		});
 		// NB - correct thresholding behavior requires overlay harmonization after
 		// color table harmonization
-		overlayHarmonizer.updateDisplay(display, imp);
-		positionHarmonizer.updateDisplay(display, imp);
-		nameHarmonizer.updateDisplay(display, imp);
+		run(Facet.ROIS, facets, //
+			() -> overlayHarmonizer.updateDisplay(display, imp));
+		run(Facet.POSITION, facets, //
+			() -> positionHarmonizer.updateDisplay(display, imp));
+		run(Facet.NAME, facets, //
+			() -> nameHarmonizer.updateDisplay(display, imp));
+		recordSignatures(display, ds, imp);
+		if (trackerMap.containsKey(imp)) trackPlanes(imp);
 
 		// TODO - this should not be necessary but Blobs will not display inverted
 		// without this. When we change the update mechanism so that drawing only
@@ -166,8 +276,244 @@ public class Harmonizer extends AbstractContextual {
 		bitDepthMap.put(imp, imp.getBitDepth());
 	}
 
+	/**
+	 * Tracks the planes of the given {@link ImagePlus}, leaving its stack as is.
+	 * From then on, {@link #updateDisplay} propagates only the current plane and
+	 * the planes no longer shared with the {@link Dataset}, as long as the
+	 * stack keeps its structure and type, instead of rebuilding the Dataset's
+	 * pixels. Virtual stacks are not tracked: their planes are not shared.
+	 */
+	public void trackPlanes(final ImagePlus imp) {
+		final ImageStack stack = imp.getStack();
+		if (stack == null || stack.isVirtual()) return;
+		trackerMap.put(imp, new PlaneTracker(stack));
+	}
+
+	/** Stops tracking the planes of the given {@link ImagePlus}. */
+	public void untrackPlanes(final ImagePlus imp) {
+		trackerMap.remove(imp);
+		changedPlanesMap.remove(imp);
+	}
+
+	/**
+	 * Gets the planes propagated by the last {@link #updateDisplay} of the
+	 * given {@link ImagePlus}, if its planes are tracked.
+	 *
+	 * @return the changed planes (bit {@code i} for stack index {@code i + 1}),
+	 *         or null if the last update did not track planes.
+	 */
+	public BitSet getChangedPlanes(final ImagePlus imp) {
+		return changedPlanesMap.get(imp);
+	}
+
+	/**
+	 * Enables or disables change tracking. When enabled, only the facets whose
+	 * state changed on either side since the last harmonization of an
+	 * {@link ImagePlus} are harmonized again; when disabled (the default),
+	 * every facet is harmonized every time.
+	 */
+	public void setChangeTracking(final boolean changeTracking) {
+		this.changeTracking = changeTracking;
+		if (!changeTracking) {
+			signatureMap.clear();
+			changedMap.clear();
+		}
+	}
+
+	/** Gets whether change tracking is enabled. */
+	public boolean isChangeTracking() {
+		return changeTracking;
+	}
+
+	/**
+	 * Flags facets of an {@link ImagePlus} as changed, so that they are
+	 * harmonized next time even if change tracking does not detect a change.
+	 * Passing no facets flags all of them.
+	 */
+	public void markChanged(final ImagePlus imp, final Facet... facets) {
+		final Set<Facet> changed = facets.length == 0 ? EnumSet.allOf(
+			Facet.class) : EnumSet.of(facets[0], facets);
+		changedMap.merge(imp, changed, (a, b) -> {
+			a.addAll(b);
+			return a;
+		});
+	}
+
+	/** Gets the total time spent harmonizing the given facet, in ns. */
+	public long getFacetTime(final Facet facet) {
+		return facetTimes.get(facet.ordinal());
+	}
+
+	/** Gets the number of times the given facet was harmonized. */
+	public long getFacetRunCount(final Facet facet) {
+		return facetRuns.get(facet.ordinal());
+	}
+
+	/**
+	 * Gets the number of times harmonizing the given facet was skipped because
+	 * change tracking found it unchanged.
+	 */
+	public long getFacetSkipCount(final Facet facet) {
+		return facetSkips.get(facet.ordinal());
+	}
+
+	/** Resets the per-facet timing statistics. */
+	public void resetFacetStatistics() {
+		for (int i = 0; i < facetTimes.length(); i++) {
+			facetTimes.set(i, 0);
+			facetRuns.set(i, 0);
+			facetSkips.set(i, 0);
+		}
+	}
+
 	// -- private interface --
 
+	/**
+	 * Determines which facets need harmonizing: all of them unless change
+	 * tracking is enabled, else those flagged via
+	 * {@link #markChanged(ImagePlus, Facet...)}, those whose changes cannot be
+	 * detected, and those whose signature differs from the one recorded after
+	 * the last harmonization.
+	 */
+	private Set<Facet> changedFacets(final ImageDisplay display,
+		final Dataset ds, final ImagePlus imp)
+	{
+		if (!changeTracking) return EnumSet.allOf(Facet.class);
+		final long[] signatures = signatureMap.get(imp);
+		final Set<Facet> flagged = changedMap.remove(imp);
+		if (signatures == null) return EnumSet.allOf(Facet.class);
+		final Set<Facet> changed = EnumSet.noneOf(Facet.class);
+		if (flagged != null) changed.addAll(flagged);
+		for (final Facet facet : Facet.values()) {
+			if (changed.contains(facet)) continue;
+			final long signature = FacetSignatures.signature(facet, display, ds, imp);
+			if (signature == FacetSignatures.UNTRACKED || //
+				signature != signatures[facet.ordinal()]) changed.add(facet);
+		}
+		// rebuilt pixels invalidate everything derived from them
+		if (changed.contains(Facet.PIXELS)) return EnumSet.allOf(Facet.class);
+		// NB - correct thresholding behavior requires overlay harmonization after
+		// color table harmonization
+		if (changed.contains(Facet.LUTS)) changed.add(Facet.ROIS);
+		return changed;
+	}
+
+	/** Remembers the facet signatures of a freshly harmonized pairing. */
+	private void recordSignatures(final ImageDisplay display, final Dataset ds,
+		final ImagePlus imp)
+	{
+		if (!changeTracking) return;
+		final Facet[] facets = Facet.values();
+		final long[] signatures = new long[facets.length];
+		for (final Facet facet : facets) {
+			signatures[facet.ordinal()] = //
+				FacetSignatures.signature(facet, display, ds, imp);
+		}
+		signatureMap.put(imp, signatures);
+	}
+
+	/** Harmonizes a facet if it changed, timing how long it takes. */
+	private void run(final Facet facet, final Set<Facet> changed,
+		final Runnable harmonizer)
+	{
+		if (changed.contains(facet)) time(facet, harmonizer);
+		else facetSkips.incrementAndGet(facet.ordinal());
+	}
+
+	/** Harmonizes a facet, timing how long it takes. */
+	private void time(final Facet facet, final Runnable harmonizer) {
+		final int index = facet.ordinal();
+		final long start = System.nanoTime();
+		harmonizer.run();
+		facetTimes.addAndGet(index, System.nanoTime() - start);
+		facetRuns.incrementAndGet(index);
+	}
+
+	/**
+	 * Checks whether the changed planes of the given tracked {@link ImagePlus}
+	 * can be propagated to the given {@link Dataset} one by one: the image has
+	 * the same stack, with no planes added or removed, and the Dataset is a
+	 * {@link PlanarImg} with matching dimensions.
+	 */
+	private boolean canPropagatePlanes(final Dataset ds, final ImagePlus imp) {
+		final PlaneTracker tracker = trackerMap.get(imp);
+		if (tracker == null || !tracker.isIntact(imp.getStack())) return false;
+		if (imp.getType() == ImagePlus.COLOR_RGB) return false;
+		if (!(ds.getImgPlus().getImg() instanceof PlanarImg)) return false;
+		long planeCount = 1;
+		int lastRank = -1;
+		for (int d = 0; d < ds.numDimensions(); d++) {
+			final AxisType axisType = ds.axis(d).type();
+			final long dim = ds.dimension(d);
+			// NB - the planes must be in stack order: X, Y, C, Z, T
+			final int rank = STACK_ORDER.indexOf(axisType);
+			if (rank <= lastRank) return false;
+			lastRank = rank;
+			if (axisType == Axes.X) {
+				if (dim != imp.getWidth()) return false;
+			}
+			else if (axisType == Axes.Y) {
+				if (dim != imp.getHeight()) return false;
+			}
+			else if (axisType == Axes.Z) {
+				if (dim != imp.getNSlices()) return false;
+			}
+			else if (axisType == Axes.TIME) {
+				if (dim != imp.getNFrames()) return false;
+			}
+			else if (axisType == Axes.CHANNEL) {
+				if (dim != imp.getNChannels()) return false;
+			}
+			else return false;
+			if (axisType != Axes.X && axisType != Axes.Y) planeCount *= dim;
+		}
+		return planeCount == imp.getStackSize();
+	}
+
+	/**
+	 * Propagates the changed planes of a tracked {@link ImagePlus} to the
+	 * {@link Dataset} wrapping them. Planes shared by reference need no
+	 * propagation; the current plane, whose processor may hold other pixels,
+	 * and every plane no longer shared are copied into the corresponding plane
+	 * of the Dataset.
+	 */
+	private void updateChangedPlanes(final Dataset ds, final ImagePlus imp) {
+		final ImageStack stack = imp.getStack();
+		final BitSet changed = new BitSet();
+		// NB - writes to the current processor may bypass the stack
+		changed.set(imp.getCurrentSlice() - 1);
+		// NB - planes replaced in the stack are no longer shared with the Dataset;
+		// so check every plane (by reference only).
+		final Object[] planes = stack.getImageArray();
+		for (int i = 0; i < stack.getSize(); i++) {
+			if (planes[i] != planeStorage(ds, i)) changed.set(i);
+		}
+		for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+			final Object target = planeStorage(ds, i);
+			final Object pixels = stack.getPixels(i + 1);
+			if (target == null || pixels == target) continue;
+			if (pixels == null || pixels.getClass() != target.getClass()) continue;
+			System.arraycopy(pixels, 0, target, 0, Math.min(Array.getLength(pixels),
+				Array.getLength(target)));
+		}
+		changedPlanesMap.put(imp, changed);
+		ds.update();
+	}
+
+	/**
+	 * Gets the pixel array of the given plane of a {@link Dataset}, or null if it
+	 * is not a {@link PlanarImg} of primitive arrays.
+	 */
+	private static Object planeStorage(final Dataset ds, final int index) {
+		final Img<?> img = ds.getImgPlus().getImg();
+		if (!(img instanceof PlanarImg)) return null;
+		final PlanarImg<?, ?> planarImg = (PlanarImg<?, ?>) img;
+		if (index >= planarImg.numSlices()) return null;
+		final Object plane = planarImg.getPlane(index);
+		return plane instanceof ArrayDataAccess ? //
+			((ArrayDataAccess<?>) plane).getCurrentStorageArray() : null;
+	}
+
 	/**
 	 * Creates a new {@link ImageStack} of data from a {@link ImageDisplay} and
 	 * assigns it to given {@link ImagePlus}
@@ -178,9 +524,12 @@ public class Harmonizer extends AbstractContextual {
 	private void rebuildImagePlusData(final ImageDisplay display,
 		final ImagePlus imp)
 	{
-		final ImagePlus newImp = legacyService.getImageMap().registerDisplay(display);
+		final LegacyImageMap map = imageMap != null ? imageMap : legacyService
+			.getImageMap();
+		final ImagePlus newImp = map.registerDisplay(display);
 		if(imp == newImp)
 			return;
+		final boolean tracked = trackerMap.containsKey(imp);
 		imp.setStack(newImp.getStack());
 		final int c = newImp.getNChannels();
 		final int z = newImp.getNSlices();
@@ -188,6 +537,7 @@ public class Harmonizer extends AbstractContextual {
 		imp.setDimensions(c, z, t);
 		imp.setOpenAsHyperStack(imp.getNDimensions() > 3);
 		LegacyUtils.deleteImagePlus(newImp);
+		if (tracked) trackPlanes(imp);
 	}
 
 	/**
@@ -197,19 +547,15 @@ public class Harmonizer extends AbstractContextual {
 	 */
 	private void rebuildDatasetData(final Dataset ds, final ImagePlus imp)
 	{
-		// NB - create display from copy of original ImagePlus? Not right now. But
-		// will need to in future if createDisplay() registers "imp" with legacy
-		// image map. If that were the case we'd have two displays referring to a
-		// single ImagePlus which could be problematic. But since we're not
-		// registering right now avoid the runtime penalty and memory overhead.
-		//final ImagePlus impCopy = imp.duplicate();
-		//final ImageDisplay tmpDisplay =
-		//		imageTranslator.createDisplay(impCopy, ds.getAxes());
-		final ImageDisplay tmpDisplay = imageTranslator.createDisplay(imp);
-		final Dataset tmpDs = imageDisplayService.getActiveDataset(tmpDisplay);
-		ds.setImgPlus(tmpDs.getImgPlus());
-		ds.setRGBMerged(tmpDs.isRGBMerged());
-		tmpDisplay.close();
+		// NB - wrap the planes of the ImagePlus directly. Creating (and closing)
+		// a temporary display for this purpose, as was done previously, is
+		// costly and fires display events for no benefit.
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		final ImgPlus<? extends RealType<?>> imgPlus =
+			(ImgPlus) imageTranslator.createImgPlus(imp);
+		ds.setImgPlus(imgPlus);
+		ds.setRGBMerged(imp.getType() == ImagePlus.COLOR_RGB && imp
+			.getNChannels() == 1);
 	}
 	
 	// NOTE: to propagate a VirtualStack's first plane pixel changes we save it
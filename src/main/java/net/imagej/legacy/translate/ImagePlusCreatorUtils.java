@@ -45,6 +45,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
 
 import net.imagej.Dataset;
 import net.imagej.ImgPlus;
@@ -59,6 +61,17 @@ import net.imglib2.type.numeric.integer.UnsignedShortType;
  */
 public final class ImagePlusCreatorUtils {
 
+	/**
+	 * System property limiting how many metadata table entries are rendered
+	 * into the "Info" property of converted images. Unlimited by default.
+	 */
+	public static final String INFO_MAX_ENTRIES_PROPERTY =
+		"imagej.legacy.info.maxEntries";
+
+	/** "Info" text already rendered, per metadata object. */
+	private static final Map<Metadata, RenderedInfo> INFO_CACHE =
+		new WeakHashMap<>();
+
 	private ImagePlusCreatorUtils() {
 		// prevent from instantiation
 	}
@@ -156,62 +169,146 @@ public final class ImagePlusCreatorUtils {
 
 			final Metadata meta = scifioImgPlus.getMetadata();
 			if (meta != null) {
-				fillImageInfo(imp, meta);
+				final String existing = (String) imp.getProperty("Info");
+				final String info = getInfo(meta);
+				imp.setProperty("Info", existing == null ? info : existing + info);
+			}
+		}
+	}
 
-				addInfo(imp, "--- Global Metadata ---");
-				fillInfo(imp, meta.getTable());
+	/**
+	 * Gets the "Info" text of the given metadata, rendering it only if it has
+	 * not been rendered before with the same entry limit, or if the metadata
+	 * changed since.
+	 */
+	static String getInfo(final Metadata meta) {
+		final int maxEntries = Integer.getInteger(INFO_MAX_ENTRIES_PROPERTY, -1);
+		final int stamp = stamp(meta);
+		synchronized (INFO_CACHE) {
+			final RenderedInfo cached = INFO_CACHE.get(meta);
+			if (cached != null && cached.maxEntries == maxEntries &&
+				cached.stamp == stamp) return cached.info;
+		}
+		final String info = renderInfo(meta, maxEntries);
+		synchronized (INFO_CACHE) {
+			INFO_CACHE.put(meta, new RenderedInfo(info, maxEntries, stamp));
+		}
+		return info;
+	}
 
-				addInfo(imp, "--- Image Metadata ---");
-				for (final ImageMetadata iMeta : meta.getAll()) {
-					fillInfo(imp, iMeta.getTable());
-				}
-			}
+	/**
+	 * Renders the "Info" text of the given metadata in a single pass.
+	 *
+	 * @param meta The metadata to render.
+	 * @param maxEntries The maximum number of table entries to render, or a
+	 *          negative number for no limit.
+	 */
+	static String renderInfo(final Metadata meta, final int maxEntries) {
+		final StringBuilder sb = new StringBuilder();
+		fillImageInfo(sb, meta);
+
+		int remaining = maxEntries < 0 ? Integer.MAX_VALUE : maxEntries;
+		sb.append("--- Global Metadata ---\n");
+		remaining = fillInfo(sb, meta.getTable(), remaining);
+
+		sb.append("--- Image Metadata ---\n");
+		for (final ImageMetadata iMeta : meta.getAll()) {
+			remaining = fillInfo(sb, iMeta.getTable(), remaining);
 		}
+		if (remaining < 0) {
+			sb.append("... (" + -remaining + " more entries omitted)\n");
+		}
+		return sb.toString();
 	}
 
 	// TODO remove usage of SCIFIO classes after migrating ImageMetadata
 	// framework to imagej-common
-	private static void fillImageInfo(final ImagePlus imp, final Metadata meta) {
-		addInfo(imp, "--- Dataset Information ---");
-		addInfo(imp, "BitsPerPixel = " + meta.get(0).getBitsPerPixel());
-		addInfo(imp, "PixelType = " + meta.get(0).getPixelType());
-		addInfo(imp, "Dataset name = " + meta.getDatasetName());
+	private static void fillImageInfo(final StringBuilder sb,
+		final Metadata meta)
+	{
+		sb.append("--- Dataset Information ---\n");
+		sb.append("BitsPerPixel = ").append(meta.get(0).getBitsPerPixel()).append(
+			'\n');
+		sb.append("PixelType = ").append(meta.get(0).getPixelType()).append('\n');
+		sb.append("Dataset name = ").append(meta.getDatasetName()).append('\n');
 
 		for (int i=0; i<meta.getImageCount(); i++) {
-			addInfo(imp, "Image " + i + " Information");
-			String dimensionOrder = "";
-			String dimensionLengths = "";
-			for (int j=0; j<meta.get(i).getAxes().size(); j++) {
-				dimensionOrder += meta.get(i).getAxis(j).type().getLabel();
-				dimensionLengths += meta.get(i).getAxisLength(j);
-
-				if (j < meta.get(i).getAxes().size() - 1) {
-					dimensionOrder += ",";
-					dimensionLengths += ",";
+			sb.append("Image ").append(i).append(" Information\n");
+			final ImageMetadata iMeta = meta.get(i);
+			final int axisCount = iMeta.getAxes().size();
+			final StringBuilder dimensionOrder = new StringBuilder();
+			final StringBuilder dimensionLengths = new StringBuilder();
+			for (int j=0; j<axisCount; j++) {
+				dimensionOrder.append(iMeta.getAxis(j).type().getLabel());
+				dimensionLengths.append(iMeta.getAxisLength(j));
+
+				if (j < axisCount - 1) {
+					dimensionOrder.append(',');
+					dimensionLengths.append(',');
 				}
 			}
-			addInfo(imp, "Dimension order = " + dimensionOrder);
-			addInfo(imp, "Dimension lengths = " + dimensionLengths);
+			sb.append("Dimension order = ").append(dimensionOrder).append('\n');
+			sb.append("Dimension lengths = ").append(dimensionLengths).append('\n');
 		}
 	}
 
-	private static void addInfo(final ImagePlus imp, String newInfo) {
-		final String info = (String) imp.getProperty("Info");
-		if (info != null) newInfo = info + newInfo;
-		imp.setProperty("Info", newInfo + "\n");
-	}
-
+	/**
+	 * Appends the sorted entries of the given table.
+	 *
+	 * @return The number of entries which may still be appended; negative
+	 *         values count the entries omitted so far.
+	 */
 	// TODO remove usage of SCIFIO classes after migrating ImageMetadata
 	// framework to imagej-common
-	private static void fillInfo(final ImagePlus imp, final MetaTable table) {
-		String info = (String) imp.getProperty("Info");
-		if (info == null) info = "";
-		List<String> keySet = new ArrayList<>(table.keySet());
+	private static int fillInfo(final StringBuilder sb, final MetaTable table,
+		int remaining)
+	{
+		if (table == null) return remaining;
+		if (remaining <= 0) return remaining - table.size();
+		final List<String> keySet = new ArrayList<>(table.keySet());
 		Collections.sort(keySet);
 		for (final String key : keySet) {
-			info += key + " = " + table.get(key) + "\n";
+			if (remaining-- > 0) {
+				sb.append(key).append(" = ").append(table.get(key)).append('\n');
+			}
+		}
+		return remaining;
+	}
+
+	/**
+	 * Computes a hash of everything rendered by
+	 * {@link #renderInfo(Metadata, int)}, without rendering it.
+	 */
+	private static int stamp(final Metadata meta) {
+		int h = Objects.hashCode(meta.getDatasetName());
+		h = 31 * h + Objects.hashCode(meta.getTable());
+		for (final ImageMetadata iMeta : meta.getAll()) {
+			h = 31 * h + iMeta.getBitsPerPixel();
+			h = 31 * h + iMeta.getPixelType();
+			for (int j = 0; j < iMeta.getAxes().size(); j++) {
+				h = 31 * h + iMeta.getAxis(j).type().hashCode();
+				h = 31 * h + Long.hashCode(iMeta.getAxisLength(j));
+			}
+			h = 31 * h + Objects.hashCode(iMeta.getTable());
+		}
+		return h;
+	}
+
+	// -- Helper classes --
+
+	private static final class RenderedInfo {
+
+		private final String info;
+		private final int maxEntries;
+		private final int stamp;
+
+		private RenderedInfo(final String info, final int maxEntries,
+			final int stamp)
+		{
+			this.info = info;
+			this.maxEntries = maxEntries;
+			this.stamp = stamp;
 		}
-		imp.setProperty("Info", info);
 	}
 
 }
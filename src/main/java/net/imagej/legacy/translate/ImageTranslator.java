@@ -32,6 +32,7 @@ package net.imagej.legacy.translate;
 import ij.ImagePlus;
 
 import net.imagej.Dataset;
+import net.imagej.ImgPlus;
 import net.imagej.display.ImageDisplay;
 import net.imagej.legacy.LegacyService;
 
@@ -64,6 +65,15 @@ public class ImageTranslator extends AbstractContextual
 		return displayCreator.createDisplay(imp);
 	}
 
+	/**
+	 * Creates an {@link ImgPlus} from an {@link ImagePlus}, without creating a
+	 * {@link Dataset} or {@link ImageDisplay}. Shares planes of data when
+	 * possible.
+	 */
+	public ImgPlus<?> createImgPlus(final ImagePlus imp) {
+		return displayCreator.createImgPlus(imp);
+	}
+
 	/**
 	 * Creates an {@link ImagePlus} from a {@link ImageDisplay}. Shares planes of
 	 * data when possible.
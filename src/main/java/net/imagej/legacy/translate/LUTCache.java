@@ -0,0 +1,149 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.imglib2.display.ColorTable;
+
+/**
+ * Caches the 8-bit red, green and blue values of {@link ColorTable}s, as used
+ * to build ImageJ 1.x {@link ij.process.LUT}s.
+ * <p>
+ * Color tables are keyed by identity, and weakly, so looking one up reads
+ * none of its entries, and caching it does not keep it alive. Color tables
+ * are assumed not to be modified once in use.
+ * </p>
+ */
+final class LUTCache {
+
+	/** Maximum number of distinct color tables to remember. */
+	private static final int MAX_SIZE = 256;
+
+	private final ReferenceQueue<ColorTable> collected = new ReferenceQueue<>();
+
+	private final Map<Key, byte[][]> cache = new LinkedHashMap<Key, byte[][]>(
+		16, 0.75f, true)
+	{
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Key, byte[][]> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Gets the red, green and blue values of the given color table, resampled
+	 * to 256 entries. The returned arrays must not be modified.
+	 */
+	byte[][] get(final ColorTable cTable) {
+		synchronized (cache) {
+			expunge();
+			final byte[][] rgb = cache.get(new Key(cTable, null));
+			if (rgb != null) {
+				hits.incrementAndGet();
+				return rgb;
+			}
+		}
+		misses.incrementAndGet();
+		final byte[][] rgb = resample(cTable);
+		synchronized (cache) {
+			cache.put(new Key(cTable, collected), rgb);
+		}
+		return rgb;
+	}
+
+	long getHitCount() {
+		return hits.get();
+	}
+
+	long getMissCount() {
+		return misses.get();
+	}
+
+	// -- Helper methods --
+
+	/** Removes the entries of color tables which were garbage collected. */
+	private void expunge() {
+		Reference<? extends ColorTable> ref;
+		while ((ref = collected.poll()) != null) {
+			cache.remove(ref);
+		}
+	}
+
+	private static byte[][] resample(final ColorTable cTable) {
+		final byte[] reds = new byte[256];
+		final byte[] greens = new byte[256];
+		final byte[] blues = new byte[256];
+
+		for (int i = 0; i < 256; i++) {
+			reds  [i] = (byte) cTable.getResampled(ColorTable.RED,   256, i);
+			greens[i] = (byte) cTable.getResampled(ColorTable.GREEN, 256, i);
+			blues [i] = (byte) cTable.getResampled(ColorTable.BLUE,  256, i);
+		}
+		return new byte[][] { reds, greens, blues };
+	}
+
+	// -- Helper classes --
+
+	/** A weak reference to a color table, compared by identity. */
+	private static final class Key extends WeakReference<ColorTable> {
+
+		private final int hash;
+
+		private Key(final ColorTable cTable,
+			final ReferenceQueue<ColorTable> queue)
+		{
+			super(cTable, queue);
+			hash = System.identityHashCode(cTable);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (o == this) return true;
+			if (!(o instanceof Key)) return false;
+			final ColorTable cTable = get();
+			return cTable != null && cTable == ((Key) o).get();
+		}
+	}
+}
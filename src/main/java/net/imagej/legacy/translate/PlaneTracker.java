@@ -0,0 +1,62 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import ij.ImagePlus;
+import ij.ImageStack;
+
+/**
+ * The stack of an {@link ImagePlus} whose planes are tracked by the
+ * {@link Harmonizer}, as of its last harmonization.
+ * <p>
+ * The stack itself is left as is: ImageJ 1.x code may depend on its concrete
+ * class. Instead, the harmonizer checks that the image still has the same
+ * stack, with the same number of planes, and compares the planes with the
+ * Dataset's by reference.
+ * </p>
+ */
+final class PlaneTracker {
+
+	private final ImageStack stack;
+	private final int size;
+
+	PlaneTracker(final ImageStack stack) {
+		this.stack = stack;
+		size = stack.getSize();
+	}
+
+	/**
+	 * Checks whether the given stack is the tracked one, with the same number of
+	 * planes; i.e., no planes were added or removed, nor the stack replaced.
+	 */
+	boolean isIntact(final ImageStack current) {
+		return current == stack && current.getSize() == size;
+	}
+}
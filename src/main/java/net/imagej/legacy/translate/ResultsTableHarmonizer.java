@@ -33,6 +33,13 @@ import ij.IJ;
 import ij.plugin.filter.Analyzer;
 import ij.text.TextWindow;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import net.imagej.legacy.convert.ResultsTableWrapper;
 import net.imagej.table.DefaultResultsTable;
 import net.imagej.table.ResultsTable;
 
@@ -51,6 +58,14 @@ public class ResultsTableHarmonizer {
 
 	private final DisplayService displayService;
 
+	// NB - the tables synchronized last, and how many of their rows. When the
+	// same tables are synchronized again and those rows still match, the tables
+	// and their windows are kept, and rows appended since are copied.
+	private WeakReference<ResultsTable> syncedTable;
+	private WeakReference<ij.measure.ResultsTable> syncedIJ1Table;
+	private List<String> syncedHeaders;
+	private int syncedRows;
+
 	// -- constructor --
 
 	public ResultsTableHarmonizer(DisplayService dispSrv) {
@@ -70,9 +85,27 @@ public class ResultsTableHarmonizer {
 		ResultsTable table = getFirstResultsTable(display);
 		if (table == null) {
 			Analyzer.setResultsTable(null);
+			forgetSync();
+			return;
+		}
+		final List<String> headers = new ArrayList<>();
+		for (int c = 0; c < table.getColumnCount(); c++) {
+			headers.add(table.getColumnHeader(c));
+		}
+		ij.measure.ResultsTable ij1Table = Analyzer.getResultsTable();
+		if (isSynced(table, ij1Table, headers, table.getRowCount())) {
+			// the synchronized rows are unchanged; copy any rows appended since
+			if (table.getRowCount() == syncedRows) return;
+			copyToLegacy(table, ij1Table, syncedRows);
+			rememberSync(table, ij1Table, headers);
+			// refresh IJ1's Results window, if it shows the table
+			if (ij.measure.ResultsTable.getResultsWindow() != null) {
+				ij1Table.show("Results");
+			}
 			return;
 		}
-		ij.measure.ResultsTable ij1Table = new ij.measure.ResultsTable();
+
+		ij1Table = new ij.measure.ResultsTable();
 		ij1Table.setDefaultHeadings();
 		for (int c = 0; c < table.getColumnCount(); c++) {
 			String header = table.getColumnHeader(c);
@@ -92,21 +125,10 @@ public class ResultsTableHarmonizer {
 				}
 			}
 		}
-		for (int r = 0; r < table.getRowCount(); r++) {
-			ij1Table.incrementCounter();
-			ij1Table.setLabel(table.getRowHeader(r), r);
-			for (int c = 0; c < table.getColumnCount(); c++) {
-				String header = table.getColumnHeader(c);
-				int ij1ColIndex = c;
-				if (header != null) {
-					ij1ColIndex = ij1Table.getColumnIndex(header);
-				}
-				double value = table.get(c, r);
-				ij1Table.setValue(ij1ColIndex, r, value);
-			}
-		}
+		copyToLegacy(table, ij1Table, 0);
 		IJ.getTextPanel(); // HACK - force IJ1 to append data
 		Analyzer.setResultsTable(ij1Table);
+		rememberSync(table, ij1Table, headers);
 	}
 
 	public void setModernImageJResultsTable() {
@@ -116,6 +138,7 @@ public class ResultsTableHarmonizer {
 
 		// were there no ij1 results?
 		if (ij1Table == null) {
+			forgetSync();
 			if (display == null) return;
 			if (table == null) return;
 			display.remove(table);
@@ -129,29 +152,52 @@ public class ResultsTableHarmonizer {
 			if (table == null) return;
 		}
 
-		// if here there are nonempty ij1 results to harmonize
-		if (table == null) {
-			table = new DefaultResultsTable();
-			if (display != null) display.add(table);
-		}
-
-		// rebuild table
-		table.clear();
-		table.setRowCount(0);
+		final List<String> headers = new ArrayList<>();
 		for (int c = 0; c <= ij1Table.getLastColumn(); c++) {
-			if (ij1Table.columnExists(c)) {
-				table.appendColumn(ij1Table.getColumnHeading(c));
-			}
+			if (ij1Table.columnExists(c)) headers.add(ij1Table.getColumnHeading(c));
 		}
-		for (int r = 0; r < ij1Table.getCounter(); r++) {
-			table.appendRow(ij1Table.getLabel(r));
-			for (int modIjCol = 0, c = 0; c <= ij1Table.getLastColumn(); c++) {
-				if (ij1Table.columnExists(c)) {
-					double value = ij1Table.getValueAsDouble(c, r);
-					table.setValue(modIjCol++, r, value);
+		final int rowCount = ij1Table.getCounter();
+		if (isSynced(table, ij1Table, headers, rowCount)) {
+			// the synchronized rows are unchanged; so keep the table, and its
+			// display, and copy any rows appended since
+			if (rowCount == syncedRows) return;
+			final int firstRow = syncedRows;
+			table.setRowCount(rowCount);
+			for (int r = firstRow; r < rowCount; r++) {
+				table.setRowHeader(r, ij1Table.getLabel(r));
+			}
+			final int[] ij1Columns = existingColumns(ij1Table);
+			for (int c = 0; c < ij1Columns.length; c++) {
+				for (int r = firstRow; r < rowCount; r++) {
+					table.setValue(c, r, ij1Table.getValueAsDouble(ij1Columns[c], r));
 				}
 			}
 		}
+		else {
+			// if here there are nonempty ij1 results to harmonize
+			if (table == null) {
+				table = new DefaultResultsTable();
+				if (display != null) display.add(table);
+			}
+
+			// rebuild table
+			table.clear();
+			table.setRowCount(0);
+			for (final String header : headers) {
+				table.appendColumn(header);
+			}
+			table.setRowCount(rowCount);
+			for (int r = 0; r < rowCount; r++) {
+				table.setRowHeader(r, ij1Table.getLabel(r));
+			}
+			// NB - copy whole columns as primitive arrays, to avoid boxing
+			final ResultsTableWrapper ij1Wrapper =
+				new ResultsTableWrapper(ij1Table);
+			for (int c = 0; c < table.getColumnCount(); c++) {
+				table.get(c).fill(ij1Wrapper.getColumnAsDoubles(c));
+			}
+		}
+		rememberSync(table, ij1Table, headers);
 
 		// close IJ1's table
 		TextWindow window = ij.measure.ResultsTable.getResultsWindow();
@@ -175,4 +221,102 @@ public class ResultsTableHarmonizer {
 		}
 		return null;
 	}
+
+	/**
+	 * Appends the rows of a modern table, from the given one on, to a legacy
+	 * table, column by column.
+	 */
+	private void copyToLegacy(final ResultsTable table,
+		final ij.measure.ResultsTable ij1Table, final int firstRow)
+	{
+		final int rowCount = table.getRowCount();
+		for (int r = firstRow; r < rowCount; r++) {
+			ij1Table.incrementCounter();
+			ij1Table.setLabel(table.getRowHeader(r), r);
+		}
+		// NB - resolve each column once, then copy column by column from the
+		// primitive arrays, to avoid boxing
+		for (int c = 0; c < table.getColumnCount(); c++) {
+			String header = table.getColumnHeader(c);
+			int ij1ColIndex = c;
+			if (header != null) {
+				ij1ColIndex = ij1Table.getColumnIndex(header);
+			}
+			final double[] values = table.get(c).getArray();
+			for (int r = firstRow; r < rowCount; r++) {
+				ij1Table.setValue(ij1ColIndex, r, values[r]);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the given tables are the ones synchronized last, with the
+	 * same columns, and at least as many rows. As neither table reports
+	 * modifications, all synchronized rows are compared as well, which detects
+	 * any other changes, such as edits, sorting or clearing.
+	 * <p>
+	 * This comparison reads every synchronized cell of both tables, so each
+	 * synchronization costs O(rows &times; columns) even when nothing changed.
+	 * It saves the allocations of a rebuild, and keeps the table, its display
+	 * and the Results window, but not the pass over the data.
+	 * </p>
+	 */
+	private boolean isSynced(final ResultsTable table,
+		final ij.measure.ResultsTable ij1Table, final List<String> headers,
+		final int rowCount)
+	{
+		if (table == null || ij1Table == null) return false;
+		if (syncedTable == null || syncedTable.get() != table) return false;
+		if (syncedIJ1Table == null || syncedIJ1Table.get() != ij1Table) {
+			return false;
+		}
+		if (!headers.equals(syncedHeaders)) return false;
+		if (rowCount < syncedRows || table.getRowCount() < syncedRows ||
+			ij1Table.getCounter() < syncedRows) return false;
+		if (syncedRows == 0) return true;
+		for (int r = 0; r < syncedRows; r++) {
+			if (!Objects.equals(table.getRowHeader(r), ij1Table.getLabel(r))) {
+				return false;
+			}
+		}
+		final int[] ij1Columns = existingColumns(ij1Table);
+		if (ij1Columns.length != table.getColumnCount()) return false;
+		// NB - compare column by column, from the primitive arrays where
+		// possible, to avoid boxing
+		final ResultsTableWrapper ij1Wrapper = new ResultsTableWrapper(ij1Table);
+		for (int c = 0; c < ij1Columns.length; c++) {
+			final double[] expected = ij1Wrapper.getColumnAsDoubles(c);
+			final double[] actual = table.get(c).getArray();
+			for (int r = 0; r < syncedRows; r++) {
+				if (Double.compare(expected[r], actual[r]) != 0) return false;
+			}
+		}
+		return true;
+	}
+
+	private void rememberSync(final ResultsTable table,
+		final ij.measure.ResultsTable ij1Table, final List<String> headers)
+	{
+		syncedTable = new WeakReference<>(table);
+		syncedIJ1Table = new WeakReference<>(ij1Table);
+		syncedHeaders = headers;
+		syncedRows = table.getRowCount();
+	}
+
+	private void forgetSync() {
+		syncedTable = null;
+		syncedIJ1Table = null;
+		syncedHeaders = null;
+		syncedRows = 0;
+	}
+
+	/** Gets the indices of the columns of a legacy table which are in use. */
+	private static int[] existingColumns(final ij.measure.ResultsTable ij1Table) {
+		final int[] columns = new int[ij1Table.getLastColumn() + 1];
+		int count = 0;
+		for (int c = 0; c <= ij1Table.getLastColumn(); c++) {
+			if (ij1Table.columnExists(c)) columns[count++] = c;
+		}
+		return Arrays.copyOf(columns, count);
+	}
 }
@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import ij.gui.Overlay;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.imagej.Dataset;
+import net.imagej.DatasetService;
+import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
+import net.imagej.legacy.convert.TableListWrapper;
+import net.imagej.roi.DefaultROITree;
+import net.imagej.roi.ROITree;
+import net.imglib2.roi.geom.real.ClosedWritableBox;
+import net.imglib2.roi.geom.real.WritableBox;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+import org.scijava.table.DefaultGenericTable;
+import org.scijava.table.Table;
+
+/**
+ * Tests {@link AttachmentCache}.
+ */
+public class AttachmentCacheTest {
+
+	private Context context;
+	private AttachmentCache cache;
+	private Dataset dataset;
+
+	@Before
+	public void setUp() {
+		context = new Context(ConvertService.class, DatasetService.class);
+		cache = new AttachmentCache(context.service(ConvertService.class));
+		dataset = context.service(DatasetService.class).create(new long[] { 10,
+			10 }, "test", new AxisType[] { Axes.X, Axes.Y }, 8, false, false);
+	}
+
+	@After
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Test
+	public void testOverlayReusedUntilROIsChange() {
+		final WritableBox box = new ClosedWritableBox(new double[] { 1, 1 },
+			new double[] { 5, 5 });
+		final ROITree rois = new DefaultROITree();
+		rois.addROIs(Collections.singletonList(box));
+
+		final Overlay first = cache.getOverlay(dataset, rois);
+		assertEquals(1, first.size());
+		assertSame(first, cache.getOverlay(dataset, rois));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		// modifying a ROI in place invalidates the cached conversion
+		box.setSideLength(0, 8);
+		final Overlay second = cache.getOverlay(dataset, rois);
+		assertNotSame(first, second);
+		assertEquals(2, cache.getMissCount());
+
+		// so does replacing the ROI tree
+		final ROITree other = new DefaultROITree();
+		other.addROIs(Collections.singletonList(box));
+		assertNotSame(second, cache.getOverlay(dataset, other));
+		assertEquals(3, cache.getMissCount());
+	}
+
+	@Test
+	public void testPutOverlay() {
+		final ROITree rois = new DefaultROITree();
+		rois.addROIs(Collections.singletonList(new ClosedWritableBox(
+			new double[] { 1, 1 }, new double[] { 5, 5 })));
+		final Overlay overlay = new Overlay();
+		cache.putOverlay(dataset, rois, overlay);
+		assertSame(overlay, cache.getOverlay(dataset, rois));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test
+	public void testTablesReusedUntilTablesChange() {
+		final DefaultGenericTable table = new DefaultGenericTable(2, 3);
+		final List<Table<?, ?>> tables = new ArrayList<>();
+		tables.add(table);
+
+		final TableListWrapper first = cache.getTables(dataset, tables);
+		assertSame(first, cache.getTables(dataset, tables));
+		assertEquals(1, cache.getHitCount());
+
+		table.appendRow();
+		assertNotSame(first, cache.getTables(dataset, tables));
+		assertEquals(2, cache.getMissCount());
+
+		cache.invalidate(dataset);
+		cache.getTables(dataset, tables);
+		assertEquals(3, cache.getMissCount());
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import ij.ImagePlus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.Dataset;
+import net.imagej.DatasetService;
+import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
+import net.imagej.display.ImageDisplay;
+import net.imagej.patcher.LegacyInjector;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.display.DisplayService;
+import org.scijava.log.LogService;
+
+/**
+ * Tests {@link HarmonizationScheduler}.
+ */
+public class HarmonizationSchedulerTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	private Context context;
+	private final List<ImageDisplay> harmonized = new ArrayList<>();
+	private HarmonizationScheduler scheduler;
+
+	@Before
+	public void setUp() {
+		context = new Context();
+		scheduler = new HarmonizationScheduler(harmonized::add, harmonized,
+			context.service(LogService.class));
+		// NB: Long enough that the background thread never fires by itself.
+		scheduler.setInterval(60000);
+	}
+
+	@After
+	public void tearDown() {
+		scheduler.dispose();
+		context.dispose();
+	}
+
+	@Test
+	public void testCoalescing() {
+		final ImageDisplay a = createDisplay("a"), b = createDisplay("b");
+		for (int i = 0; i < 5; i++) {
+			scheduler.schedule(a);
+		}
+		scheduler.schedule(b);
+		scheduler.schedule(b);
+		assertTrue(scheduler.isPending(a));
+		assertTrue(scheduler.isPending(b));
+		assertTrue(harmonized.isEmpty());
+
+		scheduler.flush(b);
+		assertEquals(1, harmonized.size());
+		assertSame(b, harmonized.get(0));
+		assertTrue(scheduler.isPending(a));
+
+		scheduler.flush();
+		assertEquals(2, harmonized.size());
+		assertSame(a, harmonized.get(1));
+		assertEquals(7, scheduler.getRequestCount());
+		assertEquals(2, scheduler.getHarmonizeCount());
+	}
+
+	@Test
+	public void testBackgroundFlush() throws InterruptedException {
+		final ImageDisplay a = createDisplay("a");
+		scheduler.setInterval(10);
+		scheduler.schedule(a);
+		final long deadline = System.currentTimeMillis() + 5000;
+		while (scheduler.isPending(a) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		synchronized (harmonized) {
+			assertEquals(1, harmonized.size());
+		}
+	}
+
+	@Test
+	public void testNoInterval() {
+		final ImageDisplay a = createDisplay("a");
+		scheduler.setInterval(0);
+		scheduler.schedule(a);
+		scheduler.schedule(a);
+		assertFalse(scheduler.isPending(a));
+		assertEquals(2, harmonized.size());
+	}
+
+	@Test
+	public void testDispose() {
+		final ImageDisplay a = createDisplay("a");
+		scheduler.schedule(a);
+		scheduler.dispose();
+		assertFalse(scheduler.isPending(a));
+		scheduler.schedule(a);
+		assertFalse(scheduler.isPending(a));
+		scheduler.flush();
+		assertTrue(harmonized.isEmpty());
+	}
+
+	@Test
+	public void testFlushOnLookup() {
+		final LegacyImageMap map = context.service(LegacyService.class)
+			.getImageMap();
+		final ImageDisplay display = createDisplay("before");
+		final ImagePlus imp = map.registerDisplay(display);
+		final HarmonizationScheduler mapScheduler = map
+			.getHarmonizationScheduler();
+		mapScheduler.setInterval(60000);
+
+		display.setName("after");
+		mapScheduler.schedule(display);
+		assertTrue(mapScheduler.isPending(display));
+
+		assertSame(imp, map.lookupImagePlus(display));
+		assertFalse(mapScheduler.isPending(display));
+		assertEquals("after", imp.getTitle());
+	}
+
+	@Test
+	public void testSynchronousByDefault() {
+		final LegacyImageMap map = context.service(LegacyService.class)
+			.getImageMap();
+		final ImageDisplay display = createDisplay("before");
+		final ImagePlus imp = map.registerDisplay(display);
+		final HarmonizationScheduler mapScheduler = map
+			.getHarmonizationScheduler();
+		assertEquals(0, mapScheduler.getInterval());
+
+		display.setName("after");
+		mapScheduler.schedule(display);
+		assertFalse(mapScheduler.isPending(display));
+		assertEquals("after", imp.getTitle());
+	}
+
+	// -- Helper methods --
+
+	private ImageDisplay createDisplay(final String name) {
+		final Dataset ds = context.service(DatasetService.class).create(
+			new UnsignedByteType(), new long[] { 4, 3 }, name, new AxisType[] {
+				Axes.X, Axes.Y });
+		return (ImageDisplay) context.service(DisplayService.class).createDisplay(
+			ds);
+	}
+
+}
@@ -83,8 +83,12 @@ public class ImageJ1EncapsulationTest {
 
 			if (className.startsWith(IJ1Helper.class.getName()) ||
 					/* TODO: At least some of them should not need to access ImageJ 1.x classes directly! */
+					className.startsWith(net.imagej.legacy.AttachmentCache.class.getName()) ||
+					className.startsWith(net.imagej.legacy.CompiledMacroCache.class.getName()) ||
 					className.startsWith(net.imagej.legacy.DefaultLegacyHooks.class.getName()) ||
+					className.startsWith(net.imagej.legacy.HarmonizationScheduler.class.getName()) ||
 					className.startsWith(net.imagej.legacy.LegacyImageMap.class.getName()) ||
+					className.startsWith(net.imagej.legacy.MacroContext.class.getName()) ||
 					className.startsWith(net.imagej.legacy.Macros.class.getName()) ||
 					className.startsWith(net.imagej.legacy.OptionsSynchronizer.class.getName()) ||
 					className.startsWith(net.imagej.legacy.command.LegacyCommand.class.getName()) ||
@@ -102,6 +106,7 @@ public class ImageJ1EncapsulationTest {
 					className.startsWith(net.imagej.legacy.convert.ResultsTableToGenericTableConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.ResultsTableUnwrapper.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.ResultsTableWrapper.class.getName()) ||
+					className.startsWith("net.imagej.legacy.convert.ResultsTables") /* package-private */ ||
 					className.startsWith(net.imagej.legacy.convert.ROITreeToOverlayConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.StringToImagePlusConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.StringToDatasetConverter.class.getName()) ||
@@ -120,6 +125,7 @@ public class ImageJ1EncapsulationTest {
 					className.startsWith(net.imagej.legacy.convert.roi.RealMaskRealIntervalToImageRoiConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.RoiToMaskIntervalConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.RoiUnwrappers.class.getName()) ||
+					className.startsWith(net.imagej.legacy.convert.roi.RoiVertices.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.ShapeRoiToMaskRealIntervalConverter.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.ShapeRoiWrapper.class.getName()) ||
 					className.startsWith(net.imagej.legacy.convert.roi.box.BoxToRoiConverter.class.getName()) ||
@@ -169,9 +175,11 @@ public class ImageJ1EncapsulationTest {
 					className.startsWith(net.imagej.legacy.plugin.OverlayPreprocessor.class.getName()) ||
 					className.startsWith(net.imagej.legacy.plugin.ResultsTablePreprocessor.class.getName()) ||
 					className.startsWith(net.imagej.legacy.plugin.RoiManagerPreprocessor.class.getName()) ||
+					className.startsWith(net.imagej.legacy.translate.CachedVirtualStack.class.getName()) ||
 					className.startsWith(net.imagej.legacy.translate.ColorTableHarmonizer.class.getName()) ||
 					className.startsWith(net.imagej.legacy.translate.CompositeHarmonizer.class.getName()) ||
 					className.startsWith(net.imagej.legacy.translate.DisplayCreator.class.getName()) ||
+					className.startsWith("net.imagej.legacy.translate.FacetSignatures") /* package-private */ ||
 					className.startsWith(net.imagej.legacy.translate.Harmonizer.class.getName()) ||
 					className.startsWith(net.imagej.legacy.translate.ImagePlusCreator.class.getName()) ||
 					className.startsWith(net.imagej.legacy.translate.ImagePlusCreatorUtils.class.getName()) ||
@@ -180,6 +188,7 @@ public class ImageJ1EncapsulationTest {
 					className.startsWith(net.imagej.legacy.translate.MetadataHarmonizer.class.getName()) ||
 					className.startsWith(net.imagej.legacy.translate.NameHarmonizer.class.getName()) ||
 					className.startsWith(net.imagej.legacy.translate.OverlayHarmonizer.class.getName()) ||
+					className.startsWith("net.imagej.legacy.translate.PlaneTracker") /* package-private */ ||
 					className.startsWith(net.imagej.legacy.translate.PositionHarmonizer.class.getName()) ||
 					className.startsWith(net.imagej.legacy.translate.ResultsTableHarmonizer.class.getName()))
 			{
@@ -0,0 +1,105 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import ij.ImagePlus;
+import ij.gui.NewImage;
+
+import net.imagej.Dataset;
+import net.imagej.DatasetService;
+import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
+import net.imagej.display.ImageDisplay;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.scijava.Context;
+import org.scijava.display.DisplayService;
+
+/**
+ * Benchmark for {@link LegacyImageMap#registerDisplay(ImageDisplay)} and
+ * {@link LegacyImageMap#registerLegacyImage(ImagePlus)}.
+ *
+ * @see net.imagej.legacy.translate.TranslateBenchmarks
+ */
+@State(Scope.Benchmark)
+public class LegacyImageMapBenchmark {
+
+	private Context context;
+	private LegacyImageMap imageMap;
+	private Dataset dataset;
+
+	private ImageDisplay display;
+	private ImagePlus imp;
+
+	@Setup
+	public void setUp() {
+		context = new Context();
+		imageMap = context.service(LegacyService.class).getImageMap();
+		dataset = context.service(DatasetService.class).create(new long[] { 512,
+			512, 3, 20 }, "map", new AxisType[] { Axes.X, Axes.Y, Axes.CHANNEL,
+				Axes.Z }, 8, false, false);
+	}
+
+	@Setup(Level.Invocation)
+	public void createImages() {
+		display = (ImageDisplay) context.service(DisplayService.class)
+			.createDisplay(dataset.duplicate());
+		imp = NewImage.createByteImage("map", 512, 512, 60, NewImage.FILL_RAMP);
+	}
+
+	@TearDown(Level.Invocation)
+	public void disposeImages() {
+		imageMap.unregisterDisplay(display, true);
+		final ImageDisplay impDisplay = imageMap.lookupDisplay(imp);
+		imageMap.unregisterLegacyImage(imp, true);
+		if (impDisplay != null) impDisplay.close();
+		display.close();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public ImagePlus registerDisplay() {
+		return imageMap.registerDisplay(display);
+	}
+
+	@Benchmark
+	public ImageDisplay registerLegacyImage() {
+		return imageMap.registerLegacyImage(imp);
+	}
+}
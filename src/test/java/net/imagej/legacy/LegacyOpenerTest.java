@@ -34,12 +34,17 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import ij.ImagePlus;
+
+import java.lang.reflect.Field;
 import java.net.URL;
 
+import net.imagej.legacy.plugin.DefaultLegacyOpener;
 import net.imagej.patcher.LegacyInjector;
 
 import org.junit.Test;
 import org.scijava.Context;
+import org.scijava.options.OptionsService;
 import org.scijava.script.ScriptModule;
 import org.scijava.script.ScriptService;
 
@@ -54,6 +59,10 @@ public class LegacyOpenerTest {
 		LegacyInjector.preinit();
 	}
 
+	/** A SCIFIO fake image of five 16x16 planes; no file is needed. */
+	private static final String FAKE_STACK =
+		"stack&pixelType=uint8&axes=X,Y,Z&lengths=16,16,5.fake";
+
 	/**
 	 * This regression test is based on a macro provided by Paul van Schayck.
 	 * 
@@ -139,4 +148,56 @@ public class LegacyOpenerTest {
 		}
 	}
 
+	/**
+	 * Verifies that asking for a single plane of a multi-plane image, with
+	 * SCIFIO enabled, yields only that plane.
+	 */
+	@Test
+	public void testOpenPlane() throws Exception {
+		final Context context = new Context();
+		try {
+			enableSCIFIO(context);
+			final Object result = new DefaultLegacyOpener().open(FAKE_STACK, 3,
+				false);
+			assertTrue(result instanceof ImagePlus);
+			final ImagePlus imp = (ImagePlus) result;
+			assertEquals(1, imp.getStackSize());
+			assertEquals(16, imp.getWidth());
+			assertEquals(16, imp.getHeight());
+		}
+		finally {
+			context.dispose();
+		}
+	}
+
+	/**
+	 * Verifies that asking for a plane beyond the last one falls back to
+	 * reading the whole image.
+	 */
+	@Test
+	public void testOpenPlaneOutOfRange() throws Exception {
+		final Context context = new Context();
+		try {
+			enableSCIFIO(context);
+			final Object result = new DefaultLegacyOpener().open(FAKE_STACK, 9,
+				false);
+			assertTrue(result instanceof ImagePlus);
+			assertEquals(5, ((ImagePlus) result).getStackSize());
+		}
+		finally {
+			context.dispose();
+		}
+	}
+
+	// -- Helper methods --
+
+	private static void enableSCIFIO(final Context context) throws Exception {
+		// NB: The option is not saved, so the user's settings are untouched.
+		final ImageJ2Options options = context.getService(OptionsService.class)
+			.getOptions(ImageJ2Options.class);
+		final Field field = ImageJ2Options.class.getDeclaredField("sciJavaIO");
+		field.setAccessible(true);
+		field.setBoolean(options, true);
+	}
+
 }
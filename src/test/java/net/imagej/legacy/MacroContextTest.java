@@ -0,0 +1,273 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import ij.Macro;
+import ij.macro.Interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.imagej.patcher.LegacyInjector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+
+/**
+ * Tests {@link MacroContext}.
+ */
+public class MacroContextTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	private static CountDownLatch started;
+
+	private Context context;
+	private IJ1Helper ij1Helper;
+	private boolean batchMode;
+
+	@Before
+	public void setUp() {
+		batchMode = Interpreter.batchMode;
+		context = new Context(LegacyService.class);
+		ij1Helper = context.service(LegacyService.class).getIJ1Helper();
+	}
+
+	@After
+	public void tearDown() {
+		if (context != null) context.dispose();
+		Interpreter.batchMode = batchMode;
+	}
+
+	@Test
+	public void testConcurrentMacros() throws Exception {
+		final int count = 64;
+		final ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				final int n = i;
+				results.add(pool.submit(new Callable<String>() {
+
+					@Override
+					public String call() throws Exception {
+						final Thread thread = Thread.currentThread();
+						final String name = thread.getName();
+						final String result = ij1Helper.runMacro(macro(n));
+						assertEquals(name, thread.getName());
+						assertNull(MacroContext.current());
+						return result;
+					}
+				}));
+			}
+			for (int i = 0; i < count; i++) {
+				assertEquals("image" + i + ":" + 2 * i + ":true", results.get(i)
+					.get());
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+		assertEquals(0, MacroContext.getActiveCount());
+	}
+
+	@Test
+	public void testMixedBatchModeAndAborts() throws Exception {
+		final int count = 24;
+		final Map<Integer, MacroContext> contexts = new ConcurrentHashMap<>();
+		started = new CountDownLatch(count / 6);
+		final ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				final int n = i;
+				results.add(pool.submit(new Callable<String>() {
+
+					@Override
+					public String call() throws Exception {
+						if (n % 6 == 5) {
+							return MacroContext.run(new Callable<String>() {
+
+								@Override
+								public String call() {
+									contexts.put(n, MacroContext.current());
+									return ij1Helper.runMacro(loopMacro());
+								}
+							});
+						}
+						if (n % 2 == 0) return ij1Helper.runMacro(macro(n));
+						return ij1Helper.runMacro("return \"plain" + n + "\";");
+					}
+				}));
+			}
+			assertTrue(started.await(30, TimeUnit.SECONDS));
+			for (final MacroContext c : contexts.values()) {
+				c.abort();
+				assertTrue(c.isAborted());
+			}
+			for (int i = 0; i < count; i++) {
+				final String result = results.get(i).get(30, TimeUnit.SECONDS);
+				if (i % 6 == 5) assertEquals("[aborted]", result);
+				else if (i % 2 == 0) {
+					assertEquals("image" + i + ":" + 2 * i + ":true", result);
+				}
+				else assertEquals("plain" + i, result);
+			}
+		}
+		finally {
+			pool.shutdownNow();
+		}
+		assertEquals(0, MacroContext.getActiveCount());
+	}
+
+	@Test
+	public void testBatchModeImagesOutliveInvocation() {
+		assertEquals("", ij1Helper.runMacro("setBatchMode(true);\n" + //
+			"newImage(\"kept\", \"8-bit black\", 8, 8, 1);\n" + //
+			"setPixel(1, 2, 42);\n" + //
+			"return \"\";\n"));
+		assertEquals(0, MacroContext.getActiveCount());
+
+		// NB: the batch mode image is still there for the next invocation
+		assertEquals("kept:42", ij1Helper.runMacro("selectImage(\"kept\");\n" + //
+			"result = getTitle() + \":\" + getPixel(1, 2);\n" + //
+			"close();\n" + //
+			"return result;\n"));
+	}
+
+	@Test
+	public void testAbortBeforeRun() {
+		final String result = MacroContext.run(new Callable<String>() {
+
+			@Override
+			public String call() {
+				MacroContext.current().abort();
+				return ij1Helper.runMacro("return \"ran\";");
+			}
+		});
+		assertEquals("[aborted]", result);
+		assertEquals(0, MacroContext.getActiveCount());
+	}
+
+	@Test
+	public void testOptions() {
+		final Thread thread = Thread.currentThread();
+		final String name = thread.getName();
+		MacroContext.run(new Callable<Void>() {
+
+			@Override
+			public Void call() {
+				Macro.setOptions(thread, "outer=1");
+				MacroContext.run(new Callable<Void>() {
+
+					@Override
+					public Void call() {
+						Macro.setOptions(thread, "inner=2");
+						assertEquals("inner=2 ", Macro.getOptions());
+						return null;
+					}
+				});
+				assertEquals("outer=1 ", Macro.getOptions());
+				return null;
+			}
+		});
+		assertEquals(name, thread.getName());
+		assertNull(Macro.getOptions());
+	}
+
+	@Test
+	public void testNestedInterpreters() {
+		MacroContext.run(new Callable<Void>() {
+
+			@Override
+			public Void call() {
+				assertEquals("true", ij1Helper.runMacro(
+					"return call(\"" + MacroContextTest.class.getName() +
+						".checkInterpreter\");"));
+				final MacroContext outer = MacroContext.current();
+				assertNull(outer.getInterpreter());
+				assertSame(Thread.currentThread(), outer.getThread());
+				return null;
+			}
+		});
+	}
+
+	/** Called by the looping test macros once they run. */
+	public static String started() {
+		started.countDown();
+		return "";
+	}
+
+	/** Called by the test macros to check the interpreter of their context. */
+	public static String checkInterpreter() {
+		final MacroContext current = MacroContext.current();
+		if (current == null || current.getInterpreter() == null) return "false";
+		return String.valueOf(current.getInterpreter() == IJ1Helper
+			.getInterpreter());
+	}
+
+	// -- Helper methods --
+
+	/** Gets a macro which loops until it is aborted. */
+	private static String loopMacro() {
+		return "call(\"" + MacroContextTest.class.getName() + ".started\");\n" + //
+			"while (true) wait(5);\n";
+	}
+
+	private static String macro(final int n) {
+		return "setBatchMode(true);\n" + //
+			"newImage(\"image" + n + "\", \"8-bit black\", 16, 16, 1);\n" + //
+			"setPixel(3, 4, " + n + ");\n" + //
+			"setPixel(3, 4, getPixel(3, 4) * 2);\n" + //
+			"result = getTitle() + \":\" + getPixel(3, 4);\n" + //
+			"result = result + \":\" + call(\"" + MacroContextTest.class.getName() +
+			".checkInterpreter\");\n" + //
+			"close();\n" + //
+			"return result;\n";
+	}
+
+}
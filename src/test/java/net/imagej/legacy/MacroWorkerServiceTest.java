@@ -0,0 +1,203 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.imagej.legacy.MacroWorkerService.MacroResult;
+import net.imagej.patcher.LegacyInjector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+
+/**
+ * Tests {@link MacroWorkerService}.
+ */
+public class MacroWorkerServiceTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	private Context context;
+	private MacroWorkerService macroWorkerService;
+
+	@Before
+	public void setUp() {
+		System.setProperty(MacroWorkerService.THREADS_PROPERTY, "2");
+		System.setProperty(MacroWorkerService.QUEUE_PROPERTY, "1");
+		try {
+			context = new Context(LegacyService.class, MacroWorkerService.class);
+		}
+		finally {
+			System.clearProperty(MacroWorkerService.THREADS_PROPERTY);
+			System.clearProperty(MacroWorkerService.QUEUE_PROPERTY);
+		}
+		macroWorkerService = context.service(MacroWorkerService.class);
+	}
+
+	@After
+	public void tearDown() {
+		if (context != null) context.dispose();
+	}
+
+	@Test
+	public void testSubmit() throws Exception {
+		assertEquals(2, macroWorkerService.getThreadCount());
+		assertEquals(1, macroWorkerService.getQueueCapacity());
+		macroWorkerService.warmUp();
+
+		final int count = 32;
+		final List<Future<MacroResult>> futures = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			futures.add(macroWorkerService.submit("return \"\" + " + i + " * " + i +
+				";"));
+		}
+		for (int i = 0; i < count; i++) {
+			final MacroResult result = futures.get(i).get();
+			assertTrue(result.isSuccess());
+			assertEquals(String.valueOf(i * i), result.getValue());
+			assertTrue(result.getLatency() >= result.getRunTime());
+		}
+		assertEquals(count, macroWorkerService.getSubmittedCount());
+		assertEquals(count, macroWorkerService.getCompletedCount());
+		assertEquals(0, macroWorkerService.getFailedCount());
+		assertEquals(0, macroWorkerService.getPendingCount());
+		assertTrue(macroWorkerService.getMaxLatency() >= macroWorkerService
+			.getMeanLatency());
+		assertTrue(macroWorkerService.getThroughput() > 0);
+	}
+
+	@Test
+	public void testBackPressure() throws Exception {
+		// NB: Two jobs run, and one waits in line.
+		final List<Future<MacroResult>> futures = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			futures.add(macroWorkerService.submit("wait(300); return \"slow\";"));
+		}
+		assertNull(macroWorkerService.offer("return \"fast\";", 0,
+			TimeUnit.MILLISECONDS));
+		for (final Future<MacroResult> future : futures) {
+			assertEquals("slow", future.get().getValue());
+		}
+		final Future<MacroResult> fast = macroWorkerService.offer(
+			"return \"fast\";", 1, TimeUnit.SECONDS);
+		assertNotNull(fast);
+		assertEquals("fast", fast.get().getValue());
+	}
+
+	@Test
+	public void testSocket() throws IOException {
+		final int port = macroWorkerService.listen(0);
+		final String token = macroWorkerService.getToken();
+		assertNotNull(token);
+
+		try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+			port);
+				final BufferedReader in = reader(socket);
+				final Writer out = writer(socket))
+		{
+			assertEquals("ok", request(in, out, "token\t" + token));
+			final String reply = request(in, out, "eval\t" + LineCodec.escape(
+				"a = \"tab\\tand\\nnewline\";\nreturn a;"));
+			final String[] fields = LineCodec.split(reply);
+			assertEquals(3, fields.length);
+			assertEquals("ok", fields[0]);
+			assertEquals("tab\tand\nnewline", fields[2]);
+			assertTrue(request(in, out, "stats").startsWith("ok\tsubmitted=1\t"));
+			assertTrue(request(in, out, "bogus").startsWith("error\t"));
+		}
+
+		try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+			port);
+				final BufferedReader in = reader(socket);
+				final Writer out = writer(socket))
+		{
+			assertEquals("error\tinvalid token", request(in, out,
+				"eval\treturn \"x\";"));
+			assertNull(in.readLine());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSocketRequiresToken() throws IOException {
+		macroWorkerService.listen(0, null);
+	}
+
+	@Test
+	public void testLineCodec() {
+		final String s = "back\\slash\ttab\rreturn\nnewline";
+		assertEquals("back\\\\slash\\ttab\\rreturn\\nnewline", LineCodec.escape(
+			s));
+		assertEquals(s, LineCodec.unescape(LineCodec.escape(s)));
+		assertEquals("plain", LineCodec.escape("plain"));
+	}
+
+	// -- Helper methods --
+
+	private static BufferedReader reader(final Socket socket)
+		throws IOException
+	{
+		return new BufferedReader(new InputStreamReader(socket.getInputStream(),
+			StandardCharsets.UTF_8));
+	}
+
+	private static Writer writer(final Socket socket) throws IOException {
+		return new OutputStreamWriter(socket.getOutputStream(),
+			StandardCharsets.UTF_8);
+	}
+
+	private static String request(final BufferedReader in, final Writer out,
+		final String line) throws IOException
+	{
+		out.write(line + "\n");
+		out.flush();
+		return in.readLine();
+	}
+
+}
@@ -0,0 +1,185 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import net.imagej.patcher.LegacyInjector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.log.LogService;
+
+/**
+ * Tests {@link SingleInstance}.
+ */
+public class SingleInstanceTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	/** A channel unlikely to be used by a running ImageJ. */
+	private static final int CHANNEL = 7000 + (int) (Math.random() * 1000);
+
+	private Context context;
+	private LogService log;
+	private IJ1Helper ij1Helper;
+
+	@Before
+	public void setUp() {
+		context = new Context(LegacyService.class);
+		log = context.service(LogService.class);
+		ij1Helper = context.service(LegacyService.class).getIJ1Helper();
+		stub().delete();
+	}
+
+	@After
+	public void tearDown() {
+		SingleInstance.shutDown();
+		if (context != null) context.dispose();
+	}
+
+	@Test
+	public void testSendArguments() {
+		assertFalse(instance().sendArguments(new String[0]));
+		assertTrue(stub().exists());
+
+		final SingleInstance client = instance();
+		assertTrue(client.sendArguments(new String[] { //
+			"-eval", "return \"\" + 6 * 7;", //
+			"-eval", "return \"tab\\tand\\nnewline\";" }));
+		assertEquals(0, client.getExitCode());
+		assertEquals(Arrays.asList("42", "tab\tand\nnewline"), client.getResults());
+	}
+
+	@Test
+	public void testStaleStub() throws IOException {
+		// write a stub describing a port nobody listens on anymore
+		final int port;
+		try (final ServerSocket socket = new ServerSocket(0, 1, InetAddress
+			.getLoopbackAddress()))
+		{
+			port = socket.getLocalPort();
+		}
+		try (final Writer out = new OutputStreamWriter(new FileOutputStream(
+			stub()), StandardCharsets.UTF_8))
+		{
+			out.write("ImageJ-SingleInstance 1\n" + port + "\nstale\n");
+		}
+
+		assertFalse(instance().sendArguments(new String[0]));
+		assertTrue(instance().sendArguments(new String[] { "-eval", "1;" }));
+	}
+
+	@Test
+	public void testUnparseableStub() throws IOException {
+		// NB: Older versions wrote a serialized RMI stub.
+		Files.write(stub().toPath(), new byte[] { (byte) 0xac, (byte) 0xed, 0, 5,
+			's', 'r' });
+
+		assertFalse(instance().sendArguments(new String[0]));
+		assertTrue(instance().sendArguments(new String[] { "-eval", "1;" }));
+	}
+
+	@Test
+	public void testForeignListener() throws Exception {
+		// a listener which is not an instance: it hangs up on every client
+		try (final ServerSocket socket = new ServerSocket(0, 1, InetAddress
+			.getLoopbackAddress()))
+		{
+			final Thread thread = new Thread() {
+
+				@Override
+				public void run() {
+					try (final Socket client = socket.accept()) {
+						// hang up
+					}
+					catch (final IOException exc) {
+						// closed
+					}
+				}
+			};
+			thread.start();
+			try (final Writer out = new OutputStreamWriter(new FileOutputStream(
+				stub()), StandardCharsets.UTF_8))
+			{
+				out.write("ImageJ-SingleInstance 1\n" + socket.getLocalPort() +
+					"\nforeign\n");
+			}
+
+			assertFalse(instance().sendArguments(new String[0]));
+			thread.join();
+		}
+		assertTrue(instance().sendArguments(new String[] { "-eval", "1;" }));
+	}
+
+	@Test
+	public void testStubIsPrivate() throws IOException {
+		assertFalse(instance().sendArguments(new String[0]));
+		if (!FileSystems.getDefault().supportedFileAttributeViews().contains(
+			"posix")) return;
+		final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(
+			stub().toPath());
+		assertTrue(EnumSet.of(PosixFilePermission.OWNER_READ,
+			PosixFilePermission.OWNER_WRITE).containsAll(permissions));
+	}
+
+	// -- Helper methods --
+
+	private SingleInstance instance() {
+		return new SingleInstance(CHANNEL, log, ij1Helper);
+	}
+
+	private File stub() {
+		return new File(instance().getStubPath());
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import ij.gui.OvalRoi;
+import ij.gui.Overlay;
+import ij.gui.PointRoi;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.patcher.LegacyInjector;
+import net.imagej.roi.ROITree;
+import net.imglib2.roi.MaskPredicate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.convert.ConvertService;
+
+/**
+ * Tests {@link BatchConverter}.
+ */
+public class BatchConverterTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	private Context context;
+	private ConvertService convertService;
+
+	@Before
+	public void setUp() {
+		context = new Context(ConvertService.class);
+		convertService = context.service(ConvertService.class);
+	}
+
+	@After
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void testMatchesConvertService() {
+		final List<Roi> rois = createRois(3 * BatchConverter.PARALLEL_THRESHOLD);
+		final BatchConverter<MaskPredicate> batch = new BatchConverter<>(
+			convertService, MaskPredicate.class);
+		final List<MaskPredicate> converted = batch.convertAll(rois);
+
+		assertEquals(rois.size(), converted.size());
+		for (int i = 0; i < rois.size(); i++) {
+			final MaskPredicate<?> expected = convertService.convert(rois.get(i),
+				MaskPredicate.class);
+			assertSame(expected.getClass(), converted.get(i).getClass());
+		}
+		assertEquals(rois.size() / 4, batch.getCount(PointRoi.class));
+		assertEquals(rois.size() / 4, batch.getCount(OvalRoi.class));
+		assertEquals(0, batch.getCount(Overlay.class));
+	}
+
+	@Test
+	public void testOverlayRoundTrip() {
+		final List<Roi> rois = createRois(2 * BatchConverter.PARALLEL_THRESHOLD);
+		final Overlay overlay = new Overlay();
+		for (final Roi roi : rois)
+			overlay.add(roi);
+
+		final ROITree tree = convertService.convert(overlay, ROITree.class);
+		assertEquals(rois.size(), tree.children().size());
+
+		final Overlay back = convertService.convert(tree, Overlay.class);
+		assertEquals(rois.size(), back.size());
+		for (int i = 0; i < rois.size(); i++)
+			assertTrue(rois.get(i) == back.get(i));
+	}
+
+	@Test
+	public void testMixedOverlay() {
+		final Overlay overlay = new Overlay();
+		overlay.add(new PointRoi(new float[] { 1, 5 }, new float[] { 2, 7 }));
+		overlay.add(new Roi(3, 4, 10, 12));
+		overlay.add(new PolygonRoi(new float[] { 0, 10, 5 }, new float[] { 0, 0,
+			8 }, Roi.POLYGON));
+		overlay.add(new PointRoi(9, 9));
+
+		final ROITree tree = convertService.convert(overlay, ROITree.class);
+		assertEquals(overlay.size(), tree.children().size());
+		for (int i = 0; i < overlay.size(); i++) {
+			final MaskPredicate<?> expected = convertService.convert(overlay.get(i),
+				MaskPredicate.class);
+			assertSame(expected.getClass(), tree.children().get(i).data()
+				.getClass());
+		}
+	}
+
+	// -- Helper methods --
+
+	private static List<Roi> createRois(final int count) {
+		final List<Roi> rois = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			switch (i % 4) {
+				case 0:
+					rois.add(new PointRoi(i, i + 0.5));
+					break;
+				case 1:
+					rois.add(new OvalRoi(i, i, 10, 12));
+					break;
+				case 2:
+					rois.add(new PolygonRoi(new float[] { i, i + 10, i + 5 },
+						new float[] { 0, 0, 8 }, Roi.POLYGON));
+					break;
+				default:
+					rois.add(new Roi(i, i, 4, 6));
+			}
+		}
+		return rois;
+	}
+
+}
@@ -29,8 +29,10 @@
 
 package net.imagej.legacy.convert;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import ij.IJ;
@@ -38,9 +40,13 @@ import ij.ImagePlus;
 import ij.gui.OvalRoi;
 import ij.gui.Overlay;
 import ij.gui.Roi;
+import ij.measure.Measurements;
 import ij.measure.ResultsTable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 
 import net.imagej.patcher.LegacyInjector;
 import org.scijava.table.BoolTable;
@@ -252,6 +258,104 @@ public class ResultsTableConversionTest {
 		}
 	}
 
+	@Test
+	public void testResultsTableWrapperRowLabels() {
+		final ResultsTable rt = new ResultsTable();
+		for (int r = 0; r < 10; r++) {
+			rt.setValue("value", r, r);
+			rt.setLabel("row" + r % 5, r);
+		}
+		final ResultsTableWrapper t = new ResultsTableWrapper(rt);
+		assertEquals(3, t.getRowIndex("row3"));
+		assertEquals(-1, t.getRowIndex("missing"));
+
+		// relabeling through the wrapper updates the index
+		t.setRowHeader(3, "three");
+		assertEquals(8, t.getRowIndex("row3"));
+		assertEquals(3, t.getRowIndex("three"));
+
+		// appended rows are indexed
+		t.appendRow("new");
+		assertEquals(10, t.getRowIndex("new"));
+
+		// repeated labels remove successive rows
+		t.removeRows("row1", "missing", "row4", "row1");
+		assertEquals(8, t.getRowCount());
+		assertEquals(1, t.getColumnCount());
+		final double[] expected = { 0, 2, 3, 5, 7, 8, 9, 0 };
+		for (int r = 0; r < expected.length; r++) {
+			assertEquals(expected[r], (Double) t.get(0, r), 0);
+		}
+		assertEquals(-1, t.getRowIndex("row1"));
+		assertEquals(5, t.getRowIndex("row3"));
+		assertEquals(7, t.getRowIndex("new"));
+	}
+
+	@Test
+	public void testColumnWrapperGetDoubles() {
+		assertArrayEquals(values[0], new ResultsTableColumnWrapper(table, 0)
+			.getDoubles(), 0);
+		// String cells are NaN
+		final double[] mixed = new ResultsTableColumnWrapper(table, 1)
+			.getDoubles();
+		assertEquals(rowLabels.length, mixed.length);
+		assertTrue(Double.isNaN(mixed[0]));
+		for (int r = 1; r < mixed.length; r++) {
+			assertEquals(values[1][r], mixed[r], 0);
+		}
+	}
+
+	@Test
+	public void testResultsTableWrapperGetColumnAsDoubles() {
+		final ResultsTableWrapper wrapper = new ResultsTableWrapper(table);
+		assertArrayEquals(values[0], wrapper.getColumnAsDoubles(0), 0);
+		assertArrayEquals(values[4], wrapper.getColumnAsDoubles(4), 0);
+
+		// the result is a copy
+		wrapper.getColumnAsDoubles(0)[0] = 42;
+		assertEquals(values[0][0], table.getValueAsDouble(0, 0), 0);
+	}
+
+	@Test
+	public void testResultsTableWrapperSetColumn() {
+		final ResultsTableWrapper wrapper = new ResultsTableWrapper(table);
+		final double[] numbers = { 7, 6, 5, 4, 3, 2, 1 };
+		wrapper.setColumn(0, numbers);
+		assertEquals(numbers.length, table.size());
+		assertEquals(numbers.length, wrapper.getRowCount());
+		assertArrayEquals(numbers, table.getColumnAsDoubles(0), 0);
+		// the other columns are padded with empty cells
+		assertEquals(ResultsTables.emptyCellValue(table), table.getValueAsDouble(
+			1, 6), 0);
+
+		// columns holding Strings are overwritten cell by cell
+		final double[] mixed = { 1, 2, 3 };
+		wrapper.setColumn(2, mixed);
+		for (int r = 0; r < mixed.length; r++) {
+			assertEquals(mixed[r], table.getValueAsDouble(2, r), 0);
+		}
+		assertEquals("w", table.getStringValue(2, 4));
+	}
+
+	@Test
+	public void testResultsTableWrapperRowIterator() {
+		final ResultsTableWrapper wrapper = new ResultsTableWrapper(table);
+		final Iterator<double[]> rows = wrapper.rowIterator();
+		double[] previous = null;
+		int r = 0;
+		while (rows.hasNext()) {
+			final double[] row = rows.next();
+			if (previous != null) assertSame(previous, row);
+			previous = row;
+			assertEquals(headings.length, row.length);
+			for (int c = 0; c < row.length; c++) {
+				assertEquals(table.getValueAsDouble(c, r), row[c], 0);
+			}
+			r++;
+		}
+		assertEquals(rowLabels.length, r);
+	}
+
 	@Test
 	public void testConvert() {
 		final GenericTable t = convertService.convert(table, GenericTable.class);
@@ -346,6 +450,95 @@ public class ResultsTableConversionTest {
 		}
 	}
 
+	@Test
+	public void testTableWrapperModifications() {
+		final Double[][] data = new Double[][] { { 10.5, 20.25, 11.0 }, { -0.125,
+			100.25, -20.5 } };
+		final DoubleTable dt = new DefaultDoubleTable(data.length,
+			data[0].length);
+		populateTable(dt, data);
+
+		final TableWrapper ijTable = new TableWrapper(dt, convertService);
+		assertTablesEqual(dt, ijTable);
+		final long modCount = ijTable.getModificationCount();
+
+		ijTable.incrementCounter();
+		ijTable.addValue(0, 7.5);
+		ijTable.addValue(1, -3);
+		assertTrue(ijTable.getModificationCount() > modCount);
+		assertEquals(4, dt.getRowCount());
+		assertTablesEqual(dt, ijTable);
+		assertEquals(7.5, dt.getValue(0, 3), 0);
+		assertEquals(-3, dt.getValue(1, 3), 0);
+	}
+
+	@Test
+	public void testTableWrapperUpdate() {
+		final DoubleTable dt = new DefaultDoubleTable(1, 2);
+		dt.setColumnHeader(0, "Area");
+		dt.setValue(0, 0, 10.5);
+		dt.setValue(0, 1, 20.25);
+
+		final TableWrapper ijTable = new TableWrapper(dt, convertService);
+		final long modCount = ijTable.getModificationCount();
+
+		// NB: updating adds the Mean column without appending any row
+		final ImagePlus imp = IJ.createImage("blank", "8-bit black", 10, 10, 1);
+		ijTable.update(Measurements.AREA | Measurements.MEAN, imp, null);
+		final int mean = ijTable.getColumnIndex("Mean");
+		assertTrue(mean > 0);
+		assertTrue(ijTable.getModificationCount() > modCount);
+		assertEquals(ijTable.getLastColumn() + 1, dt.getColumnCount());
+		assertEquals("Mean", dt.getColumnHeader(mean));
+		assertEquals(2, dt.getRowCount());
+		assertEquals(10.5, dt.getValue(0, 0), 0);
+		assertEquals(20.25, dt.getValue(0, 1), 0);
+	}
+
+	@Test
+	public void testTableWrapperApplyMacro() {
+		final DoubleTable dt = new DefaultDoubleTable(2, 3);
+		dt.setColumnHeader(0, "a");
+		dt.setColumnHeader(1, "b");
+		for (int r = 0; r < 3; r++)
+			dt.setValue(0, r, r + 1);
+
+		final TableWrapper ijTable = new TableWrapper(dt, convertService);
+		assertTrue(ijTable.applyMacro("b = a * 2; Sum = a + b;"));
+
+		// NB: the macro modifies existing rows and adds a column
+		final int sum = dt.getColumnIndex("Sum");
+		assertTrue(sum > 1);
+		assertEquals(3, dt.getRowCount());
+		for (int r = 0; r < 3; r++) {
+			assertEquals(2 * (r + 1), dt.getValue(1, r), 0);
+			assertEquals(3 * (r + 1), dt.getValue(sum, r), 0);
+		}
+		assertTablesEqual(dt, ijTable);
+	}
+
+	@Test
+	public void testTableListWrapperSynchronize() {
+		final GenericTable t = createGenericTable();
+		final List<Table<?, ?>> tables = new ArrayList<>();
+		tables.add(t);
+		final TableListWrapper wrapper = new TableListWrapper(tables,
+			convertService);
+
+		// NB: Unchanged tables are kept as is.
+		assertEquals(1, wrapper.size());
+		assertSame(tables, wrapper.getUpdatedSource());
+		assertSame(t, wrapper.getUpdatedSource().get(0));
+
+		// NB: Only added tables are converted.
+		wrapper.add(table);
+		final List<Table<?, ?>> updated = wrapper.getUpdatedSource();
+		assertEquals(2, updated.size());
+		assertSame(t, updated.get(0));
+		assertSame(updated.get(1), wrapper.getUpdatedSource().get(1));
+		assertSame(updated, wrapper.getUpdatedSource());
+	}
+
 	@Test
 	public void testConvertGenericTable() {
 		final GenericTable t = createGenericTable();
@@ -31,6 +31,7 @@ package net.imagej.legacy.convert.roi;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import ij.IJ;
@@ -45,6 +46,7 @@ import ij.gui.RotatedRectRoi;
 import ij.gui.TextRoi;
 
 import java.awt.Rectangle;
+import java.lang.reflect.Field;
 
 import net.imagej.legacy.convert.roi.RoiUnwrappers.WrapperToEllipseRoiConverter;
 import net.imagej.legacy.convert.roi.RoiUnwrappers.WrapperToLineConverter;
@@ -52,9 +54,12 @@ import net.imagej.legacy.convert.roi.RoiUnwrappers.WrapperToPolygonRoiConverter;
 import net.imagej.legacy.convert.roi.RoiUnwrappers.WrapperToRoiConverter;
 import net.imagej.legacy.convert.roi.RoiUnwrappers.WrapperToRotatedRectRoiConverter;
 import net.imglib2.Point;
+import net.imglib2.RandomAccess;
 import net.imglib2.RealLocalizable;
+import net.imglib2.roi.IterableRegion;
 import net.imglib2.roi.MaskInterval;
 import net.imglib2.roi.MaskPredicate;
+import net.imglib2.type.logic.BitType;
 
 import org.junit.After;
 import org.junit.Before;
@@ -228,6 +233,39 @@ public class DefaultRoiConversionTest {
 		assertFalse(w.test(test));
 	}
 
+	@Test
+	public void testDefaultRoiWrapperMaskRegion() throws Exception {
+		final EllipseRoi e = new EllipseRoi(10, 11, 20, 21, 0.5);
+		final DefaultRoiWrapper<EllipseRoi> w = new DefaultRoiWrapper<>(e);
+
+		IterableRegion<BitType> region = w.getMaskRegion();
+		assertSame(region, w.getMaskRegion());
+		assertRegionMatches(w, region);
+
+		// moving the roi updates the bounds and the mask
+		e.setLocation(30, 40);
+		assertEquals(30, w.min(0));
+		assertEquals(40, w.min(1));
+		assertEquals(30, w.realMin(0), 0);
+		region = w.getMaskRegion();
+		assertEquals(30, region.min(0));
+		assertRegionMatches(w, region);
+
+		// moving a vertex within the bounds updates the mask, too
+		final PolygonRoi p = new PolygonRoi(new float[] { 0, 10, 5, 10, 0 },
+			new float[] { 0, 0, 5, 10, 10 }, Roi.POLYGON);
+		final DefaultRoiWrapper<PolygonRoi> pw = new DefaultRoiWrapper<>(p);
+		region = pw.getMaskRegion();
+		assertFalse(p.contains(7, 5));
+		assertRegionMatches(pw, region);
+
+		moveVertexInPlace(p, 2, 8);
+		assertTrue(p.contains(7, 5));
+		assertEquals(10, pw.max(0));
+		region = pw.getMaskRegion();
+		assertRegionMatches(pw, region);
+	}
+
 	// -- To MaskInterval conversion tests --
 
 	@Test
@@ -381,4 +419,42 @@ public class DefaultRoiConversionTest {
 		assertEquals(Roi.POLYGON, crrr.getType());
 		assertTrue(rrr == crrr);
 	}
+
+	// -- Helper methods --
+
+	/**
+	 * Moves a vertex of the given {@link PolygonRoi} like dragging its handle
+	 * does: in place, and dropping the cached mask.
+	 */
+	private static void moveVertexInPlace(final PolygonRoi roi, final int index,
+		final float x) throws Exception
+	{
+		final Field xpf = PolygonRoi.class.getDeclaredField("xpf");
+		xpf.setAccessible(true);
+		((float[]) xpf.get(roi))[index] = x;
+		try {
+			final Field cachedMask = Roi.class.getDeclaredField("cachedMask");
+			cachedMask.setAccessible(true);
+			cachedMask.set(roi, null);
+		}
+		catch (final NoSuchFieldException exc) {
+			// NB: this version of ImageJ 1.x does not cache masks
+		}
+	}
+
+	private static void assertRegionMatches(final MaskInterval w,
+		final IterableRegion<BitType> region)
+	{
+		final RandomAccess<BitType> ra = region.randomAccess();
+		long count = 0;
+		for (long y = region.min(1); y <= region.max(1); y++) {
+			for (long x = region.min(0); x <= region.max(0); x++) {
+				test.setPosition(new long[] { x, y });
+				ra.setPosition(test);
+				assertEquals(w.test(test), ra.get().get());
+				if (ra.get().get()) count++;
+			}
+		}
+		assertEquals(count, region.size());
+	}
 }
@@ -0,0 +1,200 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.convert.roi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import ij.gui.PointRoi;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+
+import net.imglib2.RealLocalizable;
+import net.imglib2.RealPoint;
+import net.imglib2.roi.geom.GeomMaths;
+
+import org.junit.Test;
+
+import gnu.trove.list.array.TDoubleArrayList;
+
+/**
+ * Tests {@link RoiVertices}.
+ */
+public class RoiVerticesTest {
+
+	@Test
+	public void testPolygonMatchesPnpoly() {
+		final Random r = new Random(0xdeadbeef);
+		final int n = 500;
+		final float[] x = new float[n];
+		final float[] y = new float[n];
+		// a star-shaped polygon with many spikes
+		for (int i = 0; i < n; i++) {
+			final double angle = 2 * Math.PI * i / n;
+			final double radius = 50 + 40 * r.nextDouble();
+			x[i] = (float) (100 + radius * Math.cos(angle));
+			y[i] = (float) (100 + radius * Math.sin(angle));
+		}
+		final PolygonRoi roi = new PolygonRoi(x, y, Roi.POLYGON);
+		final RoiVertices vertices = RoiVertices.polygon(roi);
+
+		final TDoubleArrayList xl = new TDoubleArrayList();
+		final TDoubleArrayList yl = new TDoubleArrayList();
+		for (int i = 0; i < n; i++) {
+			xl.add(x[i]);
+			yl.add(y[i]);
+		}
+		for (int i = 0; i < 10000; i++) {
+			final RealPoint p = new RealPoint(200 * r.nextDouble(), 200 * r
+				.nextDouble());
+			assertEquals(GeomMaths.pnpoly(xl, yl, p), vertices.polygonContains(p));
+		}
+		assertFalse(vertices.polygonContains(new RealPoint(-5, 100)));
+		assertTrue(vertices.polygonContains(new RealPoint(100, 100)));
+	}
+
+	@Test
+	public void testPolyline() {
+		final PolygonRoi roi = new PolygonRoi(new float[] { 0, 10, 10, 20 },
+			new float[] { 0, 10, 30, 30 }, Roi.POLYLINE);
+		final RoiVertices vertices = RoiVertices.polyline(roi);
+		assertTrue(vertices.polylineContains(new RealPoint(5, 5)));
+		assertTrue(vertices.polylineContains(new RealPoint(10, 20)));
+		assertTrue(vertices.polylineContains(new RealPoint(15, 30)));
+		assertFalse(vertices.polylineContains(new RealPoint(5, 6)));
+		assertFalse(vertices.polylineContains(new RealPoint(20, 0)));
+		assertEquals(0, vertices.min(0), 0);
+		assertEquals(30, vertices.max(1), 0);
+	}
+
+	@Test
+	public void testPoints() {
+		final PointRoi roi = new PointRoi(new float[] { 1.5f, -0f, 7 },
+			new float[] { 2.25f, 3, 7 });
+		final RoiVertices vertices = RoiVertices.points(roi);
+		assertTrue(vertices.pointsContain(new RealPoint(1.5, 2.25)));
+		assertTrue(vertices.pointsContain(new RealPoint(0, 3)));
+		assertFalse(vertices.pointsContain(new RealPoint(1.5, 2.5)));
+		assertFalse(vertices.pointsContain(new RealPoint(Double.NaN, 7)));
+	}
+
+	@Test
+	public void testModificationStamp() {
+		final PolygonRoi roi = new PolygonRoi(new float[] { 0, 10, 10 },
+			new float[] { 0, 0, 10 }, Roi.POLYGON);
+		final RoiVertices vertices = RoiVertices.polygon(roi);
+		assertTrue(vertices.isCurrent(roi));
+
+		roi.setLocation(5.0, 5.0);
+		assertFalse(vertices.isCurrent(roi));
+		final RoiVertices moved = RoiVertices.polygon(roi);
+		assertTrue(moved.isCurrent(roi));
+		assertTrue(moved.polygonContains(new RealPoint(13, 7)));
+		assertFalse(vertices.polygonContains(new RealPoint(13, 7)));
+	}
+
+	@Test
+	public void testModificationStampChecksum() throws Exception {
+		final PolygonRoi roi = new PolygonRoi(new float[] { 0, 10, 5, 10, 0 },
+			new float[] { 0, 0, 5, 10, 10 }, Roi.POLYGON);
+		final RoiVertices vertices = RoiVertices.polygon(roi);
+		assertFalse(vertices.polygonContains(new RealPoint(7, 5)));
+
+		// move a vertex in place, like dragging its handle, within the bounds
+		final Field xpf = PolygonRoi.class.getDeclaredField("xpf");
+		xpf.setAccessible(true);
+		((float[]) xpf.get(roi))[2] = 8;
+		// NB: the constant time check does not read the vertices
+		assertTrue(vertices.isCurrent(roi));
+		assertFalse(vertices.isIntact(roi));
+		final RoiVertices moved = RoiVertices.polygon(roi);
+		assertTrue(moved.isIntact(roi));
+		assertTrue(moved.polygonContains(new RealPoint(7, 5)));
+	}
+
+	@Test
+	public void testWrapperCachesVertices() {
+		final PolygonRoi roi = new PolygonRoi(new float[] { 0, 10, 10 },
+			new float[] { 0, 0, 10 }, Roi.POLYGON);
+		final AbstractPolygonRoiWrapper wrapper =
+			new AbstractPolygonRoiWrapper(roi)
+			{
+
+				@Override
+				public boolean test(final RealLocalizable t) {
+					return vertices().polygonContains(t);
+				}
+			};
+		final RoiVertices v = wrapper.vertices();
+		assertSame(v, wrapper.vertices());
+		assertTrue(wrapper.test(new RealPoint(8, 2)));
+
+		roi.setLocation(20.0, 20.0);
+		assertNotSame(v, wrapper.vertices());
+		assertFalse(wrapper.test(new RealPoint(8, 2)));
+		assertEquals(20, wrapper.realMin(0), 0);
+	}
+
+	@Test
+	public void testWrapperTestDoesNotReadVertices() throws Exception {
+		final PolygonRoi roi = new PolygonRoi(new float[] { 0, 10, 5, 10, 0 },
+			new float[] { 0, 0, 5, 10, 10 }, Roi.POLYGON);
+		final AbstractPolygonRoiWrapper wrapper =
+			new AbstractPolygonRoiWrapper(roi)
+			{
+
+				@Override
+				public boolean test(final RealLocalizable t) {
+					return vertices().polygonContains(t);
+				}
+			};
+		final RoiVertices v = wrapper.vertices();
+		assertFalse(wrapper.test(new RealPoint(7, 5)));
+
+		// move a vertex in place, within the bounds: test() keeps the snapshot,
+		// since it only does constant time checks
+		final Field xpf = PolygonRoi.class.getDeclaredField("xpf");
+		xpf.setAccessible(true);
+		((float[]) xpf.get(roi))[2] = 8;
+		assertFalse(wrapper.test(new RealPoint(7, 5)));
+		assertSame(v, wrapper.vertices());
+
+		// the bounds verify the checksum, and retake the snapshot
+		assertEquals(0, wrapper.realMin(0), 0);
+		assertNotSame(v, wrapper.vertices());
+		assertTrue(wrapper.test(new RealPoint(7, 5)));
+	}
+}
@@ -29,9 +29,12 @@
 
 package net.imagej.legacy.plugin;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeTrue;
 
 import java.util.concurrent.ExecutionException;
 
@@ -40,6 +43,9 @@ import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
+import net.imagej.legacy.CompiledMacroCache;
+import net.imagej.legacy.LegacyService;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -118,6 +124,62 @@ public class IJ1MacroLanguageTest {
 		assertNull(engine.get("goodbye"));
 	}
 
+	@Test
+	public void testArrayBindings() throws ScriptException {
+		final ScriptLanguage language = scriptService.getLanguageByExtension("ijm");
+		final ScriptEngine engine = language.getScriptEngine();
+
+		final double[] values = new double[100000];
+		for (int i = 0; i < values.length; i++)
+			values[i] = i % 7;
+		engine.put("values", values);
+		engine.put("names", new String[] { "a", "b" });
+		engine.put("total", 0);
+		engine.put("doubled", 0);
+
+		engine.eval("" + //
+			"total = 0;\n" + //
+			"for (i = 0; i < values.length; i++) total += values[i];\n" + //
+			"doubled = newArray(names[1], 2 * values[3]);\n" //
+		);
+
+		double expected = 0;
+		for (final double v : values)
+			expected += v;
+		assertEquals(expected, engine.get("total"));
+		assertArrayEquals(new Object[] { "b", 6.0 }, (Object[]) engine.get(
+			"doubled"));
+		assertArrayEquals(values, (double[]) engine.get("values"), 0);
+	}
+
+	@Test
+	public void testMacroCache() throws ScriptException {
+		final ScriptLanguage language = scriptService.getLanguageByExtension("ijm");
+		final ScriptEngine engine = language.getScriptEngine();
+		final CompiledMacroCache cache = context.service(LegacyService.class)
+			.getIJ1Helper().getMacroCache();
+		assumeTrue(cache.isEnabled());
+		cache.clear();
+		final long misses = cache.getMissCount();
+		final long hits = cache.getHitCount();
+
+		// NB: Parameter values do not change the tokenized macro.
+		for (int i = 0; i < 5; i++) {
+			engine.put("x", i);
+			assertEquals(String.valueOf(2 * i), engine.eval("return \"\" + 2 * x;"));
+		}
+		assertEquals(misses + 1, cache.getMissCount());
+		assertEquals(hits + 4, cache.getHitCount());
+		assertEquals(1, cache.size());
+
+		cache.setMaxSize(0);
+		assertFalse(cache.isEnabled());
+		assertEquals(0, cache.size());
+		assertEquals("2", engine.eval("return \"\" + 2 * x / 4;"));
+		assertEquals(misses + 1, cache.getMissCount());
+		cache.setMaxSize(CompiledMacroCache.DEFAULT_SIZE);
+	}
+
 	@Test
 	public void testParameters() throws InterruptedException, ExecutionException {
 		final String script = "" + //
@@ -0,0 +1,173 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import ij.ImageStack;
+import ij.VirtualStack;
+import ij.process.ByteProcessor;
+import ij.process.ImageProcessor;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import net.imagej.patcher.LegacyInjector;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CachedVirtualStack}.
+ */
+public class CachedVirtualStackTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	@Test
+	public void testCachesPlanes() {
+		final CountingStack source = new CountingStack(10);
+		final CachedVirtualStack stack = new CachedVirtualStack(source, 4, 1, 10);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(3, stack.getProcessor(3).get(0, 0));
+		}
+		assertEquals(1, source.reads.get(3 - 1));
+		assertEquals(4, stack.getHitCount());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() {
+		final CountingStack source = new CountingStack(10);
+		// NB - a single slice and frame, so there is nothing to read ahead
+		final CachedVirtualStack stack = new CachedVirtualStack(source, 2, 10, 1);
+		stack.getProcessor(1);
+		stack.getProcessor(2);
+		stack.getProcessor(3);
+		stack.getProcessor(1);
+		assertEquals(2, source.reads.get(1 - 1));
+	}
+
+	@Test
+	public void testReturnsCachedPlanes() {
+		final CachedVirtualStack stack = new CachedVirtualStack(
+			new CountingStack(2), 4, 2, 1);
+		final ImageProcessor ip = stack.getProcessor(1);
+		ip.set(0, 0, 99);
+		assertSame(ip, stack.getProcessor(1));
+		assertSame(ip.getPixels(), stack.getPixels(1));
+		assertEquals(99, stack.getProcessor(1).get(0, 0));
+	}
+
+	@Test
+	public void testWritesBackDirtyPlanes() {
+		final CountingStack source = new CountingStack(3);
+		// NB - a single slice and frame, so there is nothing to read ahead
+		final CachedVirtualStack stack = new CachedVirtualStack(source, 2, 3, 1);
+		stack.getProcessor(2);
+		stack.setPixels(new byte[] { 42, 0, 0, 0 }, 2);
+		assertTrue(stack.isDirty(2));
+		assertEquals(42, stack.getProcessor(2).get(0, 0));
+		assertEquals(1, source.reads.get(2 - 1));
+		assertEquals(2, ((byte[]) source.planes.getPixels(2))[0]);
+
+		// evicting the plane writes it back
+		stack.getProcessor(1);
+		stack.getProcessor(3);
+		assertFalse(stack.isDirty(2));
+		assertEquals(42, ((byte[]) source.planes.getPixels(2))[0]);
+		assertEquals(42, stack.getProcessor(2).get(0, 0));
+	}
+
+	@Test
+	public void testSavesInPlaceEdits() {
+		final CountingStack source = new CountingStack(2);
+		final CachedVirtualStack stack = new CachedVirtualStack(source, 4, 2, 1);
+		stack.getProcessor(1).set(0, 0, 7);
+		assertFalse(stack.isDirty(1));
+		stack.saveChanges(1);
+		assertFalse(stack.isDirty(1));
+		assertEquals(7, ((byte[]) source.planes.getPixels(1))[0]);
+	}
+
+	@Test
+	public void testWritesThroughUncachedPlanes() {
+		final CountingStack source = new CountingStack(2);
+		final CachedVirtualStack stack = new CachedVirtualStack(source, 4, 2, 1);
+		stack.setPixels(new byte[] { 42, 0, 0, 0 }, 2);
+		assertFalse(stack.isDirty(2));
+		assertEquals(42, ((byte[]) source.planes.getPixels(2))[0]);
+	}
+
+	// -- Helper classes --
+
+	/** A 2x2 stack whose planes are filled with their index. */
+	private static class CountingStack extends VirtualStack {
+
+		private final ImageStack planes = new ImageStack(2, 2);
+		private final AtomicIntegerArray reads;
+
+		private CountingStack(final int size) {
+			for (int n = 1; n <= size; n++) {
+				final byte b = (byte) n;
+				planes.addSlice("" + n, new byte[] { b, b, b, b });
+			}
+			reads = new AtomicIntegerArray(size);
+		}
+
+		@Override
+		public ImageProcessor getProcessor(final int n) {
+			reads.incrementAndGet(n - 1);
+			return new ByteProcessor(2, 2, ((byte[]) planes.getPixels(n)).clone());
+		}
+
+		@Override
+		public void setPixels(final Object pixels, final int n) {
+			planes.setPixels(pixels, n);
+		}
+
+		@Override
+		public int getSize() {
+			return planes.getSize();
+		}
+
+		@Override
+		public int getWidth() {
+			return 2;
+		}
+
+		@Override
+		public int getHeight() {
+			return 2;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import ij.CompositeImage;
+import ij.ImagePlus;
+
+import net.imagej.Dataset;
+import net.imagej.DatasetService;
+import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
+import net.imagej.display.ImageDisplay;
+import net.imagej.display.ImageDisplayService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.scijava.Context;
+import org.scijava.display.DisplayService;
+
+/**
+ * Benchmark for {@link ColorTableHarmonizer} on a composite image with 100
+ * channels.
+ *
+ * @see TranslateBenchmarks
+ */
+@State(Scope.Benchmark)
+public class ColorTableHarmonizerBenchmark {
+
+	private static final int CHANNELS = 100;
+
+	private Context context;
+	private ColorTableHarmonizer harmonizer;
+	private ImageDisplay display;
+	private CompositeImage imp;
+
+	@Setup
+	public void setUp() {
+		context = new Context();
+		final DatasetService datasetService = context.service(
+			DatasetService.class);
+		final Dataset ds = datasetService.create(new long[] { 64, 64, CHANNELS },
+			"channels", new AxisType[] { Axes.X, Axes.Y, Axes.CHANNEL }, 16, false,
+			false);
+		display = (ImageDisplay) context.service(DisplayService.class)
+			.createDisplay(ds);
+		final ImagePlus created = new ImagePlusCreator(context).createLegacyImage(
+			ds, display);
+		if (!(created instanceof CompositeImage)) {
+			throw new IllegalStateException("Expected a CompositeImage");
+		}
+		imp = (CompositeImage) created;
+		harmonizer = new ColorTableHarmonizer(context.service(
+			ImageDisplayService.class));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public void updateLegacyImage() {
+		harmonizer.updateLegacyImage(display, imp);
+	}
+
+	@Benchmark
+	public void updateDisplay() {
+		harmonizer.updateDisplay(display, imp);
+	}
+}
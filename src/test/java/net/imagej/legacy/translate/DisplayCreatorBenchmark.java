@@ -35,11 +35,7 @@ import ij.gui.NewImage;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
-import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
-import org.openjdk.jmh.runner.options.TimeValue;
 import org.scijava.Context;
 
 /**
@@ -47,6 +43,7 @@ import org.scijava.Context;
  * Compare how DisplayCreator performs for images of different sizes.
  *
  * @author Matthias Arzt
+ * @see TranslateBenchmarks
  */
 @State(value = Scope.Benchmark)
 public class DisplayCreatorBenchmark
@@ -73,14 +70,8 @@ public class DisplayCreatorBenchmark
 
 	public static void main( final String... args ) throws RunnerException
 	{
-		final Options opt = new OptionsBuilder()
-				.include( DisplayCreatorBenchmark.class.getSimpleName() )
-				.forks( 0 )
-				.warmupIterations( 4 )
-				.measurementIterations( 8 )
-				.warmupTime( TimeValue.milliseconds( 100 ) )
-				.measurementTime( TimeValue.milliseconds( 100 ) )
-				.build();
-		new Runner( opt ).run();
+		// NB: Use the same forks, iterations and profilers as the other benchmarks.
+		final String result = args.length > 0 ? args[ 0 ] : "jmh-result.json";
+		TranslateBenchmarks.main( result, DisplayCreatorBenchmark.class.getSimpleName() );
 	}
 }
@@ -31,6 +31,7 @@ package net.imagej.legacy.translate;
 
 import static org.junit.Assert.assertEquals;
 
+import ij.CompositeImage;
 import ij.ImagePlus;
 import ij.ImageStack;
 import ij.gui.NewImage;
@@ -38,18 +39,26 @@ import ij.process.ByteProcessor;
 import ij.process.ColorProcessor;
 import ij.process.FloatProcessor;
 import ij.process.ImageProcessor;
+import ij.process.LUT;
 import ij.process.ShortProcessor;
 
+import java.awt.Color;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import net.imagej.Dataset;
+import net.imagej.ImgPlus;
 import net.imagej.axis.Axes;
+import net.imagej.axis.CalibratedAxis;
+import net.imagej.display.DatasetView;
 import net.imagej.display.ImageDisplay;
+import net.imagej.legacy.LegacyService;
 import net.imagej.patcher.LegacyInjector;
 import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.display.ColorTable;
 import net.imglib2.img.array.ArrayImgs;
 import net.imglib2.test.ImgLib2Assert;
 import net.imglib2.type.numeric.RealType;
@@ -239,4 +248,76 @@ public class DisplayCreatorTest
 		Dataset result = SubClass.toDataset(context, image);
 		assertEquals(title, result.getName());
 	}
+
+	@Test
+	public void testImgPlusMatchesDataset() {
+		final ImagePlus image = createCalibratedComposite();
+		final ImageDisplay display = new DisplayCreator(context).createDisplay(
+			image);
+		final Dataset expected = (Dataset) display.getActiveView().getData();
+
+		assertSameImgPlus(expected.getImgPlus(), new DisplayCreator(context)
+			.createImgPlus(image));
+		final LegacyService legacyService = context.service(LegacyService.class);
+		assertSameImgPlus(expected.getImgPlus(), new ImageTranslator(
+			legacyService).createImgPlus(image));
+
+		// NB: The harmonizer rebuilds the pixels of an unrelated display.
+		final ImageDisplay other = new DisplayCreator(context).createDisplay(
+			NewImage.createByteImage("other", 3, 3, 1, NewImage.FILL_BLACK));
+		new Harmonizer(context, new ImageTranslator(legacyService)).updateDisplay(
+			other, image);
+		final Dataset rebuilt = (Dataset) other.getActiveView().getData();
+		assertSameImgPlus(expected.getImgPlus(), rebuilt.getImgPlus());
+		assertSameColorTables(((DatasetView) display.getActiveView())
+			.getColorTables(), ((DatasetView) other.getActiveView())
+				.getColorTables());
+	}
+
+	private static ImagePlus createCalibratedComposite() {
+		final ImagePlus image = NewImage.createByteImage("composite", 4, 3, 6,
+			NewImage.FILL_RAMP);
+		image.setDimensions(2, 3, 1);
+		image.getCalibration().pixelWidth = 0.5;
+		image.getCalibration().pixelHeight = 0.25;
+		image.getCalibration().pixelDepth = 2;
+		image.getCalibration().xOrigin = 3;
+		image.getCalibration().setUnit("um");
+		final CompositeImage composite = new CompositeImage(image,
+			CompositeImage.COMPOSITE);
+		composite.setChannelLut(LUT.createLutFromColor(Color.RED), 1);
+		composite.setChannelLut(LUT.createLutFromColor(Color.GREEN), 2);
+		return composite;
+	}
+
+	private static void assertSameImgPlus(final ImgPlus<?> expected,
+		final ImgPlus<?> actual)
+	{
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.numDimensions(), actual.numDimensions());
+		for (int d = 0; d < expected.numDimensions(); d++) {
+			final CalibratedAxis e = expected.axis(d), a = actual.axis(d);
+			assertEquals(e.type(), a.type());
+			assertEquals(e.unit(), a.unit());
+			assertEquals(e.averageScale(0, 1), a.averageScale(0, 1), 0);
+			assertEquals(e.calibratedValue(0), a.calibratedValue(0), 0);
+			assertEquals(expected.dimension(d), actual.dimension(d));
+		}
+		assertEquals(expected.getColorTableCount(), actual.getColorTableCount());
+	}
+
+	private static void assertSameColorTables(final List<ColorTable> expected,
+		final List<ColorTable> actual)
+	{
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			final ColorTable e = expected.get(i), a = actual.get(i);
+			assertEquals(e.getComponentCount(), a.getComponentCount());
+			assertEquals(e.getLength(), a.getLength());
+			for (int c = 0; c < e.getComponentCount(); c++) {
+				for (int v = 0; v < e.getLength(); v++)
+					assertEquals(e.get(c, v), a.get(c, v));
+			}
+		}
+	}
 }
@@ -0,0 +1,123 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import ij.CompositeImage;
+import ij.ImagePlus;
+import ij.gui.NewImage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.display.ImageDisplay;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.scijava.Context;
+
+/**
+ * Benchmark for {@link DisplayCreator#createDisplay(ImagePlus)}, for every
+ * ImageJ 1.x image type.
+ *
+ * @see TranslateBenchmarks
+ */
+@State(Scope.Benchmark)
+public class DisplayCreatorTypesBenchmark {
+
+	@Param({ "GRAY8", "GRAY16", "GRAY32", "RGB", "COMPOSITE" })
+	private String type;
+
+	private Context context;
+	private DisplayCreator creator;
+	private ImagePlus imp;
+	private final List<ImageDisplay> displays = new ArrayList<>();
+
+	@Setup
+	public void setUp() {
+		context = new Context();
+		creator = new DisplayCreator(context);
+		imp = createImage(type, 512, 512, 60);
+	}
+
+	@TearDown(Level.Iteration)
+	public void closeDisplays() {
+		for (final ImageDisplay display : displays)
+			display.close();
+		displays.clear();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public ImageDisplay createDisplay() {
+		final ImageDisplay display = creator.createDisplay(imp);
+		displays.add(display);
+		return display;
+	}
+
+	/**
+	 * Creates an {@link ImagePlus} of the given type: {@code GRAY8},
+	 * {@code GRAY16}, {@code GRAY32}, {@code RGB} (whose channels get split), or
+	 * {@code COMPOSITE} (a 16-bit {@link CompositeImage} with 3 channels).
+	 */
+	static ImagePlus createImage(final String type, final int width,
+		final int height, final int depth)
+	{
+		switch (type) {
+			case "GRAY8":
+				return NewImage.createByteImage(type, width, height, depth,
+					NewImage.FILL_RAMP);
+			case "GRAY16":
+				return NewImage.createShortImage(type, width, height, depth,
+					NewImage.FILL_RAMP);
+			case "GRAY32":
+				return NewImage.createFloatImage(type, width, height, depth,
+					NewImage.FILL_RAMP);
+			case "RGB":
+				return NewImage.createRGBImage(type, width, height, depth,
+					NewImage.FILL_RAMP);
+			case "COMPOSITE":
+				final ImagePlus imp = NewImage.createShortImage(type, width, height,
+					depth, NewImage.FILL_RAMP);
+				imp.setDimensions(3, depth / 3, 1);
+				return new CompositeImage(imp, CompositeImage.COMPOSITE);
+			default:
+				throw new IllegalArgumentException("Unknown type: " + type);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import ij.ImagePlus;
+
+import net.imagej.display.ImageDisplay;
+import net.imagej.legacy.LegacyService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.scijava.Context;
+
+/**
+ * Benchmark for {@link Harmonizer#updateLegacyImage(ImageDisplay, ImagePlus)}
+ * and {@link Harmonizer#updateDisplay(ImageDisplay, ImagePlus)}, with and
+ * without change tracking.
+ *
+ * @see TranslateBenchmarks
+ */
+@State(Scope.Benchmark)
+public class HarmonizerBenchmark {
+
+	@Param({ "GRAY8", "GRAY32", "RGB", "COMPOSITE" })
+	private String type;
+
+	@Param({ "false", "true" })
+	private boolean changeTracking;
+
+	private Context context;
+	private Harmonizer harmonizer;
+	private ImageDisplay display;
+	private ImagePlus imp;
+
+	@Setup
+	public void setUp() {
+		context = new Context();
+		final LegacyService legacyService = context.service(LegacyService.class);
+		imp = DisplayCreatorTypesBenchmark.createImage(type, 512, 512, 60);
+		display = legacyService.getImageMap().registerLegacyImage(imp);
+		harmonizer = new Harmonizer(context, new ImageTranslator(legacyService));
+		harmonizer.setChangeTracking(changeTracking);
+		harmonizer.registerType(imp);
+		harmonizer.updateDisplay(display, imp);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public void updateLegacyImage() {
+		harmonizer.updateLegacyImage(display, imp);
+	}
+
+	@Benchmark
+	public void updateDisplay() {
+		harmonizer.updateDisplay(display, imp);
+	}
+}
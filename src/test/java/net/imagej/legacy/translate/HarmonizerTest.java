@@ -0,0 +1,231 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import ij.ImagePlus;
+import ij.ImageStack;
+import ij.gui.Roi;
+
+import java.util.BitSet;
+
+import net.imagej.Dataset;
+import net.imagej.DatasetService;
+import net.imagej.ImgPlus;
+import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
+import net.imagej.axis.DefaultLinearAxis;
+import net.imagej.display.DatasetView;
+import net.imagej.display.ImageDisplay;
+import net.imagej.legacy.LegacyService;
+import net.imagej.legacy.translate.Harmonizer.Facet;
+import net.imagej.patcher.LegacyInjector;
+import net.imglib2.RandomAccess;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.planar.PlanarImgs;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.display.DisplayService;
+
+/**
+ * Tests the change tracking of {@link Harmonizer}.
+ */
+public class HarmonizerTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	private Context context;
+	private LegacyService legacyService;
+	private Harmonizer harmonizer;
+
+	@Before
+	public void setUp() {
+		context = new Context();
+		legacyService = context.service(LegacyService.class);
+		harmonizer = new Harmonizer(context, new ImageTranslator(legacyService));
+		harmonizer.setChangeTracking(true);
+	}
+
+	@After
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Test
+	public void testUnchangedFacetsAreSkipped() {
+		final ImageDisplay display = createDisplay(PlanarImgs.unsignedBytes(4, 3,
+			2));
+		final ImagePlus imp = legacyService.getImageMap().registerDisplay(display);
+		harmonizer.updateLegacyImage(display, imp);
+		harmonizer.resetFacetStatistics();
+
+		harmonizer.updateLegacyImage(display, imp);
+		for (final Facet facet : Facet.values()) {
+			assertEquals(facet.toString(), 0, harmonizer.getFacetRunCount(facet));
+			assertEquals(facet.toString(), 1, harmonizer.getFacetSkipCount(facet));
+		}
+	}
+
+	@Test
+	public void testChangedFacetsAreHarmonized() {
+		final ImageDisplay display = createDisplay(PlanarImgs.unsignedBytes(4, 3,
+			2));
+		final Dataset ds = (Dataset) display.getActiveView().getData();
+		final ImagePlus imp = legacyService.getImageMap().registerDisplay(display);
+		harmonizer.updateLegacyImage(display, imp);
+
+		assertHarmonized(display, imp, Facet.CALIBRATION, () -> ds.setAxis(
+			new DefaultLinearAxis(Axes.X, "um", 0.5), 0));
+		assertHarmonized(display, imp, Facet.LUTS, () -> ((DatasetView) display
+			.getActiveView()).setChannelRange(0, 10, 20));
+		assertHarmonized(display, imp, Facet.ROIS, () -> imp.setRoi(new Roi(0, 0,
+			2, 2)));
+		assertHarmonized(display, imp, Facet.POSITION, () -> display.setPosition(
+			1, Axes.Z));
+		assertHarmonized(display, imp, Facet.NAME, () -> display.setName(
+			"renamed"));
+		assertEquals("renamed", imp.getTitle());
+		assertHarmonized(display, imp, Facet.PIXELS, () -> ds.setImgPlus(
+			new ImgPlus<>(PlanarImgs.unsignedBytes(4, 3, 2), "replaced",
+				new AxisType[] { Axes.X, Axes.Y, Axes.Z })));
+	}
+
+	@Test
+	public void testSharedPixelsAreSkipped() {
+		final ImageDisplay display = createDisplay(PlanarImgs.unsignedBytes(4, 3,
+			2));
+		final Dataset ds = (Dataset) display.getActiveView().getData();
+		final ImagePlus imp = legacyService.getImageMap().registerDisplay(display);
+		harmonizer.updateLegacyImage(display, imp);
+		harmonizer.resetFacetStatistics();
+
+		// NB: The planes are shared, so the ImagePlus sees in-place edits as is.
+		setFirstPixel(ds, 42);
+		harmonizer.updateLegacyImage(display, imp);
+		assertEquals(0, harmonizer.getFacetRunCount(Facet.PIXELS));
+		assertEquals(42, imp.getStack().getProcessor(1).get(0, 0));
+	}
+
+	@Test
+	public void testInPlacePixelEdit() {
+		final ImageDisplay display = createDisplay(ArrayImgs.unsignedBytes(4, 3,
+			2));
+		final Dataset ds = (Dataset) display.getActiveView().getData();
+		final ImagePlus imp = legacyService.getImageMap().registerDisplay(display);
+		harmonizer.updateLegacyImage(display, imp);
+		harmonizer.resetFacetStatistics();
+
+		// NB: The planes are not shared, so edits cannot be detected by identity.
+		setFirstPixel(ds, 42);
+		harmonizer.updateLegacyImage(display, imp);
+		assertEquals(1, harmonizer.getFacetRunCount(Facet.PIXELS));
+		assertEquals(42, imp.getStack().getProcessor(1).get(0, 0));
+	}
+
+	@Test
+	public void testTrackedPlanes() {
+		final ImageStack stack = new ImageStack(4, 3);
+		for (int i = 0; i < 3; i++)
+			stack.addSlice("" + i, new byte[12]);
+		final ImagePlus imp = new ImagePlus("tracked", stack);
+		final ImageDisplay display = new DisplayCreator(context).createDisplay(
+			imp);
+		final Dataset ds = (Dataset) display.getActiveView().getData();
+		final ImgPlus<?> imgPlus = ds.getImgPlus();
+		harmonizer.registerType(imp);
+		harmonizer.trackPlanes(imp);
+		// NB: The stack is left as is, for code depending on its class.
+		assertSame(stack, imp.getStack());
+
+		// NB: In-place edits of shared planes need no propagation; replaced
+		// planes are copied.
+		imp.getStack().setVoxel(1, 1, 1, 7);
+		final byte[] replaced = new byte[12];
+		replaced[5] = 9;
+		imp.getStack().setPixels(replaced, 3);
+		harmonizer.updateDisplay(display, imp);
+
+		final BitSet expected = new BitSet();
+		expected.set(0); // the current plane
+		expected.set(2);
+		assertEquals(expected, harmonizer.getChangedPlanes(imp));
+		assertSame(imgPlus, ds.getImgPlus());
+		final RandomAccess<? extends RealType<?>> access = ds.randomAccess();
+		access.setPosition(new long[] { 1, 1, 1 });
+		assertEquals(7, access.get().getRealDouble(), 0);
+		access.setPosition(new long[] { 1, 1, 2 });
+		assertEquals(9, access.get().getRealDouble(), 0);
+	}
+
+	// -- Helper methods --
+
+	private void assertHarmonized(final ImageDisplay display,
+		final ImagePlus imp, final Facet facet, final Runnable change)
+	{
+		harmonizer.resetFacetStatistics();
+		change.run();
+		harmonizer.updateLegacyImage(display, imp);
+		assertEquals(facet.toString(), 1, harmonizer.getFacetRunCount(facet));
+		// NB: Changed pixels invalidate every other facet.
+		if (facet == Facet.PIXELS) return;
+		final Facet other = facet == Facet.NAME ? Facet.POSITION : Facet.NAME;
+		assertEquals(facet.toString(), 0, harmonizer.getFacetRunCount(other));
+
+		harmonizer.resetFacetStatistics();
+		harmonizer.updateLegacyImage(display, imp);
+		assertEquals(facet.toString(), 0, harmonizer.getFacetRunCount(facet));
+		assertNotEquals(facet.toString(), 0, harmonizer.getFacetSkipCount(facet));
+	}
+
+	private ImageDisplay createDisplay(final Img<UnsignedByteType> img) {
+		final Dataset ds = context.service(DatasetService.class).create(
+			new ImgPlus<>(img, "image", new AxisType[] { Axes.X, Axes.Y, Axes.Z }));
+		return (ImageDisplay) context.service(DisplayService.class).createDisplay(
+			ds);
+	}
+
+	private static void setFirstPixel(final Dataset ds, final int value) {
+		final RandomAccess<?> access = ds.getImgPlus().randomAccess();
+		access.setPosition(new long[ds.numDimensions()]);
+		((UnsignedByteType) access.get()).set(value);
+	}
+
+}
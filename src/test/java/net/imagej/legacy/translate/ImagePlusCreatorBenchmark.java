@@ -43,11 +43,7 @@ import net.imglib2.type.numeric.integer.UnsignedByteType;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
-import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
-import org.openjdk.jmh.runner.options.TimeValue;
 import org.scijava.Context;
 
 /**
@@ -55,6 +51,7 @@ import org.scijava.Context;
  * Compare the performance of ImagePlusCreator on different image types and sizes.
  *
  * @author Matthias Arzt
+ * @see TranslateBenchmarks
  */
 @State( Scope.Thread )
 public class ImagePlusCreatorBenchmark
@@ -129,14 +126,8 @@ public class ImagePlusCreatorBenchmark
 
 	public static void main( final String... args ) throws RunnerException
 	{
-		final Options opt = new OptionsBuilder()
-				.include( ImagePlusCreatorBenchmark.class.getSimpleName() )
-				.forks( 0 )
-				.warmupIterations( 4 )
-				.measurementIterations( 8 )
-				.warmupTime( TimeValue.milliseconds( 100 ) )
-				.measurementTime( TimeValue.milliseconds( 100 ) )
-				.build();
-		new Runner( opt ).run();
+		// NB: Use the same forks, iterations and profilers as the other benchmarks.
+		final String result = args.length > 0 ? args[ 0 ] : "jmh-result.json";
+		TranslateBenchmarks.main( result, ImagePlusCreatorBenchmark.class.getSimpleName() );
 	}
 }
@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.AbstractMetadata;
+import io.scif.ImageMetadata;
+import io.scif.Metadata;
+import io.scif.util.FormatTools;
+
+import net.imagej.axis.Axes;
+import net.imagej.patcher.LegacyInjector;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the rendering and caching of the "Info" property by
+ * {@link ImagePlusCreatorUtils}.
+ */
+public class ImagePlusCreatorUtilsTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	@After
+	public void tearDown() {
+		System.clearProperty(ImagePlusCreatorUtils.INFO_MAX_ENTRIES_PROPERTY);
+	}
+
+	@Test
+	public void testRenderInfo() {
+		final Metadata meta = createMetadata();
+		final String info = ImagePlusCreatorUtils.renderInfo(meta, -1);
+		assertTrue(info.startsWith("--- Dataset Information ---\n"));
+		assertTrue(info.contains("BitsPerPixel = 8\n"));
+		assertTrue(info.contains("Dataset name = test\n"));
+		assertTrue(info.contains("Dimension order = X,Y\n"));
+		assertTrue(info.contains("Dimension lengths = 4,3\n"));
+		// NB: Entries are sorted by key.
+		assertTrue(info.contains("--- Global Metadata ---\na = 1\nb = 2\nc = 3\n" +
+			"--- Image Metadata ---\nd = 4\n"));
+		assertFalse(info.contains("omitted"));
+	}
+
+	@Test
+	public void testRenderInfoLimit() {
+		final Metadata meta = createMetadata();
+		final String info = ImagePlusCreatorUtils.renderInfo(meta, 2);
+		assertTrue(info.contains("--- Global Metadata ---\na = 1\nb = 2\n" +
+			"--- Image Metadata ---\n... (2 more entries omitted)\n"));
+		assertEquals(ImagePlusCreatorUtils.renderInfo(meta, -1),
+			ImagePlusCreatorUtils.renderInfo(meta, 4));
+	}
+
+	@Test
+	public void testInfoCache() {
+		final Metadata meta = createMetadata();
+		final String info = ImagePlusCreatorUtils.getInfo(meta);
+		assertSame(info, ImagePlusCreatorUtils.getInfo(meta));
+
+		// NB: The same number of entries, but different content.
+		meta.getTable().put("b", "changed");
+		final String changed = ImagePlusCreatorUtils.getInfo(meta);
+		assertTrue(changed.contains("b = changed\n"));
+
+		System.setProperty(ImagePlusCreatorUtils.INFO_MAX_ENTRIES_PROPERTY, "1");
+		final String limited = ImagePlusCreatorUtils.getInfo(meta);
+		assertTrue(limited.contains("(3 more entries omitted)"));
+		assertEquals(ImagePlusCreatorUtils.renderInfo(meta, 1), limited);
+	}
+
+	// -- Helper methods --
+
+	private static Metadata createMetadata() {
+		final AbstractMetadata meta = new AbstractMetadata() {
+
+			@Override
+			public void populateImageMetadata() {
+				createImageMetadata(1);
+				final ImageMetadata iMeta = get(0);
+				iMeta.setAxisTypes(Axes.X, Axes.Y);
+				iMeta.setAxisLengths(new long[] { 4, 3 });
+				iMeta.setPixelType(FormatTools.UINT8);
+				iMeta.setBitsPerPixel(8);
+			}
+		};
+		meta.setDatasetName("test");
+		meta.populateImageMetadata();
+		meta.getTable().put("c", "3");
+		meta.getTable().put("a", "1");
+		meta.getTable().put("b", "2");
+		meta.get(0).getTable().put("d", "4");
+		return meta;
+	}
+
+}
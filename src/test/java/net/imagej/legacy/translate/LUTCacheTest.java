@@ -0,0 +1,76 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import net.imagej.display.ColorTables;
+import net.imglib2.display.ColorTable8;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LUTCache}.
+ */
+public class LUTCacheTest {
+
+	@Test
+	public void testResamples() {
+		final byte[][] rgb = new LUTCache().get(ColorTables.RED);
+		assertEquals(3, rgb.length);
+		for (int i = 0; i < 256; i++) {
+			assertEquals(i, rgb[0][i] & 0xff);
+			assertEquals(0, rgb[1][i]);
+			assertEquals(0, rgb[2][i]);
+		}
+	}
+
+	@Test
+	public void testKeyedByIdentity() {
+		final LUTCache cache = new LUTCache();
+		final byte[][] gray = cache.get(ColorTables.GRAYS);
+		assertSame(gray, cache.get(ColorTables.GRAYS));
+		final byte[][] copy = cache.get(copy(ColorTables.GRAYS));
+		assertNotSame(gray, copy);
+		for (int c = 0; c < 3; c++)
+			assertArrayEquals(gray[c], copy[c]);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	private static ColorTable8 copy(final ColorTable8 table) {
+		final byte[][] values = table.getValues();
+		return new ColorTable8(values[0].clone(), values[1].clone(), values[2]
+			.clone());
+	}
+}
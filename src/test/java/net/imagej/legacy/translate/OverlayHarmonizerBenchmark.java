@@ -0,0 +1,121 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import ij.ImagePlus;
+import ij.gui.NewImage;
+import ij.gui.OvalRoi;
+import ij.gui.Overlay;
+import ij.gui.PolygonRoi;
+import ij.gui.Roi;
+
+import java.util.Random;
+
+import net.imagej.Dataset;
+import net.imagej.DatasetService;
+import net.imagej.axis.Axes;
+import net.imagej.axis.AxisType;
+import net.imagej.display.ImageDisplay;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.scijava.Context;
+import org.scijava.display.DisplayService;
+
+/**
+ * Benchmark for {@link OverlayHarmonizer} with 10,000 ROIs.
+ *
+ * @see TranslateBenchmarks
+ */
+@State(Scope.Benchmark)
+public class OverlayHarmonizerBenchmark {
+
+	private static final int ROIS = 10000;
+
+	private Context context;
+	private OverlayHarmonizer harmonizer;
+	private ImageDisplay display;
+	private ImagePlus imp;
+
+	@Setup
+	public void setUp() {
+		context = new Context();
+		final Dataset ds = context.service(DatasetService.class).create(
+			new long[] { 2048, 2048 }, "rois", new AxisType[] { Axes.X, Axes.Y }, 8,
+			false, false);
+		display = (ImageDisplay) context.service(DisplayService.class)
+			.createDisplay(ds);
+		imp = NewImage.createByteImage("rois", 2048, 2048, 1,
+			NewImage.FILL_BLACK);
+		imp.setOverlay(createOverlay(ROIS));
+		harmonizer = new OverlayHarmonizer(context);
+		// populate the display, for the reverse direction
+		harmonizer.updateDisplay(display, imp);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public void updateDisplay() {
+		harmonizer.updateDisplay(display, imp);
+	}
+
+	@Benchmark
+	public void updateLegacyImage() {
+		harmonizer.updateLegacyImage(display, imp);
+	}
+
+	private static Overlay createOverlay(final int count) {
+		final Random random = new Random(42);
+		final Overlay overlay = new Overlay();
+		for (int i = 0; i < count; i++) {
+			final int x = random.nextInt(2000);
+			final int y = random.nextInt(2000);
+			switch (i % 3) {
+				case 0:
+					overlay.add(new Roi(x, y, 20, 10));
+					break;
+				case 1:
+					overlay.add(new OvalRoi(x, y, 15, 25));
+					break;
+				default:
+					overlay.add(new PolygonRoi(new int[] { x, x + 30, x + 10 },
+						new int[] { y, y + 5, y + 40 }, 3, Roi.POLYGON));
+			}
+		}
+		return overlay;
+	}
+}
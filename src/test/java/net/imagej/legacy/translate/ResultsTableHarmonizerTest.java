@@ -0,0 +1,173 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import ij.plugin.filter.Analyzer;
+
+import net.imagej.patcher.LegacyInjector;
+import net.imagej.table.DefaultResultsTable;
+import net.imagej.table.ResultsTable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.display.Display;
+import org.scijava.display.DisplayService;
+
+/**
+ * Tests {@link ResultsTableHarmonizer}.
+ */
+public class ResultsTableHarmonizerTest {
+
+	static {
+		LegacyInjector.preinit();
+	}
+
+	private Context context;
+	private DisplayService displayService;
+	private ResultsTableHarmonizer harmonizer;
+
+	@Before
+	public void setUp() {
+		context = new Context(DisplayService.class);
+		displayService = context.service(DisplayService.class);
+		harmonizer = new ResultsTableHarmonizer(displayService);
+		Analyzer.setResultsTable(null); // NB: Throw away old results table!
+	}
+
+	@After
+	public void tearDown() {
+		Analyzer.setResultsTable(null);
+		context.dispose();
+	}
+
+	@Test
+	public void testAppendToLegacy() {
+		final ResultsTable table = createTable(1, 2, 3);
+		harmonizer.setLegacyImageJResultsTable();
+		final ij.measure.ResultsTable ij1Table = Analyzer.getResultsTable();
+		assertColumn(ij1Table, 1, 2, 3);
+
+		table.appendRow();
+		table.setValue(0, 3, 4);
+		harmonizer.setLegacyImageJResultsTable();
+		assertSame(ij1Table, Analyzer.getResultsTable());
+		assertColumn(ij1Table, 1, 2, 3, 4);
+	}
+
+	@Test
+	public void testAppendToModern() {
+		final ResultsTable table = createTable(1, 2, 3);
+		harmonizer.setLegacyImageJResultsTable();
+		final ij.measure.ResultsTable ij1Table = Analyzer.getResultsTable();
+
+		ij1Table.incrementCounter();
+		ij1Table.addValue("Area", 4);
+		harmonizer.setModernImageJResultsTable();
+		assertColumn(table, 1, 2, 3, 4);
+	}
+
+	@Test
+	public void testEarlierRowEditToLegacy() {
+		final ResultsTable table = createTable(1, 2, 3);
+		harmonizer.setLegacyImageJResultsTable();
+
+		table.setValue(0, 0, 42);
+		harmonizer.setLegacyImageJResultsTable();
+		assertColumn(Analyzer.getResultsTable(), 42, 2, 3);
+
+		table.setValue(0, 1, 43);
+		table.appendRow();
+		table.setValue(0, 3, 4);
+		harmonizer.setLegacyImageJResultsTable();
+		assertColumn(Analyzer.getResultsTable(), 42, 43, 3, 4);
+	}
+
+	@Test
+	public void testEarlierRowEditToModern() {
+		final ResultsTable table = createTable(1, 2, 3);
+		harmonizer.setLegacyImageJResultsTable();
+		final ij.measure.ResultsTable ij1Table = Analyzer.getResultsTable();
+
+		ij1Table.setValue("Area", 0, 42);
+		harmonizer.setModernImageJResultsTable();
+		assertColumn(table, 42, 2, 3);
+	}
+
+	@Test
+	public void testSorting() {
+		final ResultsTable table = createTable(3, 1, 2);
+		harmonizer.setLegacyImageJResultsTable();
+		final ij.measure.ResultsTable ij1Table = Analyzer.getResultsTable();
+
+		ij1Table.sort("Area");
+		harmonizer.setModernImageJResultsTable();
+		assertColumn(table, 1, 2, 3);
+	}
+
+	// -- Helper methods --
+
+	/** Creates a displayed table, with one column "Area" of the given values. */
+	private ResultsTable createTable(final double... values) {
+		final ResultsTable table = new DefaultResultsTable();
+		table.appendColumn("Area");
+		table.setRowCount(values.length);
+		for (int r = 0; r < values.length; r++) {
+			table.setValue(0, r, values[r]);
+		}
+		final Display<?> display = displayService.createDisplay(table);
+		displayService.setActiveDisplay(display);
+		return table;
+	}
+
+	private void assertColumn(final ij.measure.ResultsTable ij1Table,
+		final double... expected)
+	{
+		assertEquals(expected.length, ij1Table.size());
+		final int col = ij1Table.getColumnIndex("Area");
+		for (int r = 0; r < expected.length; r++) {
+			assertEquals(expected[r], ij1Table.getValueAsDouble(col, r), 0);
+		}
+	}
+
+	private void assertColumn(final ResultsTable table,
+		final double... expected)
+	{
+		assertEquals(expected.length, table.getRowCount());
+		for (int r = 0; r < expected.length; r++) {
+			assertEquals(expected[r], table.getValue(0, r), 0);
+		}
+	}
+
+}
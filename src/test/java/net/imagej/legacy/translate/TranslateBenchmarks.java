@@ -0,0 +1,79 @@
+/*
+ * #%L
+ * ImageJ2 software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2009 - 2026 ImageJ2 developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.legacy.translate;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs all benchmarks of the legacy layer, with forked JVMs and the GC
+ * profiler, writing the results as JSON so that runs of different releases
+ * can be compared.
+ * <p>
+ * Usage: {@code TranslateBenchmarks [resultFile [includeRegex]]}. From Maven:
+ * {@code mvn verify -Pbenchmark}.
+ * </p>
+ */
+public final class TranslateBenchmarks {
+
+	private TranslateBenchmarks() {
+		// prevent instantiation of utility class
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final String result = args.length > 0 ? args[0] : "jmh-result.json";
+		final String include = args.length > 1 ? args[1] :
+			"net\\.imagej\\.legacy\\..*Benchmark";
+		final Options opt = new OptionsBuilder() //
+			.include(include) //
+			.mode(Mode.AverageTime) //
+			.timeUnit(TimeUnit.MILLISECONDS) //
+			.forks(2) //
+			.jvmArgsAppend("-Xmx6g", "-Djava.awt.headless=true") //
+			.warmupIterations(5) //
+			.warmupTime(TimeValue.seconds(1)) //
+			.measurementIterations(10) //
+			.measurementTime(TimeValue.seconds(1)) //
+			.addProfiler(GCProfiler.class) //
+			.resultFormat(ResultFormatType.JSON) //
+			.result(result) //
+			.shouldFailOnError(true) //
+			.build();
+		new Runner(opt).run();
+	}
+}